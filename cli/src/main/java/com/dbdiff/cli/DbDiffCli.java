@@ -0,0 +1,406 @@
+package com.dbdiff.cli;
+
+import com.dbdiff.plugin.exception.DatabaseComparisonException;
+import com.dbdiff.plugin.model.BatchCompareResult;
+import com.dbdiff.plugin.model.CatalogDiff;
+import com.dbdiff.plugin.model.SchemaSnapshot;
+import com.dbdiff.plugin.model.TableDiff;
+import com.dbdiff.plugin.service.BatchCompareService;
+import com.dbdiff.plugin.service.CompareOptions;
+import com.dbdiff.plugin.service.ComparePair;
+import com.dbdiff.plugin.service.ConnectionFactory;
+import com.dbdiff.plugin.service.ConnectionPool;
+import com.dbdiff.plugin.service.DatabaseDiffService;
+import com.dbdiff.plugin.service.DiffReportWriter;
+import com.dbdiff.plugin.service.SchemaSnapshotFile;
+import com.dbdiff.plugin.service.SqlScriptGenerator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Level;
+
+// 在 IDE 之外对比两个库的结构，供定时任务使用：无差异返回 0，有差异返回 1
+public class DbDiffCli {
+    static final int EXIT_IDENTICAL = 0;
+    static final int EXIT_DRIFT = 1;
+    static final int EXIT_USAGE = 2;
+    static final int EXIT_ERROR = 3;
+
+    private static final String USAGE = String.join("\n",
+        "Usage: db-diff --source <jdbc-url> --target <jdbc-url> [options]",
+        "       db-diff --source <jdbc-url> --save-snapshot <file> [--target <jdbc-url>] [options]",
+        "       db-diff --source-snapshot <file> --target <jdbc-url> [options]",
+        "",
+        "Options:",
+        "  --source-user <user>        user for the source database",
+        "  --source-password <pw>      password for the source database (or env DBDIFF_SOURCE_PASSWORD)",
+        "  --target-user <user>        user for the target database",
+        "  --target-password <pw>      password for the target database (or env DBDIFF_TARGET_PASSWORD)",
+        "  --format <format>           text, json, ndjson, csv, html or sql (default: text)",
+        "  --output <file>             write the report to a file instead of stdout",
+        "  --parallelism <n>           connections per side for comparing tables (default: 4)",
+        "  --include <pattern>         only compare tables matching this LIKE pattern",
+        "  --exclude <pattern>         skip tables matching this LIKE pattern",
+        "  --target-catalogs <a,b,...> compare each of these target catalogs with the source schema;",
+        "                              the source metadata is read once, only --format text is supported",
+        "  --save-snapshot <file>      save the source schema to a snapshot file; without --target only saves",
+        "  --source-snapshot <file>    read the source schema from a snapshot file instead of --source",
+        "  --verbose                   log progress to stderr",
+        "  --help                      show this message",
+        "",
+        "Exit status: 0 when the schemas match, 1 when drift is found, 2 on usage errors, 3 on failures.");
+
+    enum Format {
+        TEXT, JSON, NDJSON, CSV, HTML, SQL
+    }
+
+    static class Arguments {
+        String sourceUrl;
+        String sourceUser;
+        String sourcePassword = System.getenv("DBDIFF_SOURCE_PASSWORD");
+        String targetUrl;
+        String targetUser;
+        String targetPassword = System.getenv("DBDIFF_TARGET_PASSWORD");
+        Format format = Format.TEXT;
+        Path output;
+        int parallelism = 4;
+        String includePattern = "";
+        String excludePattern = "";
+        List<String> targetCatalogs = new ArrayList<>();
+        Path saveSnapshot;
+        Path sourceSnapshot;
+        boolean verbose;
+        boolean help;
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    static int run(String[] args) {
+        Arguments arguments;
+        try {
+            arguments = parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        if (arguments.help) {
+            System.out.println(USAGE);
+            return EXIT_IDENTICAL;
+        }
+        java.util.logging.Logger.getLogger("com.dbdiff")
+            .setLevel(arguments.verbose ? Level.INFO : Level.WARNING);
+
+        try {
+            if (!arguments.targetCatalogs.isEmpty()) {
+                BatchCompareResult result = compareCatalogs(arguments);
+                if (!result.getFailed().isEmpty()) {
+                    return EXIT_ERROR;
+                }
+                return result.isIdentical() ? EXIT_IDENTICAL : EXIT_DRIFT;
+            }
+            List<TableDiff> diffs = compare(arguments);
+            return diffs.isEmpty() ? EXIT_IDENTICAL : EXIT_DRIFT;
+        } catch (DatabaseComparisonException | SQLException | IOException e) {
+            printError(e);
+            return EXIT_ERROR;
+        } catch (RuntimeException e) {
+            // 其他运行时异常（取消、非法选项值等）同样按错误退出，不能让 JVM 以 1 退出被当作结构有差异
+            printError(e);
+            return EXIT_ERROR;
+        }
+    }
+
+    private static void printError(Exception e) {
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+        if (e.getCause() != null) {
+            message += ": " + e.getCause().getMessage();
+        }
+        System.err.println("db-diff: " + message);
+    }
+
+    private static List<TableDiff> compare(Arguments arguments) throws SQLException, IOException {
+        if (arguments.saveSnapshot != null || arguments.sourceSnapshot != null) {
+            return compareSnapshot(arguments);
+        }
+        DatabaseDiffService diffService = new DatabaseDiffService(compareOptions(arguments));
+        try (ConnectionPool sourcePool = new ConnectionPool(
+                 connectionFactory(arguments.sourceUrl, arguments.sourceUser, arguments.sourcePassword),
+                 arguments.parallelism);
+             ConnectionPool targetPool = new ConnectionPool(
+                 connectionFactory(arguments.targetUrl, arguments.targetUser, arguments.targetPassword),
+                 arguments.parallelism)) {
+            String sourceDb = sourcePool.getCatalog();
+            String targetDb = targetPool.getCatalog();
+            List<TableDiff> diffs = diffService.compareDatabase(sourcePool, targetPool);
+            writeOutput(arguments, diffs, sourceDb, targetDb);
+            return diffs;
+        }
+    }
+
+    // 源库一侧使用快照：--source-snapshot 从文件读取，--save-snapshot 从源库读取后保存，
+    // 保存的快照始终带建表语句，之后可离线导出任意格式；没有 --target 时只保存不对比
+    private static List<TableDiff> compareSnapshot(Arguments arguments) throws SQLException, IOException {
+        DatabaseDiffService diffService = new DatabaseDiffService(compareOptions(arguments));
+        SchemaSnapshot source;
+        if (arguments.sourceSnapshot != null) {
+            source = SchemaSnapshotFile.read(arguments.sourceSnapshot);
+        } else {
+            try (Connection conn = connectionFactory(arguments.sourceUrl, arguments.sourceUser,
+                                                     arguments.sourcePassword).create()) {
+                source = diffService.captureSnapshot(conn);
+            }
+            SchemaSnapshotFile.write(source, arguments.saveSnapshot);
+            if (arguments.targetUrl == null) {
+                return Collections.emptyList();
+            }
+        }
+
+        try (Connection target = connectionFactory(arguments.targetUrl, arguments.targetUser,
+                                                   arguments.targetPassword).create()) {
+            String targetDb = target.getCatalog();
+            List<TableDiff> diffs = diffService.compareDatabase(source, target);
+            writeOutput(arguments, diffs, source.getCatalog(), targetDb);
+            return diffs;
+        }
+    }
+
+    private static void writeOutput(Arguments arguments, List<TableDiff> diffs, String sourceDb, String targetDb)
+            throws IOException {
+        if (arguments.output != null) {
+            try (Writer out = DiffReportWriter.newWriter(arguments.output)) {
+                writeReport(out, arguments.format, diffs, sourceDb, targetDb);
+            }
+        } else {
+            // 标准输出不关闭，只刷新
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            writeReport(out, arguments.format, diffs, sourceDb, targetDb);
+            out.flush();
+        }
+    }
+
+    private static CompareOptions compareOptions(Arguments arguments) {
+        CompareOptions options = new CompareOptions();
+        // 走批量读取 information_schema 的路径；只有输出中包含建表语句时才执行 SHOW CREATE TABLE
+        options.setUseInformationSchema(true);
+        options.setParallelism(arguments.parallelism);
+        options.setTableIncludePattern(arguments.includePattern);
+        options.setTableExcludePattern(arguments.excludePattern);
+        options.setLazyCreateTableSql(arguments.format == Format.TEXT || arguments.format == Format.CSV);
+        return options;
+    }
+
+    // 目标地址上的多个库逐一与源库对比，每台服务器同时执行的对比数不超过 --parallelism
+    private static BatchCompareResult compareCatalogs(Arguments arguments) throws IOException {
+        ConnectionFactory source = connectionFactory(arguments.sourceUrl, arguments.sourceUser,
+                                                     arguments.sourcePassword);
+        ConnectionFactory target = connectionFactory(arguments.targetUrl, arguments.targetUser,
+                                                     arguments.targetPassword);
+        List<ComparePair> pairs = new ArrayList<>();
+        for (String catalog : arguments.targetCatalogs) {
+            pairs.add(new ComparePair(catalog, arguments.sourceUrl, source, null,
+                                      arguments.targetUrl, target, catalog));
+        }
+        BatchCompareService batchService = new BatchCompareService(
+            compareOptions(arguments), arguments.parallelism, arguments.parallelism);
+        BatchCompareResult result = batchService.compare(pairs);
+
+        if (arguments.output != null) {
+            try (Writer out = DiffReportWriter.newWriter(arguments.output)) {
+                writeBatchText(out, result);
+            }
+        } else {
+            Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            writeBatchText(out, result);
+            out.flush();
+        }
+        return result;
+    }
+
+    // 每个目标库一行：identical、drifted 或 failed
+    private static void writeBatchText(Writer out, BatchCompareResult result) throws IOException {
+        for (CatalogDiff diff : result.getCatalogDiffs()) {
+            if (diff.isFailed()) {
+                out.write(String.format("%-9s %s  %s%n", "FAILED", diff.getName(), diff.getError()));
+            } else if (diff.isDrifted()) {
+                out.write(String.format("%-9s %s  %d tables differ from %s%n", "DRIFTED", diff.getName(),
+                                        diff.getTableDiffs().size(), diff.getSourceCatalog()));
+            } else {
+                out.write(String.format("%-9s %s%n", "IDENTICAL", diff.getName()));
+            }
+        }
+        out.write(String.format("%d of %d catalogs drifted, %d failed%n", result.getDrifted().size(),
+                                result.getCatalogDiffs().size(), result.getFailed().size()));
+    }
+
+    private static ConnectionFactory connectionFactory(String url, String user, String password) {
+        Properties properties = new Properties();
+        if (user != null) {
+            properties.setProperty("user", user);
+        }
+        if (password != null) {
+            properties.setProperty("password", password);
+        }
+        return () -> DriverManager.getConnection(url, properties);
+    }
+
+    private static void writeReport(Writer out, Format format, List<TableDiff> diffs,
+                                    String sourceDb, String targetDb) throws IOException {
+        switch (format) {
+            case JSON:
+                DiffReportWriter.writeJsonReport(out, diffs, sourceDb, targetDb);
+                break;
+            case NDJSON:
+                DiffReportWriter.writeNdjsonReport(out, diffs, sourceDb, targetDb);
+                break;
+            case CSV:
+                DiffReportWriter.writeCsvReport(out, diffs);
+                break;
+            case HTML:
+                DiffReportWriter.writeHtmlReport(out, diffs, sourceDb, targetDb);
+                break;
+            case SQL:
+                SqlScriptGenerator.writeMigrationScript(out, diffs);
+                break;
+            default:
+                writeText(out, diffs, sourceDb, targetDb);
+                break;
+        }
+    }
+
+    // 每个差异表一行，便于在任务日志中直接查看或 grep
+    private static void writeText(Writer out, List<TableDiff> diffs, String sourceDb, String targetDb)
+            throws IOException {
+        out.write("source: " + sourceDb + "\n");
+        out.write("target: " + targetDb + "\n");
+        for (TableDiff diff : diffs) {
+            out.write(String.format("%-9s %s", diff.getDiffType(), diff.getTableName()));
+            if (diff.getDiffType() == TableDiff.DiffType.MODIFIED) {
+                out.write(String.format("  columns: %d, indexes: %d, foreign keys: %d",
+                    sizeOf(diff.getColumnDiffs()), sizeOf(diff.getIndexDiffs()),
+                    sizeOf(diff.getForeignKeyDiffs())));
+            }
+            out.write("\n");
+        }
+        out.write(diffs.isEmpty() ? "schemas are identical\n" : diffs.size() + " tables differ\n");
+    }
+
+    private static int sizeOf(List<?> list) {
+        return list != null ? list.size() : 0;
+    }
+
+    static Arguments parse(String[] args) {
+        Arguments arguments = new Arguments();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+                case "--help":
+                case "-h":
+                    arguments.help = true;
+                    return arguments;
+                case "--verbose":
+                    arguments.verbose = true;
+                    break;
+                case "--source":
+                    arguments.sourceUrl = value(args, ++i, arg);
+                    break;
+                case "--source-user":
+                    arguments.sourceUser = value(args, ++i, arg);
+                    break;
+                case "--source-password":
+                    arguments.sourcePassword = value(args, ++i, arg);
+                    break;
+                case "--target":
+                    arguments.targetUrl = value(args, ++i, arg);
+                    break;
+                case "--target-user":
+                    arguments.targetUser = value(args, ++i, arg);
+                    break;
+                case "--target-password":
+                    arguments.targetPassword = value(args, ++i, arg);
+                    break;
+                case "--format":
+                    String format = value(args, ++i, arg);
+                    try {
+                        arguments.format = Format.valueOf(format.toUpperCase());
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Unknown format: " + format);
+                    }
+                    break;
+                case "--output":
+                    arguments.output = Paths.get(value(args, ++i, arg));
+                    break;
+                case "--parallelism":
+                    String parallelism = value(args, ++i, arg);
+                    try {
+                        arguments.parallelism = Math.max(1, Integer.parseInt(parallelism));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid parallelism: " + parallelism);
+                    }
+                    break;
+                case "--include":
+                    arguments.includePattern = value(args, ++i, arg);
+                    break;
+                case "--exclude":
+                    arguments.excludePattern = value(args, ++i, arg);
+                    break;
+                case "--target-catalogs":
+                    for (String catalog : value(args, ++i, arg).split(",")) {
+                        if (!catalog.trim().isEmpty()) {
+                            arguments.targetCatalogs.add(catalog.trim());
+                        }
+                    }
+                    break;
+                case "--save-snapshot":
+                    arguments.saveSnapshot = Paths.get(value(args, ++i, arg));
+                    break;
+                case "--source-snapshot":
+                    arguments.sourceSnapshot = Paths.get(value(args, ++i, arg));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (arguments.sourceSnapshot != null) {
+            if (arguments.sourceUrl != null || arguments.saveSnapshot != null) {
+                throw new IllegalArgumentException(
+                    "--source-snapshot cannot be combined with --source or --save-snapshot");
+            }
+            if (arguments.targetUrl == null) {
+                throw new IllegalArgumentException("--source-snapshot requires --target");
+            }
+        } else if (arguments.sourceUrl == null || (arguments.targetUrl == null && arguments.saveSnapshot == null)) {
+            throw new IllegalArgumentException("Both --source and --target are required");
+        }
+        if (!arguments.targetCatalogs.isEmpty()) {
+            if (arguments.format != Format.TEXT) {
+                throw new IllegalArgumentException("--target-catalogs only supports --format text");
+            }
+            if (arguments.saveSnapshot != null || arguments.sourceSnapshot != null) {
+                throw new IllegalArgumentException("--target-catalogs cannot be combined with snapshot files");
+            }
+        }
+        return arguments;
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + option);
+        }
+        return args[index];
+    }
+}
@@ -0,0 +1,56 @@
+package com.dbdiff.plugin.logging;
+
+import java.util.logging.Level;
+
+// 对比核心代码同时运行在 IDE 插件和命令行工具中，日志统一写到 java.util.logging；
+// IDE 会把 java.util.logging 的输出转到 idea.log，命令行工具直接输出到控制台
+public final class Logger {
+    private final java.util.logging.Logger delegate;
+    private final String sourceClass;
+
+    private Logger(Class<?> cl) {
+        this.delegate = java.util.logging.Logger.getLogger(cl.getName());
+        this.sourceClass = cl.getName();
+    }
+
+    public static Logger getInstance(Class<?> cl) {
+        return new Logger(cl);
+    }
+
+    public boolean isDebugEnabled() {
+        return delegate.isLoggable(Level.FINE);
+    }
+
+    public void debug(String message) {
+        log(Level.FINE, message);
+    }
+
+    public void info(String message) {
+        log(Level.INFO, message);
+    }
+
+    public void warn(String message) {
+        log(Level.WARNING, message);
+    }
+
+    public void warn(String message, Throwable t) {
+        log(Level.WARNING, message, t);
+    }
+
+    public void error(String message) {
+        log(Level.SEVERE, message);
+    }
+
+    public void error(String message, Throwable t) {
+        log(Level.SEVERE, message, t);
+    }
+
+    // 显式传入来源类，否则 java.util.logging 会把本类记为日志来源
+    private void log(Level level, String message) {
+        delegate.logp(level, sourceClass, null, message);
+    }
+
+    private void log(Level level, String message, Throwable t) {
+        delegate.logp(level, sourceClass, null, message, t);
+    }
+}
@@ -0,0 +1,55 @@
+package com.dbdiff.plugin.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 批量对比的汇总结果，顺序与提交的对比列表一致
+public class BatchCompareResult {
+    private List<CatalogDiff> catalogDiffs = new ArrayList<>();
+    private long duration;
+
+    public List<CatalogDiff> getCatalogDiffs() {
+        return catalogDiffs;
+    }
+
+    public void setCatalogDiffs(List<CatalogDiff> catalogDiffs) {
+        this.catalogDiffs = catalogDiffs;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public void setDuration(long duration) {
+        this.duration = duration;
+    }
+
+    public List<CatalogDiff> getDrifted() {
+        List<CatalogDiff> drifted = new ArrayList<>();
+        for (CatalogDiff diff : catalogDiffs) {
+            if (diff.isDrifted()) {
+                drifted.add(diff);
+            }
+        }
+        return drifted;
+    }
+
+    public List<CatalogDiff> getFailed() {
+        List<CatalogDiff> failed = new ArrayList<>();
+        for (CatalogDiff diff : catalogDiffs) {
+            if (diff.isFailed()) {
+                failed.add(diff);
+            }
+        }
+        return failed;
+    }
+
+    public boolean isIdentical() {
+        for (CatalogDiff diff : catalogDiffs) {
+            if (diff.isDrifted() || diff.isFailed()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
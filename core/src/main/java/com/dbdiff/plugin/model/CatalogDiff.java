@@ -0,0 +1,70 @@
+package com.dbdiff.plugin.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 批量对比中单个目标库的结果，失败时 error 为失败原因，tableDiffs 为空
+public class CatalogDiff {
+    private String name;
+    private String sourceCatalog;
+    private String targetCatalog;
+    private List<TableDiff> tableDiffs = new ArrayList<>();
+    private String error;
+    private long duration;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getSourceCatalog() {
+        return sourceCatalog;
+    }
+
+    public void setSourceCatalog(String sourceCatalog) {
+        this.sourceCatalog = sourceCatalog;
+    }
+
+    public String getTargetCatalog() {
+        return targetCatalog;
+    }
+
+    public void setTargetCatalog(String targetCatalog) {
+        this.targetCatalog = targetCatalog;
+    }
+
+    public List<TableDiff> getTableDiffs() {
+        return tableDiffs;
+    }
+
+    public void setTableDiffs(List<TableDiff> tableDiffs) {
+        this.tableDiffs = tableDiffs;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public long getDuration() {
+        return duration;
+    }
+
+    public void setDuration(long duration) {
+        this.duration = duration;
+    }
+
+    public boolean isFailed() {
+        return error != null;
+    }
+
+    public boolean isDrifted() {
+        return !tableDiffs.isEmpty();
+    }
+}
@@ -1,9 +1,10 @@
 package com.dbdiff.plugin.model;
 
+// 只保存两侧的字段定义，类型描述在显示或导出时才生成
 public class ColumnDiff {
     private String columnName;
-    private String sourceType;
-    private String targetType;
+    private ColumnInfo sourceColumn;
+    private ColumnInfo targetColumn;
     private DiffType diffType;
     
     public enum DiffType {
@@ -20,20 +21,28 @@ public class ColumnDiff {
         this.columnName = columnName;
     }
     
-    public String getSourceType() {
-        return sourceType;
+    public ColumnInfo getSourceColumn() {
+        return sourceColumn;
     }
     
-    public void setSourceType(String sourceType) {
-        this.sourceType = sourceType;
+    public void setSourceColumn(ColumnInfo sourceColumn) {
+        this.sourceColumn = sourceColumn;
     }
     
-    public String getTargetType() {
-        return targetType;
+    public ColumnInfo getTargetColumn() {
+        return targetColumn;
+    }
+    
+    public void setTargetColumn(ColumnInfo targetColumn) {
+        this.targetColumn = targetColumn;
     }
     
-    public void setTargetType(String targetType) {
-        this.targetType = targetType;
+    public String getSourceType() {
+        return sourceColumn != null ? sourceColumn.toString() : null;
+    }
+    
+    public String getTargetType() {
+        return targetColumn != null ? targetColumn.toString() : null;
     }
     
     public DiffType getDiffType() {
@@ -43,4 +52,4 @@ public class ColumnDiff {
     public void setDiffType(DiffType diffType) {
         this.diffType = diffType;
     }
-} 
\ No newline at end of file
+}
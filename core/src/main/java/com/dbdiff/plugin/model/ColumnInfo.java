@@ -0,0 +1,128 @@
+package com.dbdiff.plugin.model;
+
+import java.util.Objects;
+
+// 不可变的字段定义：类型用枚举表示，哈希值在构造时计算；
+// 比较时先比较哈希值，绝大多数一致的字段不会逐项比较
+public final class ColumnInfo {
+    private final ColumnType type;
+    private final boolean unsigned;
+    // 仅 OTHER 类型保存原始类型名
+    private final String otherTypeName;
+    private final int size;
+    private final int decimal;
+    private final boolean nullable;
+    private final String defaultValue;
+    private final String comment;
+    private final int hash;
+    // 首次显示或导出时生成
+    private String rendered;
+
+    // typeName 为完整类型名，例如 INT UNSIGNED
+    public ColumnInfo(String typeName, int size, int decimal, boolean nullable,
+                      String defaultValue, String comment) {
+        this(typeName, ColumnType.isUnsigned(typeName), size, decimal, nullable, defaultValue, comment);
+    }
+
+    // dataType 为 information_schema 中 DATA_TYPE 那样的基本类型名，是否无符号单独传入，已知类型不需要拼接类型名
+    public ColumnInfo(String dataType, boolean unsigned, int size, int decimal, boolean nullable,
+                      String defaultValue, String comment) {
+        this.type = ColumnType.parse(dataType);
+        this.unsigned = unsigned;
+        this.otherTypeName = type == ColumnType.OTHER && dataType != null ? otherTypeName(dataType, unsigned) : null;
+        this.size = size;
+        this.decimal = decimal;
+        this.nullable = nullable;
+        this.defaultValue = defaultValue;
+        this.comment = comment;
+        int h = type.ordinal();
+        h = 31 * h + (unsigned ? 1 : 0);
+        h = 31 * h + Objects.hashCode(otherTypeName);
+        h = 31 * h + size;
+        h = 31 * h + decimal;
+        h = 31 * h + (nullable ? 1 : 0);
+        this.hash = 31 * h + Objects.hashCode(this.defaultValue);
+    }
+
+    public ColumnType getColumnType() {
+        return type;
+    }
+
+    public boolean isUnsigned() {
+        return unsigned;
+    }
+
+    // 例如 INT UNSIGNED，已知类型返回预先生成的字符串
+    public String getType() {
+        return otherTypeName != null ? otherTypeName : type.getName(unsigned);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getDecimal() {
+        return decimal;
+    }
+
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    public String getDefaultValue() {
+        return defaultValue;
+    }
+
+    public String getComment() {
+        return comment;
+    }
+
+    private static String otherTypeName(String dataType, boolean unsigned) {
+        String name = unsigned && !ColumnType.isUnsigned(dataType) ? dataType + " UNSIGNED" : dataType;
+        return name.intern();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof ColumnInfo)) return false;
+        ColumnInfo other = (ColumnInfo) obj;
+        return hash == other.hash &&
+               type == other.type &&
+               unsigned == other.unsigned &&
+               size == other.size &&
+               decimal == other.decimal &&
+               nullable == other.nullable &&
+               Objects.equals(otherTypeName, other.otherTypeName) &&
+               Objects.equals(defaultValue, other.defaultValue);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        String result = rendered;
+        if (result == null) {
+            StringBuilder sb = new StringBuilder(getType());
+            if (size > 0) {
+                sb.append("(").append(size);
+                if (decimal > 0) {
+                    sb.append(",").append(decimal);
+                }
+                sb.append(")");
+            }
+            if (!nullable) {
+                sb.append(" NOT NULL");
+            }
+            if (defaultValue != null) {
+                sb.append(" DEFAULT ").append(defaultValue);
+            }
+            result = sb.toString();
+            rendered = result;
+        }
+        return result;
+    }
+}
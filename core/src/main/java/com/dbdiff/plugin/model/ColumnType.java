@@ -0,0 +1,101 @@
+package com.dbdiff.plugin.model;
+
+// MySQL 字段类型，类型名和带 UNSIGNED 的写法预先生成；解析时直接在原字符串上不区分大小写比较，
+// 不为每个字段生成大写或拼接后的类型字符串
+public enum ColumnType {
+    TINYINT, SMALLINT, MEDIUMINT, INT, BIGINT, DECIMAL, FLOAT, DOUBLE, BIT, BOOLEAN,
+    CHAR, VARCHAR, TINYTEXT, TEXT, MEDIUMTEXT, LONGTEXT,
+    BINARY, VARBINARY, TINYBLOB, BLOB, MEDIUMBLOB, LONGBLOB,
+    DATE, TIME, DATETIME, TIMESTAMP, YEAR,
+    JSON, ENUM, SET,
+    GEOMETRY, POINT, LINESTRING, POLYGON, MULTIPOINT, MULTILINESTRING, MULTIPOLYGON, GEOMETRYCOLLECTION,
+    // 其他驱动或新版本的类型，类型名原样保存
+    OTHER;
+
+    private static final String UNSIGNED = "UNSIGNED";
+    private static final String UNSIGNED_SUFFIX = " " + UNSIGNED;
+    // values() 每次调用都复制数组
+    private static final ColumnType[] VALUES = values();
+
+    private final String unsignedName = name() + UNSIGNED_SUFFIX;
+
+    public String getName(boolean unsigned) {
+        return unsigned ? unsignedName : name();
+    }
+
+    // 按字符集和排序规则比较的类型，ENUM、SET 在 ORDER BY 中按定义序号排序，同样需要转换后才能按值排序
+    public boolean isCharacter() {
+        switch (this) {
+            case CHAR:
+            case VARCHAR:
+            case TINYTEXT:
+            case TEXT:
+            case MEDIUMTEXT:
+            case LONGTEXT:
+            case ENUM:
+            case SET:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // 类型名不区分大小写，例如 int unsigned 解析为 INT 且 isUnsigned 为 true
+    public static ColumnType parse(String typeName) {
+        if (typeName == null) {
+            return OTHER;
+        }
+        int length = isUnsigned(typeName) ? typeName.length() - UNSIGNED_SUFFIX.length() : typeName.length();
+        for (ColumnType type : VALUES) {
+            String name = type.name();
+            if (type != OTHER && name.length() == length && name.regionMatches(true, 0, typeName, 0, length)) {
+                return type;
+            }
+        }
+        return OTHER;
+    }
+
+    public static boolean isUnsigned(String typeName) {
+        return typeName != null && typeName.regionMatches(true, typeName.length() - UNSIGNED_SUFFIX.length(),
+                                                          UNSIGNED_SUFFIX, 0, UNSIGNED_SUFFIX.length());
+    }
+
+    // 可以声明 UNSIGNED 的数值类型
+    public boolean isNumeric() {
+        switch (this) {
+            case TINYINT:
+            case SMALLINT:
+            case MEDIUMINT:
+            case INT:
+            case BIGINT:
+            case DECIMAL:
+            case FLOAT:
+            case DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    // 完整的类型定义中是否声明了 unsigned，例如 COLUMN_TYPE 的 int(10) unsigned zerofill；
+    // 只认数值类型长度括号之后的修饰词，enum('signed','unsigned') 这样的取值列表不算
+    public static boolean declaresUnsigned(String dataType, String definition) {
+        if (definition == null || !parse(dataType).isNumeric()) {
+            return false;
+        }
+        int end = definition.length();
+        int start = definition.lastIndexOf(')') + 1;
+        while (start < end) {
+            int tokenEnd = definition.indexOf(' ', start);
+            if (tokenEnd < 0) {
+                tokenEnd = end;
+            }
+            if (tokenEnd - start == UNSIGNED.length()
+                && definition.regionMatches(true, start, UNSIGNED, 0, UNSIGNED.length())) {
+                return true;
+            }
+            start = tokenEnd + 1;
+        }
+        return false;
+    }
+}
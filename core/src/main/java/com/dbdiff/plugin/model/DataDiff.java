@@ -0,0 +1,99 @@
+package com.dbdiff.plugin.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 单个表的数据对比结果：按主键分块比较校验和，只有不一致的块才逐行比较
+public class DataDiff {
+    private String tableName;
+    private List<String> primaryKey = new ArrayList<>();
+    private int chunkCount;
+    private int mismatchedChunkCount;
+    private long sourceRows;
+    private long targetRows;
+    // 最多保留 DataCompareService.MAX_ROW_DIFFS 条，rowDiffCount 为实际差异行数
+    private List<RowDiff> rowDiffs = new ArrayList<>();
+    private long rowDiffCount;
+    // 无法对比时的原因，例如没有主键，正常对比时为 null
+    private String skipReason;
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public List<String> getPrimaryKey() {
+        return primaryKey;
+    }
+
+    public void setPrimaryKey(List<String> primaryKey) {
+        this.primaryKey = primaryKey;
+    }
+
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    public void setChunkCount(int chunkCount) {
+        this.chunkCount = chunkCount;
+    }
+
+    public int getMismatchedChunkCount() {
+        return mismatchedChunkCount;
+    }
+
+    public void setMismatchedChunkCount(int mismatchedChunkCount) {
+        this.mismatchedChunkCount = mismatchedChunkCount;
+    }
+
+    public long getSourceRows() {
+        return sourceRows;
+    }
+
+    public void setSourceRows(long sourceRows) {
+        this.sourceRows = sourceRows;
+    }
+
+    public long getTargetRows() {
+        return targetRows;
+    }
+
+    public void setTargetRows(long targetRows) {
+        this.targetRows = targetRows;
+    }
+
+    public List<RowDiff> getRowDiffs() {
+        return rowDiffs;
+    }
+
+    public void setRowDiffs(List<RowDiff> rowDiffs) {
+        this.rowDiffs = rowDiffs;
+    }
+
+    public long getRowDiffCount() {
+        return rowDiffCount;
+    }
+
+    public void setRowDiffCount(long rowDiffCount) {
+        this.rowDiffCount = rowDiffCount;
+    }
+
+    public String getSkipReason() {
+        return skipReason;
+    }
+
+    public void setSkipReason(String skipReason) {
+        this.skipReason = skipReason;
+    }
+
+    public boolean isSkipped() {
+        return skipReason != null;
+    }
+
+    public boolean isIdentical() {
+        return skipReason == null && mismatchedChunkCount == 0;
+    }
+}
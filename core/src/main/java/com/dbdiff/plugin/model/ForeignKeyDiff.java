@@ -0,0 +1,46 @@
+package com.dbdiff.plugin.model;
+
+public class ForeignKeyDiff {
+    private String constraintName;
+    private String sourceDefinition;
+    private String targetDefinition;
+    private DiffType diffType;
+
+    public enum DiffType {
+        ADDED,
+        REMOVED,
+        CHANGED
+    }
+
+    public String getConstraintName() {
+        return constraintName;
+    }
+
+    public void setConstraintName(String constraintName) {
+        this.constraintName = constraintName;
+    }
+
+    public String getSourceDefinition() {
+        return sourceDefinition;
+    }
+
+    public void setSourceDefinition(String sourceDefinition) {
+        this.sourceDefinition = sourceDefinition;
+    }
+
+    public String getTargetDefinition() {
+        return targetDefinition;
+    }
+
+    public void setTargetDefinition(String targetDefinition) {
+        this.targetDefinition = targetDefinition;
+    }
+
+    public DiffType getDiffType() {
+        return diffType;
+    }
+
+    public void setDiffType(DiffType diffType) {
+        this.diffType = diffType;
+    }
+}
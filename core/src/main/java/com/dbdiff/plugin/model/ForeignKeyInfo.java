@@ -0,0 +1,119 @@
+package com.dbdiff.plugin.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public class ForeignKeyInfo {
+    private String name;
+    private List<String> columns = new ArrayList<>();
+    // 引用其他库的表时才有值，同库引用为 null，保证不同库名之间的对比结果一致
+    private String referencedCatalog;
+    private String referencedTable;
+    private List<String> referencedColumns = new ArrayList<>();
+    private String updateRule;
+    private String deleteRule;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public void setColumns(List<String> columns) {
+        this.columns = columns;
+    }
+
+    public String getReferencedCatalog() {
+        return referencedCatalog;
+    }
+
+    public void setReferencedCatalog(String referencedCatalog) {
+        this.referencedCatalog = referencedCatalog;
+    }
+
+    public String getReferencedTable() {
+        return referencedTable;
+    }
+
+    public void setReferencedTable(String referencedTable) {
+        this.referencedTable = referencedTable;
+    }
+
+    public List<String> getReferencedColumns() {
+        return referencedColumns;
+    }
+
+    public void setReferencedColumns(List<String> referencedColumns) {
+        this.referencedColumns = referencedColumns;
+    }
+
+    public String getUpdateRule() {
+        return updateRule;
+    }
+
+    public void setUpdateRule(String updateRule) {
+        this.updateRule = updateRule;
+    }
+
+    public String getDeleteRule() {
+        return deleteRule;
+    }
+
+    public void setDeleteRule(String deleteRule) {
+        this.deleteRule = deleteRule;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof ForeignKeyInfo)) return false;
+        ForeignKeyInfo other = (ForeignKeyInfo) obj;
+        return Objects.equals(columns, other.columns) &&
+               Objects.equals(referencedCatalog, other.referencedCatalog) &&
+               Objects.equals(referencedTable, other.referencedTable) &&
+               Objects.equals(referencedColumns, other.referencedColumns) &&
+               Objects.equals(updateRule, other.updateRule) &&
+               Objects.equals(deleteRule, other.deleteRule);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(columns, referencedCatalog, referencedTable, referencedColumns, updateRule, deleteRule);
+    }
+
+    // 输出可直接用于 ALTER TABLE ... ADD 的定义
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("CONSTRAINT `").append(name).append("` FOREIGN KEY (");
+        appendColumns(sb, columns);
+        sb.append(") REFERENCES ");
+        if (referencedCatalog != null) {
+            sb.append("`").append(referencedCatalog).append("`.");
+        }
+        sb.append("`").append(referencedTable).append("` (");
+        appendColumns(sb, referencedColumns);
+        sb.append(")");
+        if (updateRule != null) {
+            sb.append(" ON UPDATE ").append(updateRule);
+        }
+        if (deleteRule != null) {
+            sb.append(" ON DELETE ").append(deleteRule);
+        }
+        return sb.toString();
+    }
+
+    private static void appendColumns(StringBuilder sb, List<String> names) {
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append("`").append(names.get(i)).append("`");
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.dbdiff.plugin.model;
+
+public class IndexDiff {
+    private String indexName;
+    private String sourceDefinition;
+    private String targetDefinition;
+    private DiffType diffType;
+
+    public enum DiffType {
+        ADDED,
+        REMOVED,
+        CHANGED
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public void setIndexName(String indexName) {
+        this.indexName = indexName;
+    }
+
+    public String getSourceDefinition() {
+        return sourceDefinition;
+    }
+
+    public void setSourceDefinition(String sourceDefinition) {
+        this.sourceDefinition = sourceDefinition;
+    }
+
+    public String getTargetDefinition() {
+        return targetDefinition;
+    }
+
+    public void setTargetDefinition(String targetDefinition) {
+        this.targetDefinition = targetDefinition;
+    }
+
+    public DiffType getDiffType() {
+        return diffType;
+    }
+
+    public void setDiffType(DiffType diffType) {
+        this.diffType = diffType;
+    }
+
+    public boolean isPrimaryKey() {
+        return IndexInfo.PRIMARY_KEY_NAME.equalsIgnoreCase(indexName);
+    }
+}
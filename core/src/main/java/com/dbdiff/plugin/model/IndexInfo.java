@@ -0,0 +1,99 @@
+package com.dbdiff.plugin.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+public class IndexInfo {
+    public static final String PRIMARY_KEY_NAME = "PRIMARY";
+
+    private String name;
+    private boolean unique;
+    // BTREE、HASH、FULLTEXT、SPATIAL
+    private String indexType;
+    // 按 SEQ_IN_INDEX 排列，前缀索引带长度，例如 name(10)
+    private List<String> columns = new ArrayList<>();
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public boolean isUnique() {
+        return unique;
+    }
+
+    public void setUnique(boolean unique) {
+        this.unique = unique;
+    }
+
+    public String getIndexType() {
+        return indexType;
+    }
+
+    public void setIndexType(String indexType) {
+        this.indexType = indexType;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public void setColumns(List<String> columns) {
+        this.columns = columns;
+    }
+
+    public boolean isPrimaryKey() {
+        return PRIMARY_KEY_NAME.equalsIgnoreCase(name);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof IndexInfo)) return false;
+        IndexInfo other = (IndexInfo) obj;
+        return unique == other.unique &&
+               Objects.equals(indexType, other.indexType) &&
+               Objects.equals(columns, other.columns);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(unique, indexType, columns);
+    }
+
+    // 输出可直接用于 ALTER TABLE ... ADD 的定义
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (isPrimaryKey()) {
+            sb.append("PRIMARY KEY");
+        } else {
+            if ("FULLTEXT".equalsIgnoreCase(indexType) || "SPATIAL".equalsIgnoreCase(indexType)) {
+                sb.append(indexType.toUpperCase()).append(" ");
+            } else if (unique) {
+                sb.append("UNIQUE ");
+            }
+            sb.append("INDEX `").append(name).append("`");
+        }
+        sb.append(" (");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(quoteColumn(columns.get(i)));
+        }
+        return sb.append(")").toString();
+    }
+
+    private static String quoteColumn(String column) {
+        // 前缀索引的长度写在反引号外，例如 `name`(10)
+        int prefix = column.indexOf('(');
+        if (prefix > 0 && column.endsWith(")")) {
+            return "`" + column.substring(0, prefix) + "`" + column.substring(prefix);
+        }
+        return "`" + column + "`";
+    }
+}
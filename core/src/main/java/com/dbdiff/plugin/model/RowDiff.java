@@ -0,0 +1,41 @@
+package com.dbdiff.plugin.model;
+
+import java.util.List;
+
+// 数据对比中的单行差异，按主键定位
+public class RowDiff {
+    private List<String> primaryKey;
+    private DiffType diffType;
+    // 内容不同的字段，仅 CHANGED 时有值
+    private List<String> changedColumns;
+
+    public enum DiffType {
+        ADDED,      // 只存在于目标库
+        REMOVED,    // 只存在于源库
+        CHANGED     // 两侧都存在但内容不同
+    }
+
+    public List<String> getPrimaryKey() {
+        return primaryKey;
+    }
+
+    public void setPrimaryKey(List<String> primaryKey) {
+        this.primaryKey = primaryKey;
+    }
+
+    public DiffType getDiffType() {
+        return diffType;
+    }
+
+    public void setDiffType(DiffType diffType) {
+        this.diffType = diffType;
+    }
+
+    public List<String> getChangedColumns() {
+        return changedColumns;
+    }
+
+    public void setChangedColumns(List<String> changedColumns) {
+        this.changedColumns = changedColumns;
+    }
+}
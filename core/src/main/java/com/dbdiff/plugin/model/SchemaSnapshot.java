@@ -0,0 +1,34 @@
+package com.dbdiff.plugin.model;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+public class SchemaSnapshot {
+    private String catalog;
+    private long capturedAt;
+    private Map<String, TableSnapshot> tables = new TreeMap<>();
+
+    public String getCatalog() {
+        return catalog;
+    }
+
+    public void setCatalog(String catalog) {
+        this.catalog = catalog;
+    }
+
+    public long getCapturedAt() {
+        return capturedAt;
+    }
+
+    public void setCapturedAt(long capturedAt) {
+        this.capturedAt = capturedAt;
+    }
+
+    public Map<String, TableSnapshot> getTables() {
+        return tables;
+    }
+
+    public void setTables(Map<String, TableSnapshot> tables) {
+        this.tables = tables;
+    }
+}
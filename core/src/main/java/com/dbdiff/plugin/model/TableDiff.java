@@ -0,0 +1,97 @@
+package com.dbdiff.plugin.model;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class TableDiff {
+    private String tableName;
+    private DiffType diffType;
+    private List<ColumnDiff> columnDiffs;
+    private List<IndexDiff> indexDiffs;
+    private List<ForeignKeyDiff> foreignKeyDiffs;
+    // 通过外键引用的同库表，用于按依赖顺序生成脚本
+    private Set<String> referencedTables = new TreeSet<>();
+    private String createTableSql;
+    // 开启数据量统计时两侧的行数和空间占用，对应侧没有该表或未开启时为 null
+    private TableStats sourceStats;
+    private TableStats targetStats;
+    
+    public enum DiffType {
+        ADDED,
+        REMOVED,
+        MODIFIED
+    }
+    
+    public String getTableName() {
+        return tableName;
+    }
+    
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+    
+    public DiffType getDiffType() {
+        return diffType;
+    }
+    
+    public void setDiffType(DiffType diffType) {
+        this.diffType = diffType;
+    }
+    
+    public List<ColumnDiff> getColumnDiffs() {
+        return columnDiffs;
+    }
+    
+    public void setColumnDiffs(List<ColumnDiff> columnDiffs) {
+        this.columnDiffs = columnDiffs;
+    }
+    
+    public List<IndexDiff> getIndexDiffs() {
+        return indexDiffs;
+    }
+    
+    public void setIndexDiffs(List<IndexDiff> indexDiffs) {
+        this.indexDiffs = indexDiffs;
+    }
+    
+    public List<ForeignKeyDiff> getForeignKeyDiffs() {
+        return foreignKeyDiffs;
+    }
+    
+    public void setForeignKeyDiffs(List<ForeignKeyDiff> foreignKeyDiffs) {
+        this.foreignKeyDiffs = foreignKeyDiffs;
+    }
+    
+    public Set<String> getReferencedTables() {
+        return referencedTables;
+    }
+    
+    public void setReferencedTables(Set<String> referencedTables) {
+        this.referencedTables = referencedTables;
+    }
+    
+    public String getCreateTableSql() {
+        return createTableSql;
+    }
+    
+    public void setCreateTableSql(String createTableSql) {
+        this.createTableSql = createTableSql;
+    }
+    
+    public TableStats getSourceStats() {
+        return sourceStats;
+    }
+    
+    public void setSourceStats(TableStats sourceStats) {
+        this.sourceStats = sourceStats;
+    }
+    
+    public TableStats getTargetStats() {
+        return targetStats;
+    }
+    
+    public void setTargetStats(TableStats targetStats) {
+        this.targetStats = targetStats;
+    }
+}
@@ -0,0 +1,52 @@
+package com.dbdiff.plugin.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class TableSnapshot {
+    private String tableName;
+    private Map<String, ColumnInfo> columns = new LinkedHashMap<>();
+    private Map<String, IndexInfo> indexes = new LinkedHashMap<>();
+    private Map<String, ForeignKeyInfo> foreignKeys = new LinkedHashMap<>();
+    private String createTableSql;
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public void setTableName(String tableName) {
+        this.tableName = tableName;
+    }
+
+    public Map<String, ColumnInfo> getColumns() {
+        return columns;
+    }
+
+    public void setColumns(Map<String, ColumnInfo> columns) {
+        this.columns = columns;
+    }
+
+    public Map<String, IndexInfo> getIndexes() {
+        return indexes;
+    }
+
+    public void setIndexes(Map<String, IndexInfo> indexes) {
+        this.indexes = indexes;
+    }
+
+    public Map<String, ForeignKeyInfo> getForeignKeys() {
+        return foreignKeys;
+    }
+
+    public void setForeignKeys(Map<String, ForeignKeyInfo> foreignKeys) {
+        this.foreignKeys = foreignKeys;
+    }
+
+    public String getCreateTableSql() {
+        return createTableSql;
+    }
+
+    public void setCreateTableSql(String createTableSql) {
+        this.createTableSql = createTableSql;
+    }
+}
@@ -0,0 +1,36 @@
+package com.dbdiff.plugin.model;
+
+// information_schema.TABLES 中的统计值，InnoDB 的行数为估算值
+public class TableStats {
+    private long rows;
+    private long dataLength;
+    private long indexLength;
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public long getDataLength() {
+        return dataLength;
+    }
+
+    public void setDataLength(long dataLength) {
+        this.dataLength = dataLength;
+    }
+
+    public long getIndexLength() {
+        return indexLength;
+    }
+
+    public void setIndexLength(long indexLength) {
+        this.indexLength = indexLength;
+    }
+
+    public long getTotalLength() {
+        return dataLength + indexLength;
+    }
+}
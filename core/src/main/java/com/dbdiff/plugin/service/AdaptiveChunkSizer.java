@@ -0,0 +1,37 @@
+package com.dbdiff.plugin.service;
+
+// 根据观测到的校验和查询耗时调整块大小，使每块耗时落在 200-500 ms 之间：
+// 块太小时往返开销占比高，块太大时取消不及时，也会长时间占用从库
+class AdaptiveChunkSizer {
+    static final long MIN_LATENCY_NANOS = 200_000_000L;
+    static final long MAX_LATENCY_NANOS = 500_000_000L;
+    private static final long TARGET_LATENCY_NANOS = 300_000_000L;
+    static final int MIN_CHUNK_SIZE = 1_000;
+    static final int MAX_CHUNK_SIZE = 1_000_000;
+
+    private int chunkSize;
+
+    AdaptiveChunkSizer(int initialChunkSize) {
+        this.chunkSize = clamp(initialChunkSize);
+    }
+
+    synchronized int getChunkSize() {
+        return chunkSize;
+    }
+
+    // 耗时超出目标区间时按实测速率估算理想大小，与当前值取平均，避免单次抖动造成大幅波动
+    synchronized void record(long rows, long elapsedNanos) {
+        if (rows <= 0 || elapsedNanos <= 0) {
+            return;
+        }
+        if (elapsedNanos >= MIN_LATENCY_NANOS && elapsedNanos <= MAX_LATENCY_NANOS) {
+            return;
+        }
+        double ideal = (double) rows * TARGET_LATENCY_NANOS / elapsedNanos;
+        chunkSize = clamp((long) ((chunkSize + ideal) / 2));
+    }
+
+    private static int clamp(long size) {
+        return (int) Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, size));
+    }
+}
@@ -0,0 +1,11 @@
+package com.dbdiff.plugin.service;
+
+import com.dbdiff.plugin.model.CatalogDiff;
+
+// 批量对比进度回调，会从多个工作线程调用，实现需保证线程安全
+public interface BatchCompareListener {
+    BatchCompareListener NONE = new BatchCompareListener() {};
+
+    default void onCatalogCompared(CatalogDiff diff, int completed, int total) {
+    }
+}
@@ -0,0 +1,246 @@
+package com.dbdiff.plugin.service;
+
+import com.dbdiff.plugin.logging.Logger;
+import com.dbdiff.plugin.model.BatchCompareResult;
+import com.dbdiff.plugin.model.CatalogDiff;
+import com.dbdiff.plugin.model.SchemaSnapshot;
+import com.dbdiff.plugin.model.TableDiff;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 批量对比：多组源库/目标库共用一个固定大小的线程池，每台服务器上同时执行的对比数单独限制；
+// 同一个基准库（源服务器 + 库名）的元数据只读取一次，各目标库都与这份快照对比
+public class BatchCompareService {
+    private static final Logger LOG = Logger.getInstance(BatchCompareService.class);
+
+    private final CompareOptions options;
+    private final int maxConcurrency;
+    private final int maxPerHost;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final Map<List<String>, CompletableFuture<SchemaSnapshot>> references = new ConcurrentHashMap<>();
+    private final Set<DatabaseDiffService> running = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    public BatchCompareService(CompareOptions options, int maxConcurrency, int maxPerHost) {
+        if (maxConcurrency < 1 || maxPerHost < 1) {
+            throw new IllegalArgumentException("Concurrency limits must be positive");
+        }
+        this.options = options;
+        this.maxConcurrency = maxConcurrency;
+        this.maxPerHost = maxPerHost;
+    }
+
+    public BatchCompareResult compare(List<ComparePair> pairs) {
+        return compare(pairs, BatchCompareListener.NONE);
+    }
+
+    // 单个目标库失败只记录在对应结果中，不影响其他库；取消时抛出 CancellationException
+    public BatchCompareResult compare(List<ComparePair> pairs, BatchCompareListener listener) {
+        long startTime = System.currentTimeMillis();
+        CatalogDiff[] results = new CatalogDiff[pairs.size()];
+        AtomicInteger completed = new AtomicInteger();
+        int workers = Math.min(maxConcurrency, pairs.size());
+
+        if (workers > 0) {
+            ExecutorService executor = Executors.newFixedThreadPool(workers, new WorkerThreadFactory("BatchCompare"));
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int index : interleaveByHost(pairs)) {
+                    futures.add(executor.submit(() -> {
+                        results[index] = compareCatalog(pairs.get(index));
+                        listener.onCatalogCompared(results[index], completed.incrementAndGet(), pairs.size());
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    awaitCatalog(future);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        BatchCompareResult result = new BatchCompareResult();
+        result.setCatalogDiffs(new ArrayList<>(Arrays.asList(results)));
+        result.setDuration(System.currentTimeMillis() - startTime);
+        LOG.info("Compared " + pairs.size() + " catalogs with " + workers + " workers, "
+                 + result.getDrifted().size() + " drifted, " + result.getFailed().size() + " failed");
+        return result;
+    }
+
+    // 可从任意线程调用：中断所有正在执行的查询，未开始的库不再处理
+    public void cancel() {
+        cancelled = true;
+        for (DatabaseDiffService diffService : running) {
+            diffService.cancel();
+        }
+    }
+
+    private CatalogDiff compareCatalog(ComparePair pair) {
+        long startTime = System.currentTimeMillis();
+        CatalogDiff result = new CatalogDiff();
+        result.setName(pair.getName());
+        result.setTargetCatalog(pair.getTargetCatalog());
+        try {
+            SchemaSnapshot reference = getReference(pair);
+            result.setSourceCatalog(reference.getCatalog());
+            result.setTableDiffs(withHostPermit(pair.getTargetHost(), () ->
+                withConnection(pair.getTargetFactory(), pair.getTargetCatalog(), conn -> {
+                    if (result.getTargetCatalog() == null) {
+                        result.setTargetCatalog(conn.getCatalog());
+                    }
+                    return runDiffService(diffService -> diffService.compareDatabase(reference, conn));
+                })));
+        } catch (SQLException | RuntimeException e) {
+            if (cancelled) {
+                throw new CancellationException("Batch comparison cancelled");
+            }
+            LOG.warn("Failed to compare catalog " + pair.getName(), e);
+            result.setError(describe(e));
+        }
+        result.setDuration(System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    // 第一个需要该基准库的任务负责读取，其余任务等待同一个结果
+    private SchemaSnapshot getReference(ComparePair pair) throws SQLException {
+        List<String> key = Arrays.asList(pair.getSourceHost(), pair.getSourceCatalog());
+        CompletableFuture<SchemaSnapshot> created = new CompletableFuture<>();
+        CompletableFuture<SchemaSnapshot> existing = references.putIfAbsent(key, created);
+        if (existing == null) {
+            try {
+                created.complete(withHostPermit(pair.getSourceHost(), () ->
+                    withConnection(pair.getSourceFactory(), pair.getSourceCatalog(), conn ->
+                        runDiffService(diffService ->
+                            diffService.captureSnapshot(conn, !options.isLazyCreateTableSql())))));
+            } catch (SQLException | RuntimeException e) {
+                created.completeExceptionally(e);
+                throw e;
+            }
+            return created.join();
+        }
+        try {
+            return existing.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for the reference schema", e);
+        } catch (ExecutionException e) {
+            throw new SQLException("Failed to read the reference schema", e.getCause());
+        }
+    }
+
+    private interface SqlCall<T> {
+        T call() throws SQLException;
+    }
+
+    private interface ConnectionCall<T> {
+        T call(Connection conn) throws SQLException;
+    }
+
+    private interface DiffServiceCall<T> {
+        T call(DatabaseDiffService diffService);
+    }
+
+    private <T> T withHostPermit(String host, SqlCall<T> call) throws SQLException {
+        Semaphore permits = hostPermits.computeIfAbsent(String.valueOf(host), k -> new Semaphore(maxPerHost));
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for host " + host, e);
+        }
+        try {
+            return call.call();
+        } finally {
+            permits.release();
+        }
+    }
+
+    // 切换到指定库执行，结束后恢复原来的库，连接归还到连接池后不影响下一个使用者
+    private static <T> T withConnection(ConnectionFactory factory, String catalog, ConnectionCall<T> call)
+            throws SQLException {
+        try (Connection conn = factory.create()) {
+            String originalCatalog = conn.getCatalog();
+            if (catalog != null && !catalog.equals(originalCatalog)) {
+                conn.setCatalog(catalog);
+            }
+            try {
+                return call.call(conn);
+            } finally {
+                if (catalog != null && originalCatalog != null && !catalog.equals(originalCatalog)) {
+                    conn.setCatalog(originalCatalog);
+                }
+            }
+        }
+    }
+
+    // 每个任务使用独立的对比服务，取消时逐个中断
+    private <T> T runDiffService(DiffServiceCall<T> call) {
+        DatabaseDiffService diffService = new DatabaseDiffService(options);
+        running.add(diffService);
+        try {
+            if (cancelled) {
+                throw new CancellationException("Batch comparison cancelled");
+            }
+            return call.call(diffService);
+        } finally {
+            running.remove(diffService);
+        }
+    }
+
+    // 按目标服务器轮流排列任务，避免线程池中的线程都在等待同一台服务器的许可
+    private static List<Integer> interleaveByHost(List<ComparePair> pairs) {
+        Map<String, List<Integer>> byHost = new LinkedHashMap<>();
+        for (int i = 0; i < pairs.size(); i++) {
+            byHost.computeIfAbsent(String.valueOf(pairs.get(i).getTargetHost()), k -> new ArrayList<>()).add(i);
+        }
+        List<Integer> order = new ArrayList<>(pairs.size());
+        for (int round = 0; order.size() < pairs.size(); round++) {
+            for (List<Integer> indexes : byHost.values()) {
+                if (round < indexes.size()) {
+                    order.add(indexes.get(round));
+                }
+            }
+        }
+        return order;
+    }
+
+    private static String describe(Throwable e) {
+        String message = e.getMessage();
+        if (e.getCause() != null && e.getCause().getMessage() != null) {
+            message += ": " + e.getCause().getMessage();
+        }
+        return message;
+    }
+
+    private void awaitCatalog(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+            throw new CancellationException("Batch comparison interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Batch comparison failed", cause);
+        }
+    }
+}
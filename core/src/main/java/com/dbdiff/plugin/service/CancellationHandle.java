@@ -0,0 +1,69 @@
+package com.dbdiff.plugin.service;
+
+import com.dbdiff.plugin.logging.Logger;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 跟踪正在执行的 JDBC 语句，取消对比时中断进行中的查询
+class CancellationHandle {
+    private static final Logger LOG = Logger.getInstance(CancellationHandle.class);
+
+    private final Set<Statement> runningStatements = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+    private volatile boolean aborted;
+
+    void register(Statement stmt) {
+        runningStatements.add(stmt);
+        if (cancelled || aborted) {
+            cancelQuietly(stmt);
+        }
+    }
+
+    void unregister(Statement stmt) {
+        runningStatements.remove(stmt);
+    }
+
+    void cancel() {
+        cancelled = true;
+        cancelRunningStatements();
+    }
+
+    // 某个工作线程失败时中止其余线程：与 cancel 一样中断查询，但不算用户取消，调用方仍按原始错误报告
+    void abort() {
+        aborted = true;
+        cancelRunningStatements();
+    }
+
+    // 每次并行对比开始前清除上一次失败留下的中止状态，用户取消则一直有效
+    void clearAbort() {
+        aborted = false;
+    }
+
+    private void cancelRunningStatements() {
+        for (Statement stmt : runningStatements) {
+            cancelQuietly(stmt);
+        }
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    void checkCanceled() {
+        if (cancelled || aborted) {
+            throw new CancellationException("Database comparison cancelled");
+        }
+    }
+
+    private static void cancelQuietly(Statement stmt) {
+        try {
+            stmt.cancel();
+        } catch (SQLException e) {
+            LOG.warn("Failed to cancel running statement", e);
+        }
+    }
+}
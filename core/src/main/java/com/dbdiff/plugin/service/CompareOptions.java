@@ -0,0 +1,77 @@
+package com.dbdiff.plugin.service;
+
+public class CompareOptions {
+    // 使用 information_schema 批量读取元数据，关闭后回退到 JDBC DatabaseMetaData 逐表读取
+    private boolean useInformationSchema = true;
+    // 并行对比的工作线程数，每个线程占用源库和目标库各一个连接
+    private int parallelism = 1;
+    // 表名过滤，SQL LIKE 语法（% 和 _ 通配），为空表示不过滤
+    private String tableIncludePattern;
+    private String tableExcludePattern;
+    // 对比时不读取新增/删除表的建表语句，等用户复制表结构时再单独读取
+    private boolean lazyCreateTableSql;
+    // 从 information_schema.TABLES 读取行数和空间占用统计，每侧一次查询，不执行 COUNT(*)
+    private boolean compareTableStats;
+    // 数据对比时每台服务器上同时执行的校验和查询数，避免压垮线上从库
+    private int dataCompareConcurrency = 2;
+
+    public boolean isUseInformationSchema() {
+        return useInformationSchema;
+    }
+
+    public void setUseInformationSchema(boolean useInformationSchema) {
+        this.useInformationSchema = useInformationSchema;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public String getTableIncludePattern() {
+        return tableIncludePattern;
+    }
+
+    public void setTableIncludePattern(String tableIncludePattern) {
+        this.tableIncludePattern = emptyToNull(tableIncludePattern);
+    }
+
+    public String getTableExcludePattern() {
+        return tableExcludePattern;
+    }
+
+    public void setTableExcludePattern(String tableExcludePattern) {
+        this.tableExcludePattern = emptyToNull(tableExcludePattern);
+    }
+
+    public boolean isLazyCreateTableSql() {
+        return lazyCreateTableSql;
+    }
+
+    public void setLazyCreateTableSql(boolean lazyCreateTableSql) {
+        this.lazyCreateTableSql = lazyCreateTableSql;
+    }
+
+    public boolean isCompareTableStats() {
+        return compareTableStats;
+    }
+
+    public void setCompareTableStats(boolean compareTableStats) {
+        this.compareTableStats = compareTableStats;
+    }
+
+    public int getDataCompareConcurrency() {
+        return dataCompareConcurrency;
+    }
+
+    public void setDataCompareConcurrency(int dataCompareConcurrency) {
+        this.dataCompareConcurrency = Math.max(1, dataCompareConcurrency);
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.trim().isEmpty() ? null : value.trim();
+    }
+}
@@ -0,0 +1,51 @@
+package com.dbdiff.plugin.service;
+
+// 批量对比中的一组源库和目标库；host 用于限制每台服务器上的并发数，库名为 null 时使用连接的默认库
+public class ComparePair {
+    private final String name;
+    private final String sourceHost;
+    private final ConnectionFactory sourceFactory;
+    private final String sourceCatalog;
+    private final String targetHost;
+    private final ConnectionFactory targetFactory;
+    private final String targetCatalog;
+
+    public ComparePair(String name, String sourceHost, ConnectionFactory sourceFactory, String sourceCatalog,
+                       String targetHost, ConnectionFactory targetFactory, String targetCatalog) {
+        this.name = name;
+        this.sourceHost = sourceHost;
+        this.sourceFactory = sourceFactory;
+        this.sourceCatalog = sourceCatalog;
+        this.targetHost = targetHost;
+        this.targetFactory = targetFactory;
+        this.targetCatalog = targetCatalog;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getSourceHost() {
+        return sourceHost;
+    }
+
+    public ConnectionFactory getSourceFactory() {
+        return sourceFactory;
+    }
+
+    public String getSourceCatalog() {
+        return sourceCatalog;
+    }
+
+    public String getTargetHost() {
+        return targetHost;
+    }
+
+    public ConnectionFactory getTargetFactory() {
+        return targetFactory;
+    }
+
+    public String getTargetCatalog() {
+        return targetCatalog;
+    }
+}
@@ -0,0 +1,96 @@
+package com.dbdiff.plugin.service;
+
+import com.dbdiff.plugin.logging.Logger;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+
+// 单侧数据库的连接池，最多同时借出 maxSize 个连接，归还的连接留给下一个借用者复用
+public class ConnectionPool implements AutoCloseable {
+    private static final Logger LOG = Logger.getInstance(ConnectionPool.class);
+
+    private final ConnectionFactory factory;
+    private final Semaphore permits;
+    private final Deque<Connection> idle = new ArrayDeque<>();
+    private volatile boolean closed;
+
+    public ConnectionPool(ConnectionFactory factory, int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be positive: " + maxSize);
+        }
+        this.factory = factory;
+        this.permits = new Semaphore(maxSize);
+    }
+
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new IllegalStateException("Connection pool is closed");
+        }
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        try {
+            Connection conn = pollIdle();
+            while (conn != null && conn.isClosed()) {
+                conn = pollIdle();
+            }
+            return conn != null ? conn : factory.create();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public void release(Connection conn) {
+        if (conn == null) {
+            return;
+        }
+        if (closed) {
+            closeQuietly(conn);
+        } else {
+            synchronized (idle) {
+                idle.push(conn);
+            }
+        }
+        permits.release();
+    }
+
+    public String getCatalog() throws SQLException {
+        Connection conn = borrow();
+        try {
+            return conn.getCatalog();
+        } finally {
+            release(conn);
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (idle) {
+            while (!idle.isEmpty()) {
+                closeQuietly(idle.pop());
+            }
+        }
+    }
+
+    private Connection pollIdle() {
+        synchronized (idle) {
+            return idle.poll();
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            LOG.warn("Failed to close pooled connection", e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.dbdiff.plugin.service;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// 逐表执行 SHOW CREATE TABLE，同一连接上复用一个 Statement，避免每张表都创建和关闭语句
+class CreateTableFetcher implements AutoCloseable {
+    private static final String SQL_SHOW_CREATE_TABLE = "SHOW CREATE TABLE ";
+    private static final int CREATE_TABLE_COLUMN_INDEX = 2;
+
+    private final Connection conn;
+    private final String catalog;
+    private final CancellationHandle cancellation;
+    private Statement stmt;
+
+    CreateTableFetcher(Connection conn, String catalog, CancellationHandle cancellation) {
+        this.conn = conn;
+        this.catalog = catalog;
+        this.cancellation = cancellation;
+    }
+
+    String fetch(String table) throws SQLException {
+        if (stmt == null) {
+            stmt = conn.createStatement();
+            cancellation.register(stmt);
+        }
+        cancellation.checkCanceled();
+        // 带上库名并转义标识符，表名包含保留字或特殊字符时也能正确执行
+        String sql = SQL_SHOW_CREATE_TABLE + (catalog != null ? quote(catalog) + "." : "") + quote(table);
+        try (ResultSet rs = stmt.executeQuery(sql)) {
+            if (rs.next()) {
+                return rs.getString(CREATE_TABLE_COLUMN_INDEX); // 第二列是CREATE TABLE语句
+            }
+        }
+        return null;
+    }
+
+    private static String quote(String identifier) {
+        return "`" + identifier.replace("`", "``") + "`";
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (stmt != null) {
+            cancellation.unregister(stmt);
+            stmt.close();
+            stmt = null;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.dbdiff.plugin.service;
+
+import com.dbdiff.plugin.model.DataDiff;
+import com.dbdiff.plugin.model.RowDiff;
+
+// 数据对比进度回调
+public interface DataCompareListener {
+    DataCompareListener NONE = new DataCompareListener() {};
+
+    default void onStarted(int totalTables) {
+    }
+
+    // 每个块比较完成后回调，rows 为该块在源库中的行数
+    default void onChunkCompared(String table, long rows) {
+    }
+
+    // 逐行对比发现差异时回调，每个表保留的差异有上限，需要完整结果时在这里处理
+    default void onRowDiff(String table, RowDiff diff) {
+    }
+
+    default void onTableCompared(DataDiff diff, int processedTables, int totalTables) {
+    }
+}
@@ -0,0 +1,563 @@
+package com.dbdiff.plugin.service;
+
+import com.dbdiff.plugin.exception.DatabaseComparisonException;
+import com.dbdiff.plugin.logging.Logger;
+import com.dbdiff.plugin.model.ColumnInfo;
+import com.dbdiff.plugin.model.DataDiff;
+import com.dbdiff.plugin.model.IndexInfo;
+import com.dbdiff.plugin.model.RowDiff;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 表数据对比：按主键范围分块，两侧各自在服务端计算每块的行数和校验和，
+// 只有校验和不一致的块才继续细分，最后对小块按主键归并逐行比较，一致的块只有校验和经过网络
+public class DataCompareService {
+    private static final Logger LOG = Logger.getInstance(DataCompareService.class);
+
+    public static final int DEFAULT_CHUNK_SIZE = 10_000;
+    // 不一致的块行数不超过该值时逐行比较，否则按十分之一的大小继续细分，减少需要逐行传输的数据
+    static final int ROW_LEVEL_THRESHOLD = 1_000;
+    private static final int SPLIT_FACTOR = 10;
+    // 每个表最多保留的行差异，超出部分只计数
+    public static final int MAX_ROW_DIFFS = 1_000;
+
+    private final CompareOptions options;
+    private final CancellationHandle cancellation = new CancellationHandle();
+    private final InformationSchemaLoader metadataLoader;
+    private final RowStreamDiffer rowDiffer = new RowStreamDiffer(cancellation);
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    public DataCompareService(CompareOptions options) {
+        this.options = options;
+        this.metadataLoader = new InformationSchemaLoader(cancellation, options);
+    }
+
+    // 每个表的初始块大小，对比过程中按查询耗时自动调整
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = Math.max(ROW_LEVEL_THRESHOLD, chunkSize);
+    }
+
+    public void cancel() {
+        cancellation.cancel();
+    }
+
+    public List<DataDiff> compareData(Connection source, Connection target) {
+        return compareData(source, target, DataCompareListener.NONE);
+    }
+
+    // 串行对比两侧共有表的数据，表清单沿用结构对比的表名过滤条件
+    public List<DataDiff> compareData(Connection source, Connection target, DataCompareListener listener) {
+        try {
+            List<TablePlan> plans = planTables(source, target, listener);
+            runWorker(source, target, new PlanQueue(plans), listener);
+            return collectResults(plans);
+        } catch (SQLException e) {
+            throw comparisonFailed(e);
+        }
+    }
+
+    public List<DataDiff> compareData(ConnectionPool sourcePool, ConnectionPool targetPool) {
+        return compareData(sourcePool, targetPool, DataCompareListener.NONE);
+    }
+
+    // 并行模式：各工作线程从两侧连接池各借一个连接，领取同一个表或下一个表的主键范围块并发校验，
+    // 连接池大小即为每台服务器上同时执行的查询数上限
+    public List<DataDiff> compareData(ConnectionPool sourcePool, ConnectionPool targetPool,
+                                      DataCompareListener listener) {
+        try {
+            List<TablePlan> plans = planTables(sourcePool, targetPool, listener);
+            PlanQueue queue = new PlanQueue(plans);
+            int workers = options.getDataCompareConcurrency();
+
+            WorkerGroup.run("DataCompare", workers, cancellation, "table data",
+                            () -> runWorker(sourcePool, targetPool, queue, listener));
+            return collectResults(plans);
+        } catch (SQLException e) {
+            throw comparisonFailed(e);
+        }
+    }
+
+    private RuntimeException comparisonFailed(SQLException e) {
+        // 取消时被中断的查询会抛出 SQLException，不作为错误记录
+        if (cancellation.isCancelled()) {
+            return new CancellationException("Data comparison cancelled");
+        }
+        LOG.error("Data comparison failed", e);
+        return new DatabaseComparisonException("Failed to compare table data", e);
+    }
+
+    private static List<DataDiff> collectResults(List<TablePlan> plans) {
+        List<DataDiff> diffs = new ArrayList<>(plans.size());
+        for (TablePlan plan : plans) {
+            diffs.add(plan.diff);
+        }
+        return diffs;
+    }
+
+    // 单侧的库名以及一次查询读取的字段和索引
+    private static class DataSide {
+        String catalog;
+        Map<String, Map<String, ColumnInfo>> columns;
+        Map<String, Map<String, IndexInfo>> indexes;
+    }
+
+    private DataSide loadDataSide(Connection conn) throws SQLException {
+        DataSide side = new DataSide();
+        side.catalog = conn.getCatalog();
+        side.columns = metadataLoader.loadColumns(conn, side.catalog);
+        side.indexes = metadataLoader.loadIndexes(conn, side.catalog);
+        return side;
+    }
+
+    private List<TablePlan> planTables(ConnectionPool sourcePool, ConnectionPool targetPool,
+                                       DataCompareListener listener) throws SQLException {
+        Connection source = sourcePool.borrow();
+        Connection target = null;
+        try {
+            target = targetPool.borrow();
+            return planTables(source, target, listener);
+        } finally {
+            sourcePool.release(source);
+            targetPool.release(target);
+        }
+    }
+
+    // 为两侧共有的每个表确定主键和参与比较的字段，没有主键的表直接记为跳过
+    private List<TablePlan> planTables(Connection source, Connection target, DataCompareListener listener)
+            throws SQLException {
+        DataSide src = loadDataSide(source);
+        DataSide tgt = loadDataSide(target);
+
+        List<String> tables = new ArrayList<>(new TreeSet<>(src.columns.keySet()));
+        tables.retainAll(tgt.columns.keySet());
+        listener.onStarted(tables.size());
+
+        List<TablePlan> plans = new ArrayList<>(tables.size());
+        AtomicInteger completedTables = new AtomicInteger();
+        for (String table : tables) {
+            TablePlan plan = new TablePlan(plans.size(), table, tables.size(), completedTables, listener);
+            plans.add(plan);
+
+            List<String> primaryKey = primaryKeyColumns(src, table);
+            if (primaryKey.isEmpty()) {
+                plan.skip("没有主键");
+                continue;
+            }
+            if (!primaryKey.equals(primaryKeyColumns(tgt, table))) {
+                plan.skip("两侧主键不一致");
+                continue;
+            }
+            plan.diff.setPrimaryKey(primaryKey);
+
+            // 只比较两侧都存在的字段，字段差异由结构对比负责
+            Map<String, ColumnInfo> targetColumns = tgt.columns.get(table);
+            List<ColumnInfo> columns = new ArrayList<>();
+            List<String> columnNames = new ArrayList<>();
+            for (Map.Entry<String, ColumnInfo> entry : src.columns.get(table).entrySet()) {
+                if (targetColumns.containsKey(entry.getKey())) {
+                    columnNames.add(entry.getKey());
+                    columns.add(entry.getValue());
+                }
+            }
+            String keyOrderSql = keyOrderSql(primaryKey, src.columns.get(table), targetColumns);
+            plan.source = new TableChecksum(src.catalog, table, primaryKey, keyOrderSql, columnNames, columns);
+            plan.target = new TableChecksum(tgt.catalog, table, primaryKey, keyOrderSql, columnNames, columns);
+        }
+        return plans;
+    }
+
+    // 单个表的分块进度：块边界取自源库，按顺序切出，首块没有下界、末块没有上界，目标库多出的行也会落入某个块；
+    // 多个工作线程可同时校验同一个表的不同块，最后一块完成时回调表级结果
+    private class TablePlan {
+        final int index;
+        final DataDiff diff = new DataDiff();
+        final AdaptiveChunkSizer sizer = new AdaptiveChunkSizer(chunkSize);
+        private final int totalTables;
+        private final AtomicInteger completedTables;
+        private final DataCompareListener listener;
+        TableChecksum source;
+        TableChecksum target;
+        // 边界查询只需与同一表的其他边界查询串行，单独加锁，不阻塞其他线程汇总块结果和行差异
+        private final Object boundaryLock = new Object();
+        private Object[] nextLower;
+        private boolean exhausted;
+        private int pendingChunks;
+
+        TablePlan(int index, String table, int totalTables, AtomicInteger completedTables,
+                  DataCompareListener listener) {
+            this.index = index;
+            this.totalTables = totalTables;
+            this.completedTables = completedTables;
+            this.listener = listener;
+            diff.setTableName(table);
+        }
+
+        void skip(String reason) {
+            diff.setSkipReason(reason);
+            exhausted = true;
+            listener.onTableCompared(diff, completedTables.incrementAndGet(), totalTables);
+        }
+
+        // 按当前自适应大小切出下一块，没有剩余时返回 null；边界查询按顺序串行执行，校验和查询并发执行
+        Chunk nextChunk(Connection sourceConn) throws SQLException {
+            synchronized (boundaryLock) {
+                if (exhausted) {
+                    return null;
+                }
+                int size = sizer.getChunkSize();
+                Object[] lower = nextLower;
+                Object[] upper = source.nextBoundary(sourceConn, lower, null, size);
+                nextLower = upper;
+                synchronized (this) {
+                    exhausted = upper == null;
+                    pendingChunks++;
+                }
+                return new Chunk(lower, upper, size);
+            }
+        }
+
+        void chunkCompared(ChunkChecksum sourceChunk, ChunkChecksum targetChunk) {
+            boolean completed;
+            synchronized (this) {
+                diff.setChunkCount(diff.getChunkCount() + 1);
+                diff.setSourceRows(diff.getSourceRows() + sourceChunk.rows);
+                diff.setTargetRows(diff.getTargetRows() + targetChunk.rows);
+                if (!sourceChunk.equals(targetChunk)) {
+                    diff.setMismatchedChunkCount(diff.getMismatchedChunkCount() + 1);
+                }
+                completed = --pendingChunks == 0 && exhausted;
+            }
+            listener.onChunkCompared(diff.getTableName(), sourceChunk.rows);
+            if (completed) {
+                LOG.info("Compared data of table " + diff.getTableName() + ": " + diff.getChunkCount() +
+                         " chunks, " + diff.getMismatchedChunkCount() + " mismatched, " +
+                         diff.getRowDiffCount() + " row differences");
+                listener.onTableCompared(diff, completedTables.incrementAndGet(), totalTables);
+            }
+        }
+
+        void rowDiff(RowDiff rowDiff) {
+            synchronized (this) {
+                addRowDiff(diff, rowDiff);
+            }
+            listener.onRowDiff(diff.getTableName(), rowDiff);
+        }
+    }
+
+    private static class Chunk {
+        final Object[] lower;
+        final Object[] upper;
+        final int size;
+
+        Chunk(Object[] lower, Object[] upper, int size) {
+            this.lower = lower;
+            this.upper = upper;
+            this.size = size;
+        }
+    }
+
+    // 按表顺序分发块：当前表切完后所有线程转向下一个表，大表的块可由多个线程同时校验
+    private static class PlanQueue {
+        private final List<TablePlan> plans;
+        private final AtomicInteger current = new AtomicInteger();
+
+        PlanQueue(List<TablePlan> plans) {
+            this.plans = plans;
+        }
+
+        TablePlan current() {
+            int index = current.get();
+            return index < plans.size() ? plans.get(index) : null;
+        }
+
+        void exhausted(TablePlan plan) {
+            current.compareAndSet(plan.index, plan.index + 1);
+        }
+    }
+
+    private void runWorker(ConnectionPool sourcePool, ConnectionPool targetPool, PlanQueue queue,
+                           DataCompareListener listener) throws SQLException {
+        // 先借源连接再借目标连接，固定顺序避免连接池不足时互相等待
+        Connection source = sourcePool.borrow();
+        Connection target = null;
+        try {
+            target = targetPool.borrow();
+            runWorker(source, target, queue, listener);
+        } finally {
+            sourcePool.release(source);
+            targetPool.release(target);
+        }
+    }
+
+    private void runWorker(Connection source, Connection target, PlanQueue queue, DataCompareListener listener)
+            throws SQLException {
+        TablePlan plan;
+        while ((plan = queue.current()) != null) {
+            cancellation.checkCanceled();
+            Chunk chunk = plan.source != null ? plan.nextChunk(source) : null;
+            if (chunk == null) {
+                queue.exhausted(plan);
+                continue;
+            }
+
+            long start = System.nanoTime();
+            ChunkChecksum sourceChunk = plan.source.checksum(source, chunk.lower, chunk.upper);
+            long sourceNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            ChunkChecksum targetChunk = plan.target.checksum(target, chunk.lower, chunk.upper);
+            long targetNanos = System.nanoTime() - start;
+            // 以较慢的一侧为准调整块大小
+            plan.sizer.record(Math.max(sourceChunk.rows, targetChunk.rows), Math.max(sourceNanos, targetNanos));
+
+            if (!sourceChunk.equals(targetChunk)) {
+                drillDown(source, target, plan, chunk.lower, chunk.upper, sourceChunk, targetChunk, chunk.size);
+            }
+            plan.chunkCompared(sourceChunk, targetChunk);
+        }
+    }
+
+    // 不一致的块按更小的粒度重新分块，只对仍不一致的子块继续细分
+    private void drillDown(Connection source, Connection target, TablePlan plan, Object[] lower, Object[] upper,
+                           ChunkChecksum sourceChunk, ChunkChecksum targetChunk, int size) throws SQLException {
+        cancellation.checkCanceled();
+        int subSize = size / SPLIT_FACTOR;
+        if (Math.max(sourceChunk.rows, targetChunk.rows) <= ROW_LEVEL_THRESHOLD || subSize < ROW_LEVEL_THRESHOLD) {
+            compareRows(source, target, plan, lower, upper);
+            return;
+        }
+
+        // 以行数较多的一侧划分子块，避免一侧为空时无法细分
+        boolean splitBySource = sourceChunk.rows >= targetChunk.rows;
+        TableChecksum splitter = splitBySource ? plan.source : plan.target;
+        Connection splitterConn = splitBySource ? source : target;
+        Object[] subLower = lower;
+        do {
+            Object[] subUpper = splitter.nextBoundary(splitterConn, subLower, upper, subSize);
+            Object[] boundary = subUpper != null ? subUpper : upper;
+            ChunkChecksum sourceSub = plan.source.checksum(source, subLower, boundary);
+            ChunkChecksum targetSub = plan.target.checksum(target, subLower, boundary);
+            if (!sourceSub.equals(targetSub)) {
+                drillDown(source, target, plan, subLower, boundary, sourceSub, targetSub, subSize);
+            }
+            subLower = subUpper;
+        } while (subLower != null);
+    }
+
+    // 两侧按主键顺序流式读取块内的行并归并比较，不把任何一侧读进内存
+    private void compareRows(Connection source, Connection target, TablePlan plan, Object[] lower, Object[] upper)
+            throws SQLException {
+        try (RowStreamDiffer.RowCursor sourceRows = plan.source.openRows(source, lower, upper);
+             RowStreamDiffer.RowCursor targetRows = plan.target.openRows(target, lower, upper)) {
+            rowDiffer.diff(sourceRows, targetRows, plan.source.columnNames, plan::rowDiff);
+        }
+    }
+
+    private static void addRowDiff(DataDiff diff, RowDiff rowDiff) {
+        diff.setRowDiffCount(diff.getRowDiffCount() + 1);
+        if (diff.getRowDiffs().size() < MAX_ROW_DIFFS) {
+            diff.getRowDiffs().add(rowDiff);
+        }
+    }
+
+    // 主键字段，前缀索引的长度后缀去掉，例如 name(10) 取 name
+    private static List<String> primaryKeyColumns(DataSide side, String table) {
+        Map<String, IndexInfo> indexes = side.indexes.get(table);
+        IndexInfo primaryKey = indexes != null ? indexes.get(IndexInfo.PRIMARY_KEY_NAME) : null;
+        if (primaryKey == null) {
+            return Collections.emptyList();
+        }
+        List<String> columns = new ArrayList<>();
+        for (String column : primaryKey.getColumns()) {
+            int prefix = column.indexOf('(');
+            columns.add(prefix >= 0 ? column.substring(0, prefix) : column);
+        }
+        return columns;
+    }
+
+    private static class ChunkChecksum {
+        final long rows;
+        final long checksum;
+
+        ChunkChecksum(long rows, long checksum) {
+            this.rows = rows;
+            this.checksum = checksum;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ChunkChecksum that = (ChunkChecksum) o;
+            return rows == that.rows && checksum == that.checksum;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(rows, checksum);
+        }
+    }
+
+    // 单侧单表的分块查询，主键范围用行构造器比较，例如 (`a`, `b`) > (?, ?)
+    private class TableChecksum {
+        private final String tableSql;
+        private final String keySql;
+        private final String keyOrderSql;
+        private final String rowChecksumSql;
+        private final int keySize;
+        final List<String> columnNames;
+
+        TableChecksum(String catalog, String table, List<String> primaryKey, String keyOrderSql,
+                      List<String> columnNames, List<ColumnInfo> columns) {
+            this.tableSql = quote(catalog) + "." + quote(table);
+            this.keySql = quoteList(primaryKey);
+            this.keyOrderSql = keyOrderSql;
+            this.rowChecksumSql = rowChecksumSql(columnNames, columns);
+            this.keySize = primaryKey.size();
+            this.columnNames = columnNames;
+        }
+
+        // 从 lower 之后第 size 行的主键，作为下一块的上界（含），不足 size 行时返回 null
+        Object[] nextBoundary(Connection conn, Object[] lower, Object[] upper, int size) throws SQLException {
+            String sql = "SELECT " + keySql + " FROM " + tableSql + rangeSql(lower, upper) +
+                         " ORDER BY " + keySql + " LIMIT 1 OFFSET " + (size - 1);
+            return query(conn, sql, lower, upper, rs -> {
+                if (!rs.next()) {
+                    return null;
+                }
+                Object[] boundary = new Object[keySize];
+                for (int i = 0; i < keySize; i++) {
+                    boundary[i] = rs.getObject(i + 1);
+                }
+                return boundary;
+            });
+        }
+
+        ChunkChecksum checksum(Connection conn, Object[] lower, Object[] upper) throws SQLException {
+            String sql = "SELECT COUNT(*), COALESCE(BIT_XOR(" + rowChecksumSql + "), 0) FROM " + tableSql +
+                         rangeSql(lower, upper);
+            return query(conn, sql, lower, upper, rs -> {
+                rs.next();
+                return new ChunkChecksum(rs.getLong(1), rs.getLong(2));
+            });
+        }
+
+        // 主键在前、比较字段在后，按 RowStreamDiffer.compareKeys 的顺序返回的只进游标；
+        // 块边界仍按主键索引的排序规则划分，只有块内的行按二进制排序，块不超过几千行，排序开销很小
+        RowStreamDiffer.RowCursor openRows(Connection conn, Object[] lower, Object[] upper) throws SQLException {
+            cancellation.checkCanceled();
+            String sql = "SELECT " + keySql + ", " + quoteList(columnNames) + " FROM " + tableSql +
+                         rangeSql(lower, upper) + " ORDER BY " + keyOrderSql;
+            return new RowStreamDiffer.RowCursor(conn, sql, rangeParams(lower, upper), keySize,
+                                                 columnNames.size(), cancellation);
+        }
+
+        // (lower, upper] 区间，任一端为 null 表示不限
+        private String rangeSql(Object[] lower, Object[] upper) {
+            List<String> conditions = new ArrayList<>();
+            if (lower != null) {
+                conditions.add("(" + keySql + ") > (" + placeholders(keySize) + ")");
+            }
+            if (upper != null) {
+                conditions.add("(" + keySql + ") <= (" + placeholders(keySize) + ")");
+            }
+            return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+        }
+
+        private List<Object> rangeParams(Object[] lower, Object[] upper) {
+            List<Object> params = new ArrayList<>();
+            if (lower != null) {
+                params.addAll(Arrays.asList(lower));
+            }
+            if (upper != null) {
+                params.addAll(Arrays.asList(upper));
+            }
+            return params;
+        }
+
+        private <T> T query(Connection conn, String sql, Object[] lower, Object[] upper, ResultHandler<T> handler)
+                throws SQLException {
+            cancellation.checkCanceled();
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                List<Object> params = rangeParams(lower, upper);
+                for (int i = 0; i < params.size(); i++) {
+                    stmt.setObject(i + 1, params.get(i));
+                }
+                cancellation.register(stmt);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return handler.handle(rs);
+                } finally {
+                    cancellation.unregister(stmt);
+                }
+            }
+        }
+    }
+
+    private interface ResultHandler<T> {
+        T handle(ResultSet rs) throws SQLException;
+    }
+
+    // 每个值前拼接其字符数，('a#', 'b') 与 ('a', '#b') 不会得到同一个字符串；
+    // CONCAT_WS 会跳过 NULL（CHAR_LENGTH 同样为 NULL），额外拼接可空字段的 ISNULL 标记，区分 NULL 与空串
+    static String rowChecksumSql(List<String> columnNames, List<ColumnInfo> columns) {
+        StringBuilder values = new StringBuilder();
+        StringBuilder nullFlags = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            String column = quote(columnNames.get(i));
+            values.append(i == 0 ? "" : ", ").append("CHAR_LENGTH(").append(column).append("), ").append(column);
+            if (columns.get(i).isNullable()) {
+                nullFlags.append(nullFlags.length() == 0 ? "" : ", ").append("ISNULL(").append(column).append(")");
+            }
+        }
+        if (nullFlags.length() > 0) {
+            values.append(", CONCAT(").append(nullFlags).append(")");
+        }
+        return "CRC32(CONCAT_WS('#', " + values + "))";
+    }
+
+    // 字符串主键按 UTF-8 字节排序，与排序规则无关（_ci、_bin、重音字符的先后各不相同），
+    // 任一侧为字符类型即转换，保证两侧顺序一致
+    static String keyOrderSql(List<String> primaryKey, Map<String, ColumnInfo> sourceColumns,
+                              Map<String, ColumnInfo> targetColumns) {
+        List<String> order = new ArrayList<>(primaryKey.size());
+        for (String column : primaryKey) {
+            if (isCharacter(sourceColumns.get(column)) || isCharacter(targetColumns.get(column))) {
+                order.add("CAST(CONVERT(" + quote(column) + " USING utf8mb4) AS BINARY)");
+            } else {
+                order.add(quote(column));
+            }
+        }
+        return String.join(", ", order);
+    }
+
+    private static boolean isCharacter(ColumnInfo column) {
+        return column != null && column.getColumnType().isCharacter();
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static String quoteList(List<String> identifiers) {
+        List<String> quoted = new ArrayList<>(identifiers.size());
+        for (String identifier : identifiers) {
+            quoted.add(quote(identifier));
+        }
+        return String.join(", ", quoted);
+    }
+
+    private static String quote(String identifier) {
+        return "`" + identifier.replace("`", "``") + "`";
+    }
+}
@@ -0,0 +1,932 @@
+package com.dbdiff.plugin.service;
+
+import com.dbdiff.plugin.exception.DatabaseComparisonException;
+import com.dbdiff.plugin.logging.Logger;
+import com.dbdiff.plugin.model.ColumnDiff;
+import com.dbdiff.plugin.model.ColumnInfo;
+import com.dbdiff.plugin.model.ForeignKeyDiff;
+import com.dbdiff.plugin.model.ForeignKeyInfo;
+import com.dbdiff.plugin.model.IndexDiff;
+import com.dbdiff.plugin.model.IndexInfo;
+import com.dbdiff.plugin.model.SchemaSnapshot;
+import com.dbdiff.plugin.model.TableDiff;
+import com.dbdiff.plugin.model.TableSnapshot;
+import com.dbdiff.plugin.model.TableStats;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+public class DatabaseDiffService {
+    private static final Logger LOG = Logger.getInstance(DatabaseDiffService.class);
+    private static final String[] TABLE_TYPES = new String[]{"TABLE"};
+
+    private final CompareOptions options;
+    private final CancellationHandle cancellation = new CancellationHandle();
+    private final InformationSchemaLoader metadataLoader;
+    private SchemaSnapshotCache snapshotCache;
+
+    public DatabaseDiffService() {
+        this(new CompareOptions());
+    }
+
+    public DatabaseDiffService(CompareOptions options) {
+        this.options = options;
+        this.metadataLoader = new InformationSchemaLoader(cancellation, options);
+    }
+
+    public List<TableDiff> compareDatabase(Connection source, Connection target) {
+        return compareDatabase(source, target, DiffListener.NONE);
+    }
+
+    public List<TableDiff> compareDatabase(Connection source, Connection target, DiffListener listener) {
+        try {
+            validateConnections(source, target);
+            return doCompareDatabase(source, target, listener);
+        } catch (SQLException e) {
+            throw comparisonFailed(e);
+        }
+    }
+
+    public List<TableDiff> compareDatabase(ConnectionPool sourcePool, ConnectionPool targetPool) {
+        return compareDatabase(sourcePool, targetPool, DiffListener.NONE);
+    }
+
+    public List<TableDiff> compareDatabase(ConnectionPool sourcePool, ConnectionPool targetPool,
+                                           DiffListener listener) {
+        try {
+            return doCompareDatabase(sourcePool, targetPool, listener);
+        } catch (SQLException e) {
+            throw comparisonFailed(e);
+        }
+    }
+
+    public List<TableDiff> compareSnapshots(SchemaSnapshot source, SchemaSnapshot target) {
+        return compareSnapshots(source, target, DiffListener.NONE);
+    }
+
+    public List<TableDiff> compareSnapshots(SchemaSnapshot source, SchemaSnapshot target, DiffListener listener) {
+        try {
+            return compareSides(null, toSchemaSide(source), null, toSchemaSide(target), listener);
+        } catch (SQLException e) {
+            // 快照两侧都不访问数据库，不会走到这里
+            throw comparisonFailed(e);
+        }
+    }
+
+    public List<TableDiff> compareDatabase(SchemaSnapshot source, Connection target) {
+        try {
+            return compareSides(null, toSchemaSide(source), target, loadSchemaSide(target), DiffListener.NONE);
+        } catch (SQLException e) {
+            throw comparisonFailed(e);
+        }
+    }
+
+    public List<TableDiff> compareDatabase(Connection source, SchemaSnapshot target) {
+        try {
+            return compareSides(source, loadSchemaSide(source), null, toSchemaSide(target), DiffListener.NONE);
+        } catch (SQLException e) {
+            throw comparisonFailed(e);
+        }
+    }
+
+    // 读取整个库的表、字段和建表语句，保存后可离线对比
+    public SchemaSnapshot captureSnapshot(Connection conn) {
+        return captureSnapshot(conn, true);
+    }
+
+    // 批量对比的基准库只读取一次，建表语句是否读取沿用延迟加载选项
+    public SchemaSnapshot captureSnapshot(Connection conn, boolean withCreateTableSql) {
+        try {
+            SchemaSide side = loadSchemaSide(conn);
+
+            SchemaSnapshot snapshot = new SchemaSnapshot();
+            snapshot.setCatalog(side.catalog);
+            snapshot.setCapturedAt(System.currentTimeMillis());
+            try (SideReader reader = createSideReader(conn, side)) {
+                for (String table : side.tables) {
+                    cancellation.checkCanceled();
+                    TableSnapshot tableSnapshot = new TableSnapshot();
+                    tableSnapshot.setTableName(table);
+                    tableSnapshot.setColumns(new LinkedHashMap<>(reader.columns.getColumns(table)));
+                    tableSnapshot.setIndexes(new LinkedHashMap<>(reader.indexes.getIndexes(table)));
+                    tableSnapshot.setForeignKeys(new LinkedHashMap<>(reader.foreignKeys.getForeignKeys(table)));
+                    if (withCreateTableSql) {
+                        tableSnapshot.setCreateTableSql(reader.ddl.fetch(table));
+                    }
+                    snapshot.getTables().put(table, tableSnapshot);
+                }
+            }
+            LOG.info("Captured snapshot of " + snapshot.getTables().size() + " tables from catalog: " + side.catalog);
+            return snapshot;
+        } catch (SQLException e) {
+            if (cancellation.isCancelled()) {
+                throw new CancellationException("Snapshot capture cancelled");
+            }
+            LOG.error("Schema snapshot capture failed", e);
+            throw new DatabaseComparisonException("Failed to capture schema snapshot", e);
+        }
+    }
+
+    // 延迟加载建表语句时，界面在用户复制表结构时通过此方法单独读取
+    public String fetchCreateTableSql(Connection conn, String table) {
+        try (CreateTableFetcher ddlFetcher = new CreateTableFetcher(conn, conn.getCatalog(), cancellation)) {
+            return ddlFetcher.fetch(table);
+        } catch (SQLException e) {
+            LOG.error("Failed to load create table statement: " + table, e);
+            throw new DatabaseComparisonException("Failed to load create table statement of " + table, e);
+        }
+    }
+
+    // 延迟加载建表语句时，导出脚本或 HTML 报告前补齐缺少的语句：删除的表从源库读取，新增的表从目标库读取，
+    // 只在确实缺少时才建立对应一侧的连接；读取不到时抛出异常，不在导出文件中留下占位注释
+    public void loadMissingCreateTableSql(List<TableDiff> diffs, ConnectionFactory source, ConnectionFactory target) {
+        try {
+            loadMissingCreateTableSql(diffs, TableDiff.DiffType.REMOVED, source);
+            loadMissingCreateTableSql(diffs, TableDiff.DiffType.ADDED, target);
+        } catch (SQLException e) {
+            if (cancellation.isCancelled()) {
+                throw new CancellationException("Loading create table statements cancelled");
+            }
+            LOG.error("Failed to load create table statements", e);
+            throw new DatabaseComparisonException("Failed to load create table statements", e);
+        }
+    }
+
+    private void loadMissingCreateTableSql(List<TableDiff> diffs, TableDiff.DiffType type, ConnectionFactory factory)
+            throws SQLException {
+        List<TableDiff> missing = new ArrayList<>();
+        for (TableDiff diff : diffs) {
+            if (diff.getDiffType() == type && diff.getCreateTableSql() == null) {
+                missing.add(diff);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        try (Connection conn = factory.create();
+             CreateTableFetcher ddlFetcher = new CreateTableFetcher(conn, conn.getCatalog(), cancellation)) {
+            for (TableDiff diff : missing) {
+                String sql = ddlFetcher.fetch(diff.getTableName());
+                if (sql == null) {
+                    throw new SQLException("Table no longer exists: " + diff.getTableName());
+                }
+                diff.setCreateTableSql(sql);
+            }
+        }
+    }
+
+    // 设置后批量读取元数据时复用上次对比缓存的表结构，只重新读取指纹发生变化的表
+    public void setSnapshotCache(SchemaSnapshotCache snapshotCache) {
+        this.snapshotCache = snapshotCache;
+    }
+
+    // 可从任意线程调用：中断正在执行的查询，未开始的表不再处理
+    public void cancel() {
+        cancellation.cancel();
+    }
+
+    private RuntimeException comparisonFailed(SQLException e) {
+        // 取消时被中断的查询会抛出 SQLException，不作为错误记录
+        if (cancellation.isCancelled()) {
+            return new CancellationException("Database comparison cancelled");
+        }
+        LOG.error("Database comparison failed", e);
+        return new DatabaseComparisonException("Failed to compare databases", e);
+    }
+
+    private void validateConnections(Connection source, Connection target) throws SQLException {
+        if (source == null || target == null) {
+            throw new IllegalArgumentException("Database connections cannot be null");
+        }
+        if (source.isClosed() || target.isClosed()) {
+            throw new IllegalStateException("Database connections must be open");
+        }
+    }
+
+    private List<TableDiff> doCompareDatabase(Connection source, Connection target,
+                                              DiffListener listener) throws SQLException {
+        SchemaSide[] sides = loadSchemaSides(source, target);
+        return compareSides(source, sides[0], target, sides[1], listener);
+    }
+
+    // 串行对比两侧，快照侧的连接为 null，字段和建表语句直接取自快照
+    private List<TableDiff> compareSides(Connection source, SchemaSide src, Connection target, SchemaSide tgt,
+                                         DiffListener listener) throws SQLException {
+        List<TableTask> tasks = planTableTasks(src.tables, tgt.tables);
+        ProgressTracker progress = new ProgressTracker(listener, tasks.size());
+
+        List<TableDiff> diffs = new ArrayList<>();
+        try (SideReader sourceReader = createSideReader(source, src);
+             SideReader targetReader = createSideReader(target, tgt)) {
+            for (TableTask task : tasks) {
+                TableDiff diff = compareTable(task, sourceReader, targetReader);
+                if (diff != null) {
+                    diffs.add(diff);
+                }
+                progress.tableProcessed(task.table, diff);
+            }
+        }
+        return diffs;
+    }
+
+    // 并行模式：每个工作线程从两侧连接池各借一个连接，按顺序领取表任务，结果按任务下标归位
+    private List<TableDiff> doCompareDatabase(ConnectionPool sourcePool, ConnectionPool targetPool,
+                                              DiffListener listener) throws SQLException {
+        SchemaSide src;
+        SchemaSide tgt;
+        Connection source = sourcePool.borrow();
+        try {
+            Connection target = targetPool.borrow();
+            try {
+                SchemaSide[] sides = loadSchemaSides(source, target);
+                src = sides[0];
+                tgt = sides[1];
+            } finally {
+                targetPool.release(target);
+            }
+        } finally {
+            sourcePool.release(source);
+        }
+
+        List<TableTask> tasks = planTableTasks(src.tables, tgt.tables);
+        ProgressTracker progress = new ProgressTracker(listener, tasks.size());
+        int workers = Math.min(options.getParallelism(), tasks.size());
+        TableDiff[] results = new TableDiff[tasks.size()];
+        AtomicInteger nextTask = new AtomicInteger();
+
+        if (workers > 0) {
+            WorkerGroup.run("DatabaseDiff", workers, cancellation, "tables",
+                            () -> runWorker(sourcePool, targetPool, src, tgt, tasks, nextTask, results, progress));
+        }
+
+        List<TableDiff> diffs = new ArrayList<>();
+        for (TableDiff diff : results) {
+            if (diff != null) {
+                diffs.add(diff);
+            }
+        }
+        LOG.info("Compared " + tasks.size() + " tables with " + workers + " workers");
+        return diffs;
+    }
+
+    private void runWorker(ConnectionPool sourcePool, ConnectionPool targetPool,
+                           SchemaSide src, SchemaSide tgt, List<TableTask> tasks,
+                           AtomicInteger nextTask, TableDiff[] results,
+                           ProgressTracker progress) throws SQLException {
+        // 先借源连接再借目标连接，固定顺序避免连接池不足时互相等待
+        Connection source = sourcePool.borrow();
+        Connection target = null;
+        try {
+            target = targetPool.borrow();
+
+            // 删除和新增的表排在任务队列前面，各线程并行读取建表语句，每个连接复用一个 Statement
+            try (SideReader sourceReader = createSideReader(source, src);
+                 SideReader targetReader = createSideReader(target, tgt)) {
+                int index;
+                while ((index = nextTask.getAndIncrement()) < tasks.size()) {
+                    TableTask task = tasks.get(index);
+                    results[index] = compareTable(task, sourceReader, targetReader);
+                    progress.tableProcessed(task.table, results[index]);
+                }
+            }
+        } finally {
+            sourcePool.release(source);
+            targetPool.release(target);
+        }
+    }
+
+    private TableDiff compareTable(TableTask task, SideReader source, SideReader target) throws SQLException {
+        cancellation.checkCanceled();
+        switch (task.type) {
+            case REMOVED:
+                return createRemovedTableDiff(source, task.table);
+            case ADDED:
+                return createAddedTableDiff(target, task.table);
+            default:
+                return createModifiedTableDiff(source, target, task.table);
+        }
+    }
+
+    private static class ProgressTracker {
+        private final DiffListener listener;
+        private final int totalTables;
+        private final AtomicInteger processedTables = new AtomicInteger();
+
+        ProgressTracker(DiffListener listener, int totalTables) {
+            this.listener = listener;
+            this.totalTables = totalTables;
+            listener.onStarted(totalTables);
+        }
+
+        void tableProcessed(String table, TableDiff diff) {
+            if (diff != null) {
+                listener.onTableDiff(diff);
+            }
+            listener.onTableProcessed(table, processedTables.incrementAndGet(), totalTables);
+        }
+    }
+
+    // 与串行模式保持一致的输出顺序：删除的表、新增的表、修改的表，各自按表名排序
+    private List<TableTask> planTableTasks(Set<String> srcTables, Set<String> tgtTables) {
+        List<TableTask> tasks = new ArrayList<>();
+        for (String table : srcTables) {
+            if (!tgtTables.contains(table)) {
+                tasks.add(new TableTask(TableDiff.DiffType.REMOVED, table));
+            }
+        }
+        for (String table : tgtTables) {
+            if (!srcTables.contains(table)) {
+                tasks.add(new TableTask(TableDiff.DiffType.ADDED, table));
+            }
+        }
+        for (String table : srcTables) {
+            if (tgtTables.contains(table)) {
+                tasks.add(new TableTask(TableDiff.DiffType.MODIFIED, table));
+            }
+        }
+        return tasks;
+    }
+
+    private static class TableTask {
+        final TableDiff.DiffType type;
+        final String table;
+
+        TableTask(TableDiff.DiffType type, String table) {
+            this.type = type;
+            this.table = table;
+        }
+    }
+
+    // 单侧的库名、表清单（按表名排序），批量模式下预加载的字段和索引，以及来自快照的建表语句
+    private static class SchemaSide {
+        String catalog;
+        Set<String> tables;
+        Map<String, Map<String, ColumnInfo>> columns;
+        Map<String, Map<String, IndexInfo>> indexes;
+        Map<String, Map<String, ForeignKeyInfo>> foreignKeys;
+        Map<String, String> createTableSql;
+        // 开启数据量统计时读取，快照侧为 null
+        Map<String, TableStats> stats;
+    }
+
+    // 按表读取单侧的字段、索引、外键和建表语句，并行模式下每个工作线程持有自己的一组
+    private static class SideReader implements AutoCloseable {
+        final SchemaSide side;
+        final ColumnLoader columns;
+        final IndexLoader indexes;
+        final ForeignKeyLoader foreignKeys;
+        final CreateTableFetcher ddl;
+
+        SideReader(SchemaSide side, ColumnLoader columns, IndexLoader indexes, ForeignKeyLoader foreignKeys,
+                   CreateTableFetcher ddl) {
+            this.side = side;
+            this.columns = columns;
+            this.indexes = indexes;
+            this.foreignKeys = foreignKeys;
+            this.ddl = ddl;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            ddl.close();
+        }
+    }
+
+    private SideReader createSideReader(Connection conn, SchemaSide side) throws SQLException {
+        return new SideReader(side, createColumnLoader(conn, side), createIndexLoader(conn, side),
+                              createForeignKeyLoader(conn, side),
+                              new CreateTableFetcher(conn, side.catalog, cancellation));
+    }
+
+    private static SchemaSide toSchemaSide(SchemaSnapshot snapshot) {
+        SchemaSide side = new SchemaSide();
+        side.catalog = snapshot.getCatalog();
+        side.tables = new TreeSet<>(snapshot.getTables().keySet());
+        side.columns = new HashMap<>();
+        side.indexes = new HashMap<>();
+        side.foreignKeys = new HashMap<>();
+        side.createTableSql = new HashMap<>();
+        for (TableSnapshot table : snapshot.getTables().values()) {
+            side.columns.put(table.getTableName(), table.getColumns());
+            side.indexes.put(table.getTableName(), table.getIndexes());
+            side.foreignKeys.put(table.getTableName(), table.getForeignKeys());
+            side.createTableSql.put(table.getTableName(), table.getCreateTableSql());
+        }
+        return side;
+    }
+
+    // 批量模式下先比较两侧逐表指纹，只读取指纹不同或只存在于一侧的表的完整元数据，
+    // 结构完全一致时每侧只执行一次指纹查询
+    private SchemaSide[] loadSchemaSides(Connection source, Connection target) throws SQLException {
+        if (!options.isUseInformationSchema()) {
+            return new SchemaSide[]{loadSchemaSide(source), loadSchemaSide(target)};
+        }
+        String sourceCatalog = source.getCatalog();
+        String targetCatalog = target.getCatalog();
+        Map<String, String> sourceFingerprints = metadataLoader.loadSchemaFingerprints(source, sourceCatalog);
+        Map<String, String> targetFingerprints = metadataLoader.loadSchemaFingerprints(target, targetCatalog);
+
+        Set<String> changedTables = new TreeSet<>();
+        for (Map.Entry<String, String> entry : sourceFingerprints.entrySet()) {
+            if (!entry.getValue().equals(targetFingerprints.get(entry.getKey()))) {
+                changedTables.add(entry.getKey());
+            }
+        }
+        for (String table : targetFingerprints.keySet()) {
+            if (!sourceFingerprints.containsKey(table)) {
+                changedTables.add(table);
+            }
+        }
+        LOG.info("Fingerprints differ for " + changedTables.size() + " of " +
+                 Math.max(sourceFingerprints.size(), targetFingerprints.size()) + " tables");
+        return new SchemaSide[]{
+            loadSchemaSide(source, sourceCatalog, existing(changedTables, sourceFingerprints.keySet()),
+                           sourceFingerprints),
+            loadSchemaSide(target, targetCatalog, existing(changedTables, targetFingerprints.keySet()),
+                           targetFingerprints)
+        };
+    }
+
+    private static Set<String> existing(Set<String> tables, Set<String> sideTables) {
+        Set<String> result = new TreeSet<>(tables);
+        result.retainAll(sideTables);
+        return result;
+    }
+
+    // 只读取指定表的字段、索引和外键，表清单为空时不再访问数据库
+    private SchemaSide loadSchemaSide(Connection conn, String catalog, Set<String> tables,
+                                      Map<String, String> fingerprints) throws SQLException {
+        SchemaSide side = new SchemaSide();
+        side.catalog = catalog;
+        side.tables = tables;
+        if (snapshotCache != null && !tables.isEmpty()) {
+            loadTablesWithCache(conn, side, fingerprints);
+        } else {
+            side.columns = metadataLoader.loadColumns(conn, catalog, tables);
+            side.indexes = metadataLoader.loadIndexes(conn, catalog, tables);
+            side.foreignKeys = metadataLoader.loadForeignKeys(conn, catalog, tables);
+        }
+        if (options.isCompareTableStats() && !tables.isEmpty()) {
+            side.stats = metadataLoader.loadTableStats(conn, catalog);
+        }
+        return side;
+    }
+
+    private SchemaSide loadSchemaSide(Connection conn) throws SQLException {
+        if (options.isUseInformationSchema() && snapshotCache != null) {
+            // 先读指纹确定表清单，再按缓存只读取指纹变化的表
+            String catalog = conn.getCatalog();
+            Map<String, String> fingerprints = metadataLoader.loadSchemaFingerprints(conn, catalog);
+            return loadSchemaSide(conn, catalog, new TreeSet<>(fingerprints.keySet()), fingerprints);
+        }
+        SchemaSide side = new SchemaSide();
+        side.catalog = conn.getCatalog();
+        if (options.isUseInformationSchema()) {
+            // 一次查询读取全部字段，在内存中按表分组
+            side.columns = metadataLoader.loadColumns(conn, side.catalog);
+            side.tables = new TreeSet<>(side.columns.keySet());
+            side.indexes = metadataLoader.loadIndexes(conn, side.catalog);
+            side.foreignKeys = metadataLoader.loadForeignKeys(conn, side.catalog);
+        } else {
+            side.tables = getTables(conn.getMetaData(), side.catalog);
+        }
+        if (options.isCompareTableStats()) {
+            side.stats = metadataLoader.loadTableStats(conn, side.catalog);
+        }
+        return side;
+    }
+
+    // 指纹与缓存一致的表复用缓存的字段、索引和外键，其余的表重新读取后写回缓存；
+    // 先读指纹再读结构，期间发生的结构变更会在下次对比时因指纹不一致而重新读取
+    private void loadTablesWithCache(Connection conn, SchemaSide side, Map<String, String> fingerprints)
+            throws SQLException {
+        DatabaseMetaData metaData = conn.getMetaData();
+        String key = SchemaSnapshotCache.key(metaData.getURL(), metaData.getUserName(), side.catalog);
+        SchemaSnapshotCache.CachedSchema cached = snapshotCache.get(key);
+
+        side.columns = new HashMap<>();
+        side.indexes = new HashMap<>();
+        side.foreignKeys = new HashMap<>();
+        List<String> changedTables = new ArrayList<>();
+        for (String table : side.tables) {
+            if (cached != null && cached.isCurrent(table, fingerprints.get(table))) {
+                side.columns.put(table, cached.columns.get(table));
+                side.indexes.put(table, cached.indexes.getOrDefault(table, Collections.emptyMap()));
+                side.foreignKeys.put(table, cached.foreignKeys.getOrDefault(table, Collections.emptyMap()));
+            } else {
+                changedTables.add(table);
+            }
+        }
+        if (!changedTables.isEmpty()) {
+            side.columns.putAll(metadataLoader.loadColumns(conn, side.catalog, changedTables));
+            side.indexes.putAll(metadataLoader.loadIndexes(conn, side.catalog, changedTables));
+            side.foreignKeys.putAll(metadataLoader.loadForeignKeys(conn, side.catalog, changedTables));
+        }
+        LOG.info("Reused cached metadata of " + (side.tables.size() - changedTables.size()) +
+                 " tables, reloaded " + changedTables.size() + " tables in catalog: " + side.catalog);
+
+        // 本次读取的表写入缓存，未读取的表保留指纹仍一致的旧缓存，已删除或已变化的表丢弃
+        Map<String, String> cachedFingerprints = new HashMap<>();
+        Map<String, Map<String, ColumnInfo>> columns = new HashMap<>();
+        Map<String, Map<String, IndexInfo>> indexes = new HashMap<>();
+        Map<String, Map<String, ForeignKeyInfo>> foreignKeys = new HashMap<>();
+        for (Map.Entry<String, String> entry : fingerprints.entrySet()) {
+            String table = entry.getKey();
+            if (side.columns.containsKey(table)) {
+                columns.put(table, side.columns.get(table));
+                indexes.put(table, side.indexes.getOrDefault(table, Collections.emptyMap()));
+                foreignKeys.put(table, side.foreignKeys.getOrDefault(table, Collections.emptyMap()));
+            } else if (cached != null && cached.isCurrent(table, entry.getValue())) {
+                columns.put(table, cached.columns.get(table));
+                indexes.put(table, cached.indexes.getOrDefault(table, Collections.emptyMap()));
+                foreignKeys.put(table, cached.foreignKeys.getOrDefault(table, Collections.emptyMap()));
+            } else {
+                continue;
+            }
+            cachedFingerprints.put(table, entry.getValue());
+        }
+        snapshotCache.put(key, new SchemaSnapshotCache.CachedSchema(cachedFingerprints, columns, indexes,
+                                                                    foreignKeys));
+    }
+
+    private ColumnLoader createColumnLoader(Connection conn, SchemaSide side) throws SQLException {
+        if (side.columns != null) {
+            return side.columns::get;
+        }
+        DatabaseMetaData metaData = conn.getMetaData();
+        return table -> getColumns(metaData, side.catalog, table);
+    }
+
+    // 按表名获取字段信息，屏蔽逐表 JDBC 元数据查询与批量预加载两种方式的差异
+    private interface ColumnLoader {
+        Map<String, ColumnInfo> getColumns(String table) throws SQLException;
+    }
+
+    private IndexLoader createIndexLoader(Connection conn, SchemaSide side) throws SQLException {
+        if (side.indexes != null) {
+            return table -> side.indexes.getOrDefault(table, Collections.emptyMap());
+        }
+        DatabaseMetaData metaData = conn.getMetaData();
+        return table -> getIndexes(metaData, side.catalog, table);
+    }
+
+    private interface IndexLoader {
+        Map<String, IndexInfo> getIndexes(String table) throws SQLException;
+    }
+
+    private ForeignKeyLoader createForeignKeyLoader(Connection conn, SchemaSide side) throws SQLException {
+        if (side.foreignKeys != null) {
+            return table -> side.foreignKeys.getOrDefault(table, Collections.emptyMap());
+        }
+        DatabaseMetaData metaData = conn.getMetaData();
+        return table -> getForeignKeys(metaData, side.catalog, table);
+    }
+
+    private interface ForeignKeyLoader {
+        Map<String, ForeignKeyInfo> getForeignKeys(String table) throws SQLException;
+    }
+
+    // 只枚举当前库的表，包含条件作为表名模式交给驱动，排除条件在本地过滤
+    private Set<String> getTables(DatabaseMetaData metaData, String catalog) throws SQLException {
+        Set<String> tables = new TreeSet<>();
+        String includePattern = options.getTableIncludePattern();
+        String excludePattern = options.getTableExcludePattern();
+        Pattern exclude = excludePattern != null ? likeToRegex(excludePattern) : null;
+        try (ResultSet rs = metaData.getTables(catalog, null, includePattern != null ? includePattern : "%",
+                                               TABLE_TYPES)) {
+            while (rs.next()) {
+                String tableName = rs.getString("TABLE_NAME");
+                if (exclude == null || !exclude.matcher(tableName).matches()) {
+                    tables.add(tableName);
+                }
+            }
+        }
+        return tables;
+    }
+
+    // 将 LIKE 模式转换为正则，与 MySQL 默认排序规则一致不区分大小写
+    public static Pattern likeToRegex(String likePattern) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < likePattern.length(); i++) {
+            char c = likePattern.charAt(i);
+            if (c == '\\' && i + 1 < likePattern.length()) {
+                regex.append(Pattern.quote(String.valueOf(likePattern.charAt(++i))));
+            } else if (c == '%') {
+                regex.append(".*");
+            } else if (c == '_') {
+                regex.append('.');
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    }
+
+    private List<ColumnDiff> compareColumns(
+            ColumnLoader sourceLoader,
+            ColumnLoader targetLoader,
+            String table) throws SQLException {
+        
+        List<ColumnDiff> diffs = new ArrayList<>();
+        Map<String, ColumnInfo> sourceColumns = sourceLoader.getColumns(table);
+        Map<String, ColumnInfo> targetColumns = targetLoader.getColumns(table);
+
+        // 逐字段的日志只在调试级别输出，避免大库对比时为每个字段拼接字符串
+        boolean debug = LOG.isDebugEnabled();
+        if (debug) {
+            LOG.debug("Comparing columns for table: " + table);
+            LOG.debug("Source columns: " + sourceColumns.keySet());
+            LOG.debug("Target columns: " + targetColumns.keySet());
+        }
+
+        // 检查���的变化
+        for (Map.Entry<String, ColumnInfo> entry : sourceColumns.entrySet()) {
+            String columnName = entry.getKey();
+            ColumnInfo sourceColumn = entry.getValue();
+            ColumnInfo targetColumn = targetColumns.get(columnName);
+
+            if (targetColumn == null) {
+                // 列被删除
+                ColumnDiff diff = new ColumnDiff();
+                diff.setColumnName(columnName);
+                diff.setSourceColumn(sourceColumn);
+                diff.setDiffType(ColumnDiff.DiffType.REMOVED);
+                diffs.add(diff);
+                if (debug) {
+                    LOG.debug("Found removed column: " + columnName + " in table: " + table);
+                }
+            } else if (!sourceColumn.equals(targetColumn)) {
+                // 列类型改变
+                ColumnDiff diff = new ColumnDiff();
+                diff.setColumnName(columnName);
+                diff.setSourceColumn(sourceColumn);
+                diff.setTargetColumn(targetColumn);
+                diff.setDiffType(ColumnDiff.DiffType.TYPE_CHANGED);
+                diffs.add(diff);
+                if (debug) {
+                    LOG.debug("Found modified column: " + columnName + " in table: " + table +
+                              " from " + sourceColumn + " to " + targetColumn);
+                }
+            }
+        }
+
+        // 检查新增的列
+        for (String columnName : targetColumns.keySet()) {
+            if (!sourceColumns.containsKey(columnName)) {
+                ColumnDiff diff = new ColumnDiff();
+                diff.setColumnName(columnName);
+                diff.setTargetColumn(targetColumns.get(columnName));
+                diff.setDiffType(ColumnDiff.DiffType.ADDED);
+                diffs.add(diff);
+                if (debug) {
+                    LOG.debug("Found added column: " + columnName + " in table: " + table);
+                }
+            }
+        }
+
+        return diffs;
+    }
+
+    private Map<String, ColumnInfo> getColumns(
+            DatabaseMetaData metaData,
+            String catalog,
+            String table) throws SQLException {
+        
+        Map<String, ColumnInfo> columns = new HashMap<>();
+        try (ResultSet rs = metaData.getColumns(catalog, null, table, null)) {
+            while (rs.next()) {
+                String columnName = rs.getString("COLUMN_NAME").intern();
+                columns.put(columnName, new ColumnInfo(
+                    rs.getString("TYPE_NAME"),
+                    rs.getInt("COLUMN_SIZE"),
+                    rs.getInt("DECIMAL_DIGITS"),
+                    rs.getInt("NULLABLE") == DatabaseMetaData.columnNullable,
+                    rs.getString("COLUMN_DEF"),
+                    rs.getString("REMARKS")));
+            }
+        }
+        return columns;
+    }
+
+    private Map<String, IndexInfo> getIndexes(
+            DatabaseMetaData metaData,
+            String catalog,
+            String table) throws SQLException {
+
+        Map<String, IndexInfo> indexes = new LinkedHashMap<>();
+        try (ResultSet rs = metaData.getIndexInfo(catalog, null, table, false, false)) {
+            while (rs.next()) {
+                String indexName = rs.getString("INDEX_NAME");
+                // 跳过表统计信息行
+                if (indexName == null || rs.getShort("TYPE") == DatabaseMetaData.tableIndexStatistic) {
+                    continue;
+                }
+                IndexInfo index = indexes.computeIfAbsent(indexName, k -> new IndexInfo());
+                if (index.getName() == null) {
+                    index.setName(indexName);
+                    index.setUnique(!rs.getBoolean("NON_UNIQUE"));
+                    index.setIndexType(rs.getShort("TYPE") == DatabaseMetaData.tableIndexHashed ? "HASH" : "BTREE");
+                }
+                int position = rs.getShort("ORDINAL_POSITION");
+                List<String> columns = index.getColumns();
+                while (columns.size() < position) {
+                    columns.add(null);
+                }
+                columns.set(position - 1, rs.getString("COLUMN_NAME"));
+            }
+        }
+        return indexes;
+    }
+
+    private Map<String, ForeignKeyInfo> getForeignKeys(
+            DatabaseMetaData metaData,
+            String catalog,
+            String table) throws SQLException {
+
+        Map<String, ForeignKeyInfo> foreignKeys = new LinkedHashMap<>();
+        try (ResultSet rs = metaData.getImportedKeys(catalog, null, table)) {
+            while (rs.next()) {
+                String name = rs.getString("FK_NAME");
+                ForeignKeyInfo foreignKey = foreignKeys.computeIfAbsent(name, k -> new ForeignKeyInfo());
+                if (foreignKey.getName() == null) {
+                    foreignKey.setName(name);
+                    String referencedCatalog = rs.getString("PKTABLE_CAT");
+                    foreignKey.setReferencedCatalog(
+                        referencedCatalog == null || referencedCatalog.equals(catalog) ? null : referencedCatalog);
+                    foreignKey.setReferencedTable(rs.getString("PKTABLE_NAME"));
+                    foreignKey.setUpdateRule(toReferentialAction(rs.getShort("UPDATE_RULE")));
+                    foreignKey.setDeleteRule(toReferentialAction(rs.getShort("DELETE_RULE")));
+                }
+                // 结果集按 KEY_SEQ 排序
+                foreignKey.getColumns().add(rs.getString("FKCOLUMN_NAME"));
+                foreignKey.getReferencedColumns().add(rs.getString("PKCOLUMN_NAME"));
+            }
+        }
+        return foreignKeys;
+    }
+
+    // 与 information_schema.REFERENTIAL_CONSTRAINTS 的写法保持一致
+    private static String toReferentialAction(short rule) {
+        switch (rule) {
+            case DatabaseMetaData.importedKeyCascade:
+                return "CASCADE";
+            case DatabaseMetaData.importedKeySetNull:
+                return "SET NULL";
+            case DatabaseMetaData.importedKeySetDefault:
+                return "SET DEFAULT";
+            case DatabaseMetaData.importedKeyNoAction:
+                return "NO ACTION";
+            default:
+                return "RESTRICT";
+        }
+    }
+
+    private List<ForeignKeyDiff> compareForeignKeys(Map<String, ForeignKeyInfo> sourceForeignKeys,
+                                                    Map<String, ForeignKeyInfo> targetForeignKeys) {
+        List<ForeignKeyDiff> diffs = new ArrayList<>();
+        for (Map.Entry<String, ForeignKeyInfo> entry : sourceForeignKeys.entrySet()) {
+            ForeignKeyInfo targetForeignKey = targetForeignKeys.get(entry.getKey());
+            if (targetForeignKey == null) {
+                diffs.add(createForeignKeyDiff(entry.getKey(), entry.getValue(), null,
+                                               ForeignKeyDiff.DiffType.REMOVED));
+            } else if (!entry.getValue().equals(targetForeignKey)) {
+                diffs.add(createForeignKeyDiff(entry.getKey(), entry.getValue(), targetForeignKey,
+                                               ForeignKeyDiff.DiffType.CHANGED));
+            }
+        }
+        for (Map.Entry<String, ForeignKeyInfo> entry : targetForeignKeys.entrySet()) {
+            if (!sourceForeignKeys.containsKey(entry.getKey())) {
+                diffs.add(createForeignKeyDiff(entry.getKey(), null, entry.getValue(),
+                                               ForeignKeyDiff.DiffType.ADDED));
+            }
+        }
+        return diffs;
+    }
+
+    private static ForeignKeyDiff createForeignKeyDiff(String name, ForeignKeyInfo source, ForeignKeyInfo target,
+                                                       ForeignKeyDiff.DiffType type) {
+        ForeignKeyDiff diff = new ForeignKeyDiff();
+        diff.setConstraintName(name);
+        diff.setSourceDefinition(source != null ? source.toString() : null);
+        diff.setTargetDefinition(target != null ? target.toString() : null);
+        diff.setDiffType(type);
+        return diff;
+    }
+
+    // 外键引用的同库表（不含自身），脚本中这些表需要先于当前表创建
+    private static Set<String> referencedTables(Map<String, ForeignKeyInfo> foreignKeys, String table) {
+        Set<String> tables = new TreeSet<>();
+        for (ForeignKeyInfo foreignKey : foreignKeys.values()) {
+            if (foreignKey.getReferencedCatalog() == null && !table.equals(foreignKey.getReferencedTable())) {
+                tables.add(foreignKey.getReferencedTable());
+            }
+        }
+        return tables;
+    }
+
+    private List<IndexDiff> compareIndexes(IndexLoader sourceLoader, IndexLoader targetLoader,
+                                           String table) throws SQLException {
+        List<IndexDiff> diffs = new ArrayList<>();
+        Map<String, IndexInfo> sourceIndexes = sourceLoader.getIndexes(table);
+        Map<String, IndexInfo> targetIndexes = targetLoader.getIndexes(table);
+
+        for (Map.Entry<String, IndexInfo> entry : sourceIndexes.entrySet()) {
+            IndexInfo targetIndex = targetIndexes.get(entry.getKey());
+            if (targetIndex == null) {
+                diffs.add(createIndexDiff(entry.getKey(), entry.getValue(), null, IndexDiff.DiffType.REMOVED));
+            } else if (!entry.getValue().equals(targetIndex)) {
+                diffs.add(createIndexDiff(entry.getKey(), entry.getValue(), targetIndex, IndexDiff.DiffType.CHANGED));
+            }
+        }
+        for (Map.Entry<String, IndexInfo> entry : targetIndexes.entrySet()) {
+            if (!sourceIndexes.containsKey(entry.getKey())) {
+                diffs.add(createIndexDiff(entry.getKey(), null, entry.getValue(), IndexDiff.DiffType.ADDED));
+            }
+        }
+        return diffs;
+    }
+
+    private static IndexDiff createIndexDiff(String indexName, IndexInfo source, IndexInfo target,
+                                             IndexDiff.DiffType type) {
+        IndexDiff diff = new IndexDiff();
+        diff.setIndexName(indexName);
+        diff.setSourceDefinition(source != null ? source.toString() : null);
+        diff.setTargetDefinition(target != null ? target.toString() : null);
+        diff.setDiffType(type);
+        return diff;
+    }
+
+    private static TableStats getTableStats(SchemaSide side, String table) {
+        return side.stats != null ? side.stats.get(table) : null;
+    }
+
+    // 快照侧直接取快照中的语句；延迟加载时返回 null，由界面在需要时再读取
+    private String getCreateTableSql(CreateTableFetcher ddlFetcher, SchemaSide side, String table)
+            throws SQLException {
+        if (side.createTableSql != null) {
+            return side.createTableSql.get(table);
+        }
+        if (options.isLazyCreateTableSql()) {
+            return null;
+        }
+        return ddlFetcher.fetch(table);
+    }
+
+    private TableDiff createRemovedTableDiff(SideReader source, String table) throws SQLException {
+        TableDiff diff = new TableDiff();
+        diff.setTableName(table);
+        diff.setDiffType(TableDiff.DiffType.REMOVED);
+        diff.setCreateTableSql(getCreateTableSql(source.ddl, source.side, table));
+        diff.setReferencedTables(referencedTables(source.foreignKeys.getForeignKeys(table), table));
+        diff.setSourceStats(getTableStats(source.side, table));
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Found removed table: " + table);
+        }
+        return diff;
+    }
+
+    private TableDiff createAddedTableDiff(SideReader target, String table) throws SQLException {
+        TableDiff diff = new TableDiff();
+        diff.setTableName(table);
+        diff.setDiffType(TableDiff.DiffType.ADDED);
+        diff.setCreateTableSql(getCreateTableSql(target.ddl, target.side, table));
+        diff.setReferencedTables(referencedTables(target.foreignKeys.getForeignKeys(table), table));
+        diff.setTargetStats(getTableStats(target.side, table));
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Found added table: " + table);
+        }
+        return diff;
+    }
+
+    private TableDiff createModifiedTableDiff(SideReader source, SideReader target,
+                                              String table) throws SQLException {
+        List<ColumnDiff> columnDiffs = compareColumns(source.columns, target.columns, table);
+        List<IndexDiff> indexDiffs = compareIndexes(source.indexes, target.indexes, table);
+        Map<String, ForeignKeyInfo> targetForeignKeys = target.foreignKeys.getForeignKeys(table);
+        List<ForeignKeyDiff> foreignKeyDiffs =
+            compareForeignKeys(source.foreignKeys.getForeignKeys(table), targetForeignKeys);
+        if (columnDiffs.isEmpty() && indexDiffs.isEmpty() && foreignKeyDiffs.isEmpty()) {
+            return null;
+        }
+        TableDiff diff = new TableDiff();
+        diff.setTableName(table);
+        diff.setDiffType(TableDiff.DiffType.MODIFIED);
+        diff.setColumnDiffs(columnDiffs);
+        diff.setIndexDiffs(indexDiffs);
+        diff.setForeignKeyDiffs(foreignKeyDiffs);
+        diff.setReferencedTables(referencedTables(targetForeignKeys, table));
+        diff.setSourceStats(getTableStats(source.side, table));
+        diff.setTargetStats(getTableStats(target.side, table));
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Found modified table: " + table + " with " + columnDiffs.size() + " column changes, " +
+                      indexDiffs.size() + " index changes and " + foreignKeyDiffs.size() + " foreign key changes");
+        }
+        return diff;
+    }
+}
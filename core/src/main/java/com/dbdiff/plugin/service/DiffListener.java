@@ -0,0 +1,18 @@
+package com.dbdiff.plugin.service;
+
+import com.dbdiff.plugin.model.TableDiff;
+
+// 对比进度回调，并行模式下会从多个工作线程调用，实现需保证线程安全
+public interface DiffListener {
+    DiffListener NONE = new DiffListener() {};
+
+    default void onStarted(int totalTables) {
+    }
+
+    default void onTableProcessed(String table, int processedTables, int totalTables) {
+    }
+
+    // 每个表的差异计算完成后立即回调，顺序与最终返回的结果列表不一定一致
+    default void onTableDiff(TableDiff diff) {
+    }
+}
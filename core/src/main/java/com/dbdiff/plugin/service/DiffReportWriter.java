@@ -0,0 +1,626 @@
+package com.dbdiff.plugin.service;
+
+import com.dbdiff.plugin.model.TableDiff;
+import com.dbdiff.plugin.model.ColumnDiff;
+import com.dbdiff.plugin.model.ForeignKeyDiff;
+import com.dbdiff.plugin.model.IndexDiff;
+import com.dbdiff.plugin.model.TableStats;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVFormat;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// 报告内容写入任意 Writer，不依赖 IDE 平台类，插件导出和命令行工具共用
+public class DiffReportWriter {
+    // 大缓冲减少系统调用，几十万行的报告也只需要几百次写盘
+    private static final int WRITE_BUFFER_SIZE = 256 * 1024;
+    static final String SCRIPT_FILE = "db_sync.sql";
+    // JSON 输出的结构版本，字段有不兼容变更时递增
+    private static final int JSON_FORMAT_VERSION = 1;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // 显式 UTF-8，不受平台默认编码影响
+    public static Writer newWriter(Path path) throws IOException {
+        return new BufferedWriter(
+            new OutputStreamWriter(Files.newOutputStream(path), StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+    }
+
+    public static void writeHtmlReport(Writer out, List<TableDiff> diffs, String sourceDb, String targetDb)
+            throws IOException {
+        writeHtmlReport(out, diffs, sourceDb, targetDb, ExportListener.NONE);
+    }
+
+    public static void writeHtmlReport(Writer out, List<TableDiff> diffs, String sourceDb, String targetDb,
+                                       ExportListener listener) throws IOException {
+        writeHtmlHeader(out, "数据库结构差异报告");
+        writeDatabases(out, sourceDb, targetDb);
+        
+        out.write("<h2>差异摘要</h2>\n");
+        writeSummary(out, diffs);
+        
+        out.write("<h2>详细差异</h2>\n");
+        writeDetailsHeader(out);
+        int processed = 0;
+        for (TableDiff diff : diffs) {
+            writeDiffRows(out, diff);
+            listener.onTableWritten(diff.getTableName(), ++processed, diffs.size());
+        }
+        out.write("</table>\n");
+        
+        out.write("<h2>SQL同步脚本</h2>\n");
+        writeSqlScripts(out, diffs);
+        
+        out.write("</body></html>\n");
+        out.flush();
+    }
+
+    // 拆分报告：index.html 为摘要和表清单，每个表的差异单独一页，迁移脚本另存为 db_sync.sql
+    public static void writeHtmlReportPages(Path dir, List<TableDiff> diffs, String sourceDb, String targetDb,
+                                            ExportListener listener) throws IOException {
+        Path tablesDir = dir.resolve("tables");
+        Files.createDirectories(tablesDir);
+
+        try (FileChannel channel = FileChannel.open(dir.resolve(SCRIPT_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            SqlScriptGenerator.writeMigrationScript(channel, diffs);
+        }
+
+        try (Writer index = newWriter(dir.resolve("index.html"))) {
+            writeHtmlHeader(index, "数据库结构差异报告");
+            writeDatabases(index, sourceDb, targetDb);
+            index.write("<h2>差异摘要</h2>\n");
+            writeSummary(index, diffs);
+            index.write("<p><a href='" + SCRIPT_FILE + "'>SQL同步脚本</a></p>\n");
+            index.write("<h2>差异表</h2>\n");
+            index.write("<table>\n<tr><th>表名</th><th>操作类型</th><th>字段变更</th><th>索引变更</th><th>外键变更</th></tr>\n");
+
+            int processed = 0;
+            for (TableDiff diff : diffs) {
+                // 按序号命名页面，避免表名中的特殊字符影响文件名
+                String page = String.format("%05d.html", processed + 1);
+                try (Writer out = newWriter(tablesDir.resolve(page))) {
+                    writeTablePage(out, diff);
+                }
+
+                index.write("<tr class='");
+                index.write(getCssClass(diff.getDiffType()));
+                index.write("'><td><a href='tables/");
+                index.write(page);
+                index.write("'>");
+                writeEscaped(index, diff.getTableName());
+                index.write("</a></td>");
+                writeCell(index, getDiffTypeDesc(diff.getDiffType()));
+                writeCell(index, Integer.toString(sizeOf(diff.getColumnDiffs())));
+                writeCell(index, Integer.toString(sizeOf(diff.getIndexDiffs())));
+                writeCell(index, Integer.toString(sizeOf(diff.getForeignKeyDiffs())));
+                index.write("</tr>\n");
+                listener.onTableWritten(diff.getTableName(), ++processed, diffs.size());
+            }
+            index.write("</table>\n</body></html>\n");
+        }
+    }
+
+    private static void writeTablePage(Writer out, TableDiff diff) throws IOException {
+        writeHtmlHeader(out, diff.getTableName());
+        out.write("<p><a href='../index.html'>返回索引</a></p>\n");
+        writeDetailsHeader(out);
+        writeDiffRows(out, diff);
+        out.write("</table>\n</body></html>\n");
+    }
+
+    private static int sizeOf(List<?> list) {
+        return list != null ? list.size() : 0;
+    }
+
+    public static void writeCsvReport(Writer out, List<TableDiff> diffs) throws IOException {
+        writeCsvReport(out, diffs, ExportListener.NONE);
+    }
+
+    public static void writeCsvReport(Writer out, List<TableDiff> diffs, ExportListener listener) throws IOException {
+        CSVPrinter printer = new CSVPrinter(out, CSVFormat.DEFAULT);
+        printer.printRecord("表名", "操作类型", "字段名", "源类型", "目标类型", "差异描述");
+        
+        int processed = 0;
+        for (TableDiff diff : diffs) {
+            if (diff.getDiffType() == TableDiff.DiffType.ADDED) {
+                printer.printRecord(diff.getTableName(), "新增表", "", "", "", "新增表");
+            } else if (diff.getDiffType() == TableDiff.DiffType.REMOVED) {
+                printer.printRecord(diff.getTableName(), "删除表", "", "", "", "删除表");
+            }
+            
+            if (diff.getColumnDiffs() != null) {
+                for (ColumnDiff colDiff : diff.getColumnDiffs()) {
+                    printer.printRecord(
+                        diff.getTableName(),
+                        getDiffTypeDesc(colDiff.getDiffType()),
+                        colDiff.getColumnName(),
+                        colDiff.getSourceType(),
+                        colDiff.getTargetType(),
+                        getColumnDiffDesc(colDiff)
+                    );
+                }
+            }
+
+            if (diff.getIndexDiffs() != null) {
+                for (IndexDiff indexDiff : diff.getIndexDiffs()) {
+                    printer.printRecord(
+                        diff.getTableName(),
+                        getDiffTypeDesc(indexDiff.getDiffType()),
+                        indexDiff.getIndexName(),
+                        nullToEmpty(indexDiff.getSourceDefinition()),
+                        nullToEmpty(indexDiff.getTargetDefinition()),
+                        getIndexDiffDesc(indexDiff)
+                    );
+                }
+            }
+
+            if (diff.getForeignKeyDiffs() != null) {
+                for (ForeignKeyDiff foreignKeyDiff : diff.getForeignKeyDiffs()) {
+                    printer.printRecord(
+                        diff.getTableName(),
+                        getDiffTypeDesc(foreignKeyDiff.getDiffType()),
+                        foreignKeyDiff.getConstraintName(),
+                        nullToEmpty(foreignKeyDiff.getSourceDefinition()),
+                        nullToEmpty(foreignKeyDiff.getTargetDefinition()),
+                        getForeignKeyDiffDesc(foreignKeyDiff)
+                    );
+                }
+            }
+            listener.onTableWritten(diff.getTableName(), ++processed, diffs.size());
+        }
+        printer.flush();
+    }
+
+    public static void writeJsonReport(Writer out, List<TableDiff> diffs, String sourceDb, String targetDb)
+            throws IOException {
+        writeJsonReport(out, diffs, sourceDb, targetDb, ExportListener.NONE);
+    }
+
+    // 流式生成，内存占用与差异数量无关；字段名与枚举值使用模型中的英文名称，不做本地化
+    public static void writeJsonReport(Writer out, List<TableDiff> diffs, String sourceDb, String targetDb,
+                                       ExportListener listener) throws IOException {
+        try (JsonGenerator json = createJsonGenerator(out)) {
+            json.writeStartObject();
+            json.writeNumberField("formatVersion", JSON_FORMAT_VERSION);
+            json.writeStringField("sourceDatabase", sourceDb);
+            json.writeStringField("targetDatabase", targetDb);
+            json.writeArrayFieldStart("tables");
+            int processed = 0;
+            for (TableDiff diff : diffs) {
+                json.writeStartObject();
+                writeJsonTableFields(json, diff);
+                json.writeEndObject();
+                listener.onTableWritten(diff.getTableName(), ++processed, diffs.size());
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        out.flush();
+    }
+
+    public static void writeNdjsonReport(Writer out, List<TableDiff> diffs, String sourceDb, String targetDb)
+            throws IOException {
+        writeNdjsonReport(out, diffs, sourceDb, targetDb, ExportListener.NONE);
+    }
+
+    // 每行一个自包含的表对象，带上两侧库名，下游可以按行拆分并行处理
+    public static void writeNdjsonReport(Writer out, List<TableDiff> diffs, String sourceDb, String targetDb,
+                                         ExportListener listener) throws IOException {
+        try (JsonGenerator json = createJsonGenerator(out)) {
+            json.setRootValueSeparator(new SerializedString("\n"));
+            int processed = 0;
+            for (TableDiff diff : diffs) {
+                json.writeStartObject();
+                json.writeNumberField("formatVersion", JSON_FORMAT_VERSION);
+                json.writeStringField("sourceDatabase", sourceDb);
+                json.writeStringField("targetDatabase", targetDb);
+                writeJsonTableFields(json, diff);
+                json.writeEndObject();
+                listener.onTableWritten(diff.getTableName(), ++processed, diffs.size());
+            }
+        }
+        if (!diffs.isEmpty()) {
+            out.write('\n');
+        }
+        out.flush();
+    }
+
+    // 生成器不关闭调用方传入的 Writer
+    private static JsonGenerator createJsonGenerator(Writer out) throws IOException {
+        JsonGenerator json = JSON_FACTORY.createGenerator(out);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        return json;
+    }
+
+    private static void writeJsonTableFields(JsonGenerator json, TableDiff diff) throws IOException {
+        json.writeStringField("tableName", diff.getTableName());
+        json.writeStringField("diffType", diff.getDiffType().name());
+
+        json.writeArrayFieldStart("columns");
+        if (diff.getColumnDiffs() != null) {
+            for (ColumnDiff colDiff : diff.getColumnDiffs()) {
+                json.writeStartObject();
+                json.writeStringField("name", colDiff.getColumnName());
+                json.writeStringField("diffType", colDiff.getDiffType().name());
+                json.writeStringField("sourceType", colDiff.getSourceType());
+                json.writeStringField("targetType", colDiff.getTargetType());
+                json.writeEndObject();
+            }
+        }
+        json.writeEndArray();
+
+        json.writeArrayFieldStart("indexes");
+        if (diff.getIndexDiffs() != null) {
+            for (IndexDiff indexDiff : diff.getIndexDiffs()) {
+                json.writeStartObject();
+                json.writeStringField("name", indexDiff.getIndexName());
+                json.writeStringField("diffType", indexDiff.getDiffType().name());
+                json.writeBooleanField("primaryKey", indexDiff.isPrimaryKey());
+                json.writeStringField("sourceDefinition", indexDiff.getSourceDefinition());
+                json.writeStringField("targetDefinition", indexDiff.getTargetDefinition());
+                json.writeEndObject();
+            }
+        }
+        json.writeEndArray();
+
+        json.writeArrayFieldStart("foreignKeys");
+        if (diff.getForeignKeyDiffs() != null) {
+            for (ForeignKeyDiff foreignKeyDiff : diff.getForeignKeyDiffs()) {
+                json.writeStartObject();
+                json.writeStringField("name", foreignKeyDiff.getConstraintName());
+                json.writeStringField("diffType", foreignKeyDiff.getDiffType().name());
+                json.writeStringField("sourceDefinition", foreignKeyDiff.getSourceDefinition());
+                json.writeStringField("targetDefinition", foreignKeyDiff.getTargetDefinition());
+                json.writeEndObject();
+            }
+        }
+        json.writeEndArray();
+
+        json.writeArrayFieldStart("referencedTables");
+        if (diff.getReferencedTables() != null) {
+            for (String table : diff.getReferencedTables()) {
+                json.writeString(table);
+            }
+        }
+        json.writeEndArray();
+
+        // 延迟加载建表语句且尚未读取时为 null
+        json.writeStringField("createTableSql", diff.getCreateTableSql());
+        writeJsonStats(json, "sourceStats", diff.getSourceStats());
+        writeJsonStats(json, "targetStats", diff.getTargetStats());
+    }
+
+    private static void writeJsonStats(JsonGenerator json, String field, TableStats stats) throws IOException {
+        if (stats == null) {
+            json.writeNullField(field);
+            return;
+        }
+        json.writeObjectFieldStart(field);
+        json.writeNumberField("rows", stats.getRows());
+        json.writeNumberField("dataLength", stats.getDataLength());
+        json.writeNumberField("indexLength", stats.getIndexLength());
+        json.writeEndObject();
+    }
+
+    private static void writeHtmlHeader(Writer out, String title) throws IOException {
+        out.write("<!DOCTYPE html>\n");
+        out.write("<html><head>\n");
+        out.write("<meta charset='UTF-8'>\n");
+        out.write("<title>");
+        writeEscaped(out, title);
+        out.write("</title>\n");
+        out.write("<style>\n");
+        out.write("body { font-family: Arial, sans-serif; }\n");
+        out.write("table { border-collapse: collapse; width: 100%; }\n");
+        out.write("th, td { border: 1px solid #ddd; padding: 8px; }\n");
+        out.write("th { background-color: #f5f5f5; }\n");
+        out.write(".added { background-color: #90EE90; }\n");
+        out.write(".removed { background-color: #FFB6C1; }\n");
+        out.write(".modified { background-color: #ADD8E6; }\n");
+        out.write("</style></head><body>\n");
+        out.write("<h1>");
+        writeEscaped(out, title);
+        out.write("</h1>\n");
+    }
+
+    private static void writeDatabases(Writer out, String sourceDb, String targetDb) throws IOException {
+        out.write("<p>源数据库: ");
+        writeEscaped(out, sourceDb);
+        out.write("</p>\n<p>目标数据库: ");
+        writeEscaped(out, targetDb);
+        out.write("</p>\n");
+    }
+    
+    private static void writeSummary(Writer out, List<TableDiff> diffs) throws IOException {
+        int addedTables = 0, removedTables = 0, modifiedTables = 0;
+        int addedColumns = 0, removedColumns = 0, modifiedColumns = 0;
+        int indexChanges = 0, foreignKeyChanges = 0;
+        
+        for (TableDiff diff : diffs) {
+            switch (diff.getDiffType()) {
+                case ADDED: addedTables++; break;
+                case REMOVED: removedTables++; break;
+                case MODIFIED: 
+                    modifiedTables++;
+                    if (diff.getColumnDiffs() != null) {
+                        for (ColumnDiff colDiff : diff.getColumnDiffs()) {
+                            switch (colDiff.getDiffType()) {
+                                case ADDED: addedColumns++; break;
+                                case REMOVED: removedColumns++; break;
+                                case TYPE_CHANGED: modifiedColumns++; break;
+                            }
+                        }
+                    }
+                    if (diff.getIndexDiffs() != null) {
+                        indexChanges += diff.getIndexDiffs().size();
+                    }
+                    if (diff.getForeignKeyDiffs() != null) {
+                        foreignKeyChanges += diff.getForeignKeyDiffs().size();
+                    }
+                    break;
+            }
+        }
+        
+        out.write("<table>\n");
+        out.write("<tr><th colspan='2'>差异统计</th></tr>\n");
+        writeSummaryRow(out, "新增表", addedTables);
+        writeSummaryRow(out, "删除表", removedTables);
+        writeSummaryRow(out, "修改表", modifiedTables);
+        writeSummaryRow(out, "新增字段", addedColumns);
+        writeSummaryRow(out, "删除字段", removedColumns);
+        writeSummaryRow(out, "修改字段", modifiedColumns);
+        writeSummaryRow(out, "索引变更", indexChanges);
+        writeSummaryRow(out, "外键变更", foreignKeyChanges);
+        out.write("</table>\n");
+    }
+
+    private static void writeSummaryRow(Writer out, String label, int count) throws IOException {
+        out.write("<tr><td>");
+        out.write(label);
+        out.write("</td><td>");
+        out.write(Integer.toString(count));
+        out.write("</td></tr>\n");
+    }
+
+    private static void writeDetailsHeader(Writer out) throws IOException {
+        out.write("<table>\n");
+        out.write("<tr><th>表名</th><th>操作类型</th><th>字段名</th><th>源类型</th><th>目标类型</th><th>差异描述</th></tr>\n");
+    }
+    
+    // 逐个单元格直接写出，不再为每行 String.format 拼接整行字符串
+    private static void writeDiffRows(Writer out, TableDiff diff) throws IOException {
+        if (diff.getDiffType() == TableDiff.DiffType.ADDED || diff.getDiffType() == TableDiff.DiffType.REMOVED) {
+            writeRowStart(out, getCssClass(diff.getDiffType()));
+            writeCell(out, diff.getTableName());
+            writeCell(out, getDiffTypeDesc(diff.getDiffType()));
+            out.write("<td colspan='4'>");
+            out.write(diff.getDiffType() == TableDiff.DiffType.ADDED ? "新增表" : "删除表");
+            out.write("</td></tr>\n");
+        }
+        
+        if (diff.getColumnDiffs() != null) {
+            for (ColumnDiff colDiff : diff.getColumnDiffs()) {
+                writeRowStart(out, getCssClass(colDiff.getDiffType()));
+                writeCell(out, diff.getTableName());
+                writeCell(out, getDiffTypeDesc(colDiff.getDiffType()));
+                writeCell(out, colDiff.getColumnName());
+                writeCell(out, colDiff.getSourceType());
+                writeCell(out, colDiff.getTargetType());
+                writeCell(out, getColumnDiffDesc(colDiff));
+                out.write("</tr>\n");
+            }
+        }
+
+        if (diff.getIndexDiffs() != null) {
+            for (IndexDiff indexDiff : diff.getIndexDiffs()) {
+                writeRowStart(out, getCssClass(indexDiff.getDiffType()));
+                writeCell(out, diff.getTableName());
+                writeCell(out, getDiffTypeDesc(indexDiff.getDiffType()));
+                writeCell(out, indexDiff.getIndexName());
+                writeCell(out, nullToEmpty(indexDiff.getSourceDefinition()));
+                writeCell(out, nullToEmpty(indexDiff.getTargetDefinition()));
+                writeCell(out, getIndexDiffDesc(indexDiff));
+                out.write("</tr>\n");
+            }
+        }
+
+        if (diff.getForeignKeyDiffs() != null) {
+            for (ForeignKeyDiff foreignKeyDiff : diff.getForeignKeyDiffs()) {
+                writeRowStart(out, getCssClass(foreignKeyDiff.getDiffType()));
+                writeCell(out, diff.getTableName());
+                writeCell(out, getDiffTypeDesc(foreignKeyDiff.getDiffType()));
+                writeCell(out, foreignKeyDiff.getConstraintName());
+                writeCell(out, nullToEmpty(foreignKeyDiff.getSourceDefinition()));
+                writeCell(out, nullToEmpty(foreignKeyDiff.getTargetDefinition()));
+                writeCell(out, getForeignKeyDiffDesc(foreignKeyDiff));
+                out.write("</tr>\n");
+            }
+        }
+    }
+
+    private static void writeRowStart(Writer out, String cssClass) throws IOException {
+        out.write("<tr class='");
+        out.write(cssClass);
+        out.write("'>");
+    }
+
+    private static void writeCell(Writer out, String text) throws IOException {
+        out.write("<td>");
+        writeEscaped(out, text);
+        out.write("</td>");
+    }
+
+    // 按段写出，只在遇到需要转义的字符时拆分，避免为每个单元格创建新字符串
+    private static void writeEscaped(Writer out, String text) throws IOException {
+        if (text == null) {
+            out.write("null");
+            return;
+        }
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            String replacement;
+            switch (text.charAt(i)) {
+                case '<': replacement = "&lt;"; break;
+                case '>': replacement = "&gt;"; break;
+                case '&': replacement = "&amp;"; break;
+                case '\'': replacement = "&#39;"; break;
+                case '"': replacement = "&quot;"; break;
+                default: continue;
+            }
+            out.write(text, start, i - start);
+            out.write(replacement);
+            start = i + 1;
+        }
+        out.write(text, start, text.length() - start);
+    }
+    
+    private static void writeSqlScripts(Writer out, List<TableDiff> diffs) throws IOException {
+        out.write("<pre>\n");
+        // 按外键依赖排序后的完整迁移脚本，可一次执行；经转义后直接写入报告，不再先拼成完整字符串
+        Writer escaping = new Writer() {
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+                writeEscaped(out, new String(cbuf, off, len));
+            }
+
+            @Override
+            public void write(String str, int off, int len) throws IOException {
+                writeEscaped(out, str.substring(off, off + len));
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        SqlScriptGenerator.writeMigrationScript(escaping, diffs);
+        out.write("</pre>\n");
+    }
+    
+    private static String getCssClass(TableDiff.DiffType type) {
+        switch (type) {
+            case ADDED: return "added";
+            case REMOVED: return "removed";
+            case MODIFIED: return "modified";
+            default: return "";
+        }
+    }
+    
+    private static String getCssClass(ColumnDiff.DiffType type) {
+        switch (type) {
+            case ADDED: return "added";
+            case REMOVED: return "removed";
+            case TYPE_CHANGED: return "modified";
+            default: return "";
+        }
+    }
+    
+    private static String getDiffTypeDesc(TableDiff.DiffType type) {
+        switch (type) {
+            case ADDED: return "新增";
+            case REMOVED: return "删除";
+            case MODIFIED: return "修改";
+            default: return "";
+        }
+    }
+    
+    private static String getDiffTypeDesc(ColumnDiff.DiffType type) {
+        switch (type) {
+            case ADDED: return "新增字段";
+            case REMOVED: return "删除字段";
+            case TYPE_CHANGED: return "修改字段";
+            default: return "";
+        }
+    }
+    
+    private static String getCssClass(IndexDiff.DiffType type) {
+        switch (type) {
+            case ADDED: return "added";
+            case REMOVED: return "removed";
+            case CHANGED: return "modified";
+            default: return "";
+        }
+    }
+
+    private static String getDiffTypeDesc(IndexDiff.DiffType type) {
+        switch (type) {
+            case ADDED: return "新增索引";
+            case REMOVED: return "删除索引";
+            case CHANGED: return "修改索引";
+            default: return "";
+        }
+    }
+
+    private static String getIndexDiffDesc(IndexDiff diff) {
+        switch (diff.getDiffType()) {
+            case ADDED:
+                return "新增索引: " + diff.getTargetDefinition();
+            case REMOVED:
+                return "删除索引: " + diff.getSourceDefinition();
+            case CHANGED:
+                return "索引变更: " + diff.getSourceDefinition() + " -> " + diff.getTargetDefinition();
+            default:
+                return "";
+        }
+    }
+
+    private static String getCssClass(ForeignKeyDiff.DiffType type) {
+        switch (type) {
+            case ADDED: return "added";
+            case REMOVED: return "removed";
+            case CHANGED: return "modified";
+            default: return "";
+        }
+    }
+
+    private static String getDiffTypeDesc(ForeignKeyDiff.DiffType type) {
+        switch (type) {
+            case ADDED: return "新增外键";
+            case REMOVED: return "删除外键";
+            case CHANGED: return "修改外键";
+            default: return "";
+        }
+    }
+
+    private static String getForeignKeyDiffDesc(ForeignKeyDiff diff) {
+        switch (diff.getDiffType()) {
+            case ADDED:
+                return "新增外键: " + diff.getTargetDefinition();
+            case REMOVED:
+                return "删除外键: " + diff.getSourceDefinition();
+            case CHANGED:
+                return "外键变更: " + diff.getSourceDefinition() + " -> " + diff.getTargetDefinition();
+            default:
+                return "";
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static String getColumnDiffDesc(ColumnDiff diff) {
+        switch (diff.getDiffType()) {
+            case ADDED:
+                return "新增字段: " + diff.getTargetType();
+            case REMOVED:
+                return "删除字段: " + diff.getSourceType();
+            case TYPE_CHANGED:
+                return "类型变更: " + diff.getSourceType() + " -> " + diff.getTargetType();
+            default:
+                return "";
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.dbdiff.plugin.service;
+
+// 导出进度回调，在后台任务中可借此更新进度条和检查取消
+public interface ExportListener {
+    ExportListener NONE = new ExportListener() {};
+
+    default void onTableWritten(String table, int processedTables, int totalTables) {
+    }
+}
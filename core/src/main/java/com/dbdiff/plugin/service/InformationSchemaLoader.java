@@ -0,0 +1,340 @@
+package com.dbdiff.plugin.service;
+
+import com.dbdiff.plugin.logging.Logger;
+import com.dbdiff.plugin.model.ColumnInfo;
+import com.dbdiff.plugin.model.ColumnType;
+import com.dbdiff.plugin.model.ForeignKeyInfo;
+import com.dbdiff.plugin.model.IndexInfo;
+import com.dbdiff.plugin.model.TableStats;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// 通过 information_schema 一次性读取整个库的表和字段信息，每侧只需一次查询
+public class InformationSchemaLoader {
+    private static final Logger LOG = Logger.getInstance(InformationSchemaLoader.class);
+    // MySQL 驱动约定：fetchSize 为 Integer.MIN_VALUE 时逐行流式读取结果集
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+    private static final int DEFAULT_FETCH_SIZE = 1000;
+
+    // 按表分批补读字段时 IN 列表的最大长度
+    private static final int TABLE_BATCH_SIZE = 500;
+
+    private static final String SQL_COLUMNS =
+        "SELECT c.TABLE_NAME, c.COLUMN_NAME, c.DATA_TYPE, c.COLUMN_TYPE, " +
+        "c.CHARACTER_MAXIMUM_LENGTH, c.NUMERIC_PRECISION, c.NUMERIC_SCALE, c.DATETIME_PRECISION, " +
+        "c.IS_NULLABLE, c.COLUMN_DEFAULT, c.COLUMN_COMMENT " +
+        "FROM information_schema.COLUMNS c " +
+        "JOIN information_schema.TABLES t " +
+        "ON t.TABLE_SCHEMA = c.TABLE_SCHEMA AND t.TABLE_NAME = c.TABLE_NAME " +
+        "WHERE c.TABLE_SCHEMA = ? AND t.TABLE_TYPE = 'BASE TABLE'";
+    private static final String SQL_COLUMNS_ORDER = " ORDER BY c.TABLE_NAME, c.ORDINAL_POSITION";
+
+    // 每个表一行：字段、索引和外键各自的数量与校验和，覆盖结构对比比较的全部属性，两侧一致的表无需再逐项比较；
+    // 同库外键的 REFERENCED_TABLE_SCHEMA 计为空，与读取外键时的处理一致，不同库名的两侧可以得到相同指纹
+    private static final String SQL_SCHEMA_FINGERPRINTS =
+        "SELECT c.TABLE_NAME, col.COLUMN_COUNT, col.COLUMN_CHECKSUM, " +
+        "IFNULL(idx.INDEX_COUNT, 0) AS INDEX_COUNT, IFNULL(idx.INDEX_CHECKSUM, 0) AS INDEX_CHECKSUM, " +
+        "IFNULL(fk.FOREIGN_KEY_COUNT, 0) AS FOREIGN_KEY_COUNT, " +
+        "IFNULL(fk.FOREIGN_KEY_CHECKSUM, 0) AS FOREIGN_KEY_CHECKSUM " +
+        "FROM information_schema.TABLES c " +
+        "JOIN (SELECT TABLE_NAME, COUNT(*) AS COLUMN_COUNT, " +
+        "SUM(CRC32(CONCAT_WS('|', ORDINAL_POSITION, COLUMN_NAME, COLUMN_TYPE, IS_NULLABLE, " +
+        "IFNULL(COLUMN_DEFAULT, '<null>'), COLUMN_COMMENT))) AS COLUMN_CHECKSUM " +
+        "FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = ? GROUP BY TABLE_NAME) col " +
+        "ON col.TABLE_NAME = c.TABLE_NAME " +
+        "LEFT JOIN (SELECT TABLE_NAME, COUNT(*) AS INDEX_COUNT, " +
+        "SUM(CRC32(CONCAT_WS('|', INDEX_NAME, NON_UNIQUE, SEQ_IN_INDEX, COLUMN_NAME, " +
+        "IFNULL(SUB_PART, '<null>'), INDEX_TYPE))) AS INDEX_CHECKSUM " +
+        "FROM information_schema.STATISTICS WHERE TABLE_SCHEMA = ? GROUP BY TABLE_NAME) idx " +
+        "ON idx.TABLE_NAME = c.TABLE_NAME " +
+        "LEFT JOIN (SELECT k.TABLE_NAME, COUNT(*) AS FOREIGN_KEY_COUNT, " +
+        "SUM(CRC32(CONCAT_WS('|', k.CONSTRAINT_NAME, k.ORDINAL_POSITION, k.COLUMN_NAME, " +
+        "IF(k.REFERENCED_TABLE_SCHEMA = k.TABLE_SCHEMA, '', k.REFERENCED_TABLE_SCHEMA), " +
+        "k.REFERENCED_TABLE_NAME, k.REFERENCED_COLUMN_NAME, r.UPDATE_RULE, r.DELETE_RULE))) " +
+        "AS FOREIGN_KEY_CHECKSUM " +
+        "FROM information_schema.KEY_COLUMN_USAGE k " +
+        "JOIN information_schema.REFERENTIAL_CONSTRAINTS r " +
+        "ON r.CONSTRAINT_SCHEMA = k.CONSTRAINT_SCHEMA AND r.CONSTRAINT_NAME = k.CONSTRAINT_NAME " +
+        "AND r.TABLE_NAME = k.TABLE_NAME " +
+        "WHERE k.TABLE_SCHEMA = ? AND k.REFERENCED_TABLE_NAME IS NOT NULL GROUP BY k.TABLE_NAME) fk " +
+        "ON fk.TABLE_NAME = c.TABLE_NAME " +
+        "WHERE c.TABLE_SCHEMA = ? AND c.TABLE_TYPE = 'BASE TABLE'";
+
+    // 每个索引字段一行，按表、索引、字段顺序排列，主键的 INDEX_NAME 为 PRIMARY
+    private static final String SQL_INDEXES =
+        "SELECT c.TABLE_NAME, c.INDEX_NAME, c.NON_UNIQUE, c.SEQ_IN_INDEX, c.COLUMN_NAME, c.SUB_PART, c.INDEX_TYPE " +
+        "FROM information_schema.STATISTICS c " +
+        "WHERE c.TABLE_SCHEMA = ?";
+    private static final String SQL_INDEXES_ORDER = " ORDER BY c.TABLE_NAME, c.INDEX_NAME, c.SEQ_IN_INDEX";
+
+    // 每个外键字段一行，REFERENTIAL_CONSTRAINTS 提供 ON UPDATE/ON DELETE 规则
+    private static final String SQL_FOREIGN_KEYS =
+        "SELECT c.TABLE_NAME, c.CONSTRAINT_NAME, c.COLUMN_NAME, c.ORDINAL_POSITION, " +
+        "c.REFERENCED_TABLE_SCHEMA, c.REFERENCED_TABLE_NAME, c.REFERENCED_COLUMN_NAME, " +
+        "r.UPDATE_RULE, r.DELETE_RULE " +
+        "FROM information_schema.KEY_COLUMN_USAGE c " +
+        "JOIN information_schema.REFERENTIAL_CONSTRAINTS r " +
+        "ON r.CONSTRAINT_SCHEMA = c.CONSTRAINT_SCHEMA AND r.CONSTRAINT_NAME = c.CONSTRAINT_NAME " +
+        "AND r.TABLE_NAME = c.TABLE_NAME " +
+        "WHERE c.TABLE_SCHEMA = ? AND c.REFERENCED_TABLE_NAME IS NOT NULL";
+    private static final String SQL_FOREIGN_KEYS_ORDER = " ORDER BY c.TABLE_NAME, c.CONSTRAINT_NAME, c.ORDINAL_POSITION";
+
+    // 行数和空间占用统计，来自存储引擎的统计信息，InnoDB 的 TABLE_ROWS 为估算值
+    private static final String SQL_TABLE_STATS =
+        "SELECT c.TABLE_NAME, c.TABLE_ROWS, c.DATA_LENGTH, c.INDEX_LENGTH " +
+        "FROM information_schema.TABLES c " +
+        "WHERE c.TABLE_SCHEMA = ? AND c.TABLE_TYPE = 'BASE TABLE'";
+
+    private static final String SQL_TABLE_INCLUDE = " AND c.TABLE_NAME LIKE ?";
+    private static final String SQL_TABLE_EXCLUDE = " AND c.TABLE_NAME NOT LIKE ?";
+
+    private final CancellationHandle cancellation;
+    private final CompareOptions options;
+
+    InformationSchemaLoader(CancellationHandle cancellation, CompareOptions options) {
+        this.cancellation = cancellation;
+        this.options = options;
+    }
+
+    // 读取指定库所有表的字段，按表名分组，返回的 key 集合即为该库的全部表
+    public Map<String, Map<String, ColumnInfo>> loadColumns(Connection conn, String catalog) throws SQLException {
+        Map<String, Map<String, ColumnInfo>> tables = new HashMap<>();
+        int columnCount = query(conn, SQL_COLUMNS + tableFilterSql() + SQL_COLUMNS_ORDER, filterParams(catalog),
+                                rs -> readColumnRow(rs, tables));
+        LOG.info("Loaded " + columnCount + " columns of " + tables.size() + " tables from catalog: " + catalog);
+        return tables;
+    }
+
+    // 只读取指定表的字段，按 TABLE_BATCH_SIZE 分批查询
+    public Map<String, Map<String, ColumnInfo>> loadColumns(Connection conn, String catalog,
+                                                            Collection<String> tableNames) throws SQLException {
+        Map<String, Map<String, ColumnInfo>> tables = new HashMap<>();
+        queryTables(conn, SQL_COLUMNS, SQL_COLUMNS_ORDER, catalog, tableNames, rs -> readColumnRow(rs, tables));
+        return tables;
+    }
+
+    // 只读取指定表的索引
+    public Map<String, Map<String, IndexInfo>> loadIndexes(Connection conn, String catalog,
+                                                           Collection<String> tableNames) throws SQLException {
+        Map<String, Map<String, IndexInfo>> tables = new HashMap<>();
+        queryTables(conn, SQL_INDEXES, SQL_INDEXES_ORDER, catalog, tableNames, rs -> readIndexRow(rs, tables));
+        return tables;
+    }
+
+    // 只读取指定表的外键
+    public Map<String, Map<String, ForeignKeyInfo>> loadForeignKeys(Connection conn, String catalog,
+                                                                    Collection<String> tableNames)
+            throws SQLException {
+        Map<String, Map<String, ForeignKeyInfo>> tables = new HashMap<>();
+        queryTables(conn, SQL_FOREIGN_KEYS, SQL_FOREIGN_KEYS_ORDER, catalog, tableNames,
+                    rs -> readForeignKeyRow(rs, catalog, tables));
+        return tables;
+    }
+
+    // 一次聚合查询读取整个库的逐表结构指纹，表名过滤条件同样下推
+    public Map<String, String> loadSchemaFingerprints(Connection conn, String catalog) throws SQLException {
+        Map<String, String> fingerprints = new HashMap<>();
+        List<String> params = new ArrayList<>();
+        // 三个子查询和外层查询各需要一个库名参数
+        for (int i = 0; i < 3; i++) {
+            params.add(catalog);
+        }
+        params.addAll(filterParams(catalog));
+        query(conn, SQL_SCHEMA_FINGERPRINTS + tableFilterSql(), params, rs ->
+            fingerprints.put(rs.getString("TABLE_NAME"),
+                             rs.getLong("COLUMN_COUNT") + ":" + rs.getString("COLUMN_CHECKSUM") + "/" +
+                             rs.getLong("INDEX_COUNT") + ":" + rs.getString("INDEX_CHECKSUM") + "/" +
+                             rs.getLong("FOREIGN_KEY_COUNT") + ":" + rs.getString("FOREIGN_KEY_CHECKSUM")));
+        LOG.info("Loaded fingerprints of " + fingerprints.size() + " tables from catalog: " + catalog);
+        return fingerprints;
+    }
+
+    // 一次查询读取整个库的索引（含主键和唯一键），按表名分组
+    public Map<String, Map<String, IndexInfo>> loadIndexes(Connection conn, String catalog) throws SQLException {
+        Map<String, Map<String, IndexInfo>> tables = new HashMap<>();
+        int rows = query(conn, SQL_INDEXES + tableFilterSql() + SQL_INDEXES_ORDER, filterParams(catalog),
+                         rs -> readIndexRow(rs, tables));
+        LOG.info("Loaded " + rows + " index columns of " + tables.size() + " tables from catalog: " + catalog);
+        return tables;
+    }
+
+    // 一次查询读取整个库的外键，按表名分组
+    public Map<String, Map<String, ForeignKeyInfo>> loadForeignKeys(Connection conn, String catalog)
+            throws SQLException {
+        Map<String, Map<String, ForeignKeyInfo>> tables = new HashMap<>();
+        int rows = query(conn, SQL_FOREIGN_KEYS + tableFilterSql() + SQL_FOREIGN_KEYS_ORDER, filterParams(catalog),
+                         rs -> readForeignKeyRow(rs, catalog, tables));
+        LOG.info("Loaded " + rows + " foreign key columns of " + tables.size() + " tables from catalog: " + catalog);
+        return tables;
+    }
+
+    // 一次查询读取整个库各表的行数和空间占用
+    public Map<String, TableStats> loadTableStats(Connection conn, String catalog) throws SQLException {
+        Map<String, TableStats> stats = new HashMap<>();
+        query(conn, SQL_TABLE_STATS + tableFilterSql(), filterParams(catalog), rs -> {
+            TableStats tableStats = new TableStats();
+            tableStats.setRows(rs.getLong("TABLE_ROWS"));
+            tableStats.setDataLength(rs.getLong("DATA_LENGTH"));
+            tableStats.setIndexLength(rs.getLong("INDEX_LENGTH"));
+            stats.put(rs.getString("TABLE_NAME"), tableStats);
+        });
+        LOG.info("Loaded statistics of " + stats.size() + " tables from catalog: " + catalog);
+        return stats;
+    }
+
+    // 表名过滤条件下推到查询中，只读取需要对比的表
+    private String tableFilterSql() {
+        StringBuilder sql = new StringBuilder();
+        if (options.getTableIncludePattern() != null) {
+            sql.append(SQL_TABLE_INCLUDE);
+        }
+        if (options.getTableExcludePattern() != null) {
+            sql.append(SQL_TABLE_EXCLUDE);
+        }
+        return sql.toString();
+    }
+
+    private List<String> filterParams(String catalog) {
+        List<String> params = new ArrayList<>();
+        params.add(catalog);
+        if (options.getTableIncludePattern() != null) {
+            params.add(options.getTableIncludePattern());
+        }
+        if (options.getTableExcludePattern() != null) {
+            params.add(options.getTableExcludePattern());
+        }
+        return params;
+    }
+
+    private interface RowHandler {
+        void handle(ResultSet rs) throws SQLException;
+    }
+
+    // 按 TABLE_BATCH_SIZE 分批拼接 IN 列表查询指定的表，表清单为空时不访问数据库
+    private void queryTables(Connection conn, String baseSql, String orderSql, String catalog,
+                             Collection<String> tableNames, RowHandler handler) throws SQLException {
+        List<String> names = new ArrayList<>(tableNames);
+        for (int from = 0; from < names.size(); from += TABLE_BATCH_SIZE) {
+            List<String> batch = names.subList(from, Math.min(from + TABLE_BATCH_SIZE, names.size()));
+            StringBuilder sql = new StringBuilder(baseSql).append(" AND c.TABLE_NAME IN (");
+            for (int i = 0; i < batch.size(); i++) {
+                sql.append(i == 0 ? "?" : ", ?");
+            }
+            sql.append(")").append(orderSql);
+
+            List<String> params = new ArrayList<>();
+            params.add(catalog);
+            params.addAll(batch);
+            query(conn, sql.toString(), params, handler);
+        }
+    }
+
+    private int query(Connection conn, String sql, List<String> params, RowHandler handler) throws SQLException {
+        int rows = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(
+                sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            enableStreaming(stmt);
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setString(i + 1, params.get(i));
+            }
+            cancellation.register(stmt);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    handler.handle(rs);
+                    rows++;
+                }
+            } finally {
+                cancellation.unregister(stmt);
+            }
+        }
+        return rows;
+    }
+
+    private void readColumnRow(ResultSet rs, Map<String, Map<String, ColumnInfo>> tables) throws SQLException {
+        String tableName = rs.getString("TABLE_NAME");
+        tables.computeIfAbsent(tableName, k -> new LinkedHashMap<>())
+              .put(rs.getString("COLUMN_NAME").intern(), readColumn(rs));
+    }
+
+    private void readIndexRow(ResultSet rs, Map<String, Map<String, IndexInfo>> tables) throws SQLException {
+        String indexName = rs.getString("INDEX_NAME");
+        IndexInfo index = tables.computeIfAbsent(rs.getString("TABLE_NAME"), k -> new LinkedHashMap<>())
+                                .computeIfAbsent(indexName, k -> new IndexInfo());
+        if (index.getName() == null) {
+            index.setName(indexName);
+            index.setUnique(rs.getInt("NON_UNIQUE") == 0);
+            index.setIndexType(rs.getString("INDEX_TYPE"));
+        }
+        index.getColumns().add(indexColumn(rs.getString("COLUMN_NAME"), rs.getObject("SUB_PART")));
+    }
+
+    private void readForeignKeyRow(ResultSet rs, String catalog, Map<String, Map<String, ForeignKeyInfo>> tables)
+            throws SQLException {
+        String constraintName = rs.getString("CONSTRAINT_NAME");
+        ForeignKeyInfo foreignKey = tables.computeIfAbsent(rs.getString("TABLE_NAME"), k -> new LinkedHashMap<>())
+                                          .computeIfAbsent(constraintName, k -> new ForeignKeyInfo());
+        if (foreignKey.getName() == null) {
+            foreignKey.setName(constraintName);
+            String referencedCatalog = rs.getString("REFERENCED_TABLE_SCHEMA");
+            foreignKey.setReferencedCatalog(catalog.equals(referencedCatalog) ? null : referencedCatalog);
+            foreignKey.setReferencedTable(rs.getString("REFERENCED_TABLE_NAME"));
+            foreignKey.setUpdateRule(rs.getString("UPDATE_RULE"));
+            foreignKey.setDeleteRule(rs.getString("DELETE_RULE"));
+        }
+        foreignKey.getColumns().add(rs.getString("COLUMN_NAME"));
+        foreignKey.getReferencedColumns().add(rs.getString("REFERENCED_COLUMN_NAME"));
+    }
+
+    // 前缀索引的字段带上长度，例如 name(10)
+    static String indexColumn(String columnName, Object subPart) {
+        return subPart != null ? columnName + "(" + subPart + ")" : columnName;
+    }
+
+    private ColumnInfo readColumn(ResultSet rs) throws SQLException {
+        // 与 MySQL 驱动 getColumns 的 TYPE_NAME 保持一致，例如 INT UNSIGNED
+        String dataType = rs.getString("DATA_TYPE");
+        return new ColumnInfo(
+            dataType,
+            ColumnType.declaresUnsigned(dataType, rs.getString("COLUMN_TYPE")),
+            readSize(rs),
+            rs.getInt("NUMERIC_SCALE"),
+            "YES".equalsIgnoreCase(rs.getString("IS_NULLABLE")),
+            rs.getString("COLUMN_DEFAULT"),
+            rs.getString("COLUMN_COMMENT"));
+    }
+
+    private int readSize(ResultSet rs) throws SQLException {
+        String[] sizeColumns = {"CHARACTER_MAXIMUM_LENGTH", "NUMERIC_PRECISION", "DATETIME_PRECISION"};
+        for (String column : sizeColumns) {
+            long size = rs.getLong(column);
+            if (!rs.wasNull()) {
+                // LONGTEXT 等类型的长度超出 int 范围
+                return (int) Math.min(size, Integer.MAX_VALUE);
+            }
+        }
+        return 0;
+    }
+
+    static void enableStreaming(Statement stmt) {
+        try {
+            stmt.setFetchSize(STREAMING_FETCH_SIZE);
+        } catch (SQLException e) {
+            // 非 MySQL 驱动不接受负数 fetchSize
+            try {
+                stmt.setFetchSize(DEFAULT_FETCH_SIZE);
+            } catch (SQLException ignored) {
+                // 使用驱动默认值
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.dbdiff.plugin.service;
+
+import com.dbdiff.plugin.logging.Logger;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+
+// 跨多次对比复用的长连接：借出的连接 close() 时归还而不是断开，
+// 借出前校验连接是否可用，空闲超时的连接由 evictIdle 关闭；
+// 由连接创建的 Statement、ResultSet 和 DatabaseMetaData 同样包装，getConnection() 不会拿到底层连接
+public class PooledConnectionSource implements ConnectionFactory, AutoCloseable {
+    private static final Logger LOG = Logger.getInstance(PooledConnectionSource.class);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final ConnectionFactory factory;
+    private final int maxIdle;
+    private final long idleTimeoutNanos;
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+    private volatile boolean closed;
+
+    private static class IdleConnection {
+        final Connection conn;
+        final long returnedAt;
+
+        IdleConnection(Connection conn, long returnedAt) {
+            this.conn = conn;
+            this.returnedAt = returnedAt;
+        }
+    }
+
+    public PooledConnectionSource(ConnectionFactory factory, int maxIdle, long idleTimeoutMillis) {
+        this.factory = factory;
+        this.maxIdle = maxIdle;
+        this.idleTimeoutNanos = idleTimeoutMillis * 1_000_000L;
+    }
+
+    // 优先复用最近归还的连接，校验失败或已超时的直接丢弃，都不可用时才新建
+    @Override
+    public Connection create() throws SQLException {
+        if (closed) {
+            throw new IllegalStateException("Connection source is closed");
+        }
+        IdleConnection candidate;
+        while ((candidate = pollIdle()) != null) {
+            if (System.nanoTime() - candidate.returnedAt > idleTimeoutNanos) {
+                closeQuietly(candidate.conn);
+                continue;
+            }
+            if (isValid(candidate.conn)) {
+                return wrap(candidate.conn);
+            }
+            closeQuietly(candidate.conn);
+        }
+        return wrap(factory.create());
+    }
+
+    public int getIdleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    // 定期调用，关闭空闲超过超时时间的连接，避免长期占用服务端连接数
+    public void evictIdle() {
+        long now = System.nanoTime();
+        synchronized (idle) {
+            Iterator<IdleConnection> it = idle.iterator();
+            while (it.hasNext()) {
+                IdleConnection candidate = it.next();
+                if (now - candidate.returnedAt > idleTimeoutNanos) {
+                    it.remove();
+                    closeQuietly(candidate.conn);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (idle) {
+            while (!idle.isEmpty()) {
+                closeQuietly(idle.pop().conn);
+            }
+        }
+    }
+
+    private IdleConnection pollIdle() {
+        synchronized (idle) {
+            return idle.poll();
+        }
+    }
+
+    // 回滚未提交的事务后放回空闲队列；队列已满、来源已关闭或连接出过网络错误时直接关闭
+    private void recycle(Connection conn, boolean broken) {
+        if (closed || broken) {
+            closeQuietly(conn);
+            return;
+        }
+        try {
+            if (conn.isClosed()) {
+                return;
+            }
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            closeQuietly(conn);
+            return;
+        }
+        synchronized (idle) {
+            if (idle.size() < maxIdle) {
+                idle.push(new IdleConnection(conn, System.nanoTime()));
+                return;
+            }
+        }
+        closeQuietly(conn);
+    }
+
+    private static boolean isValid(Connection conn) {
+        try {
+            return conn.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection wrap(Connection conn) {
+        PooledConnection handler = new PooledConnection(conn);
+        handler.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[]{Connection.class}, handler);
+        return handler.proxy;
+    }
+
+    private class PooledConnection implements InvocationHandler {
+        private final Connection conn;
+        private Connection proxy;
+        private boolean released;
+        // 可能由其他线程上的 Statement.cancel() 等调用标记
+        private volatile boolean broken;
+
+        PooledConnection(Connection conn) {
+            this.conn = conn;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (this) {
+                        if (!released) {
+                            released = true;
+                            recycle(conn, broken);
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return released || conn.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + conn;
+                default:
+                    break;
+            }
+            if (released) {
+                throw new SQLException("Connection has been returned to the pool");
+            }
+            return invokeTarget(conn, method, args);
+        }
+
+        // 调用底层对象，连接类错误标记连接损坏，返回的 JDBC 对象继续包装
+        Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                // SQLState 08 为连接类错误，这样的连接不再放回池中
+                if (cause instanceof SQLException) {
+                    String state = ((SQLException) cause).getSQLState();
+                    if (state != null && state.startsWith("08")) {
+                        broken = true;
+                    }
+                }
+                throw cause;
+            }
+            Class<?> type = method.getReturnType();
+            if (result == null || !(Statement.class.isAssignableFrom(type) || type == ResultSet.class
+                                    || type == DatabaseMetaData.class)) {
+                return result;
+            }
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new PooledChild(this, result));
+        }
+    }
+
+    private static class PooledChild implements InvocationHandler {
+        private final PooledConnection owner;
+        private final Object target;
+
+        PooledChild(PooledConnection owner, Object target) {
+            this.owner = owner;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getConnection":
+                    return owner.proxy;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + target;
+                default:
+                    return owner.invokeTarget(target, method, args);
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            LOG.warn("Failed to close pooled connection", e);
+        }
+    }
+}
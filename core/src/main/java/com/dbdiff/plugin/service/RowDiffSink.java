@@ -0,0 +1,9 @@
+package com.dbdiff.plugin.service;
+
+import com.dbdiff.plugin.model.RowDiff;
+
+// 接收逐行对比产生的差异，调用方决定保留、计数还是直接写出
+@FunctionalInterface
+public interface RowDiffSink {
+    void accept(RowDiff diff);
+}
@@ -0,0 +1,245 @@
+package com.dbdiff.plugin.service;
+
+import com.dbdiff.plugin.model.RowDiff;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+// 两侧按主键顺序各开一个只进游标，归并比较当前行，每侧只保留一行，内存占用与表大小无关
+class RowStreamDiffer {
+    // 连接开启 useCursorFetch 时，服务端游标每次返回的行数
+    static final int CURSOR_FETCH_SIZE = 1000;
+
+    private final CancellationHandle cancellation;
+
+    RowStreamDiffer(CancellationHandle cancellation) {
+        this.cancellation = cancellation;
+    }
+
+    // 两侧需按 compareKeys 的顺序返回行（字符串主键按二进制排序，见 TableChecksum.openRows），返回差异行数
+    long diff(Rows source, Rows target, List<String> columnNames, RowDiffSink sink) throws SQLException {
+        long diffs = 0;
+        boolean hasSource = source.next();
+        boolean hasTarget = target.next();
+        while (hasSource || hasTarget) {
+            cancellation.checkCanceled();
+            int order = !hasSource ? 1 : !hasTarget ? -1 : compareKeys(source.key(), target.key());
+            if (order < 0) {
+                sink.accept(rowDiff(source.key(), RowDiff.DiffType.REMOVED, null));
+                diffs++;
+                hasSource = source.next();
+            } else if (order > 0) {
+                sink.accept(rowDiff(target.key(), RowDiff.DiffType.ADDED, null));
+                diffs++;
+                hasTarget = target.next();
+            } else {
+                List<String> changedColumns = changedColumns(source.values(), target.values(), columnNames);
+                if (!changedColumns.isEmpty()) {
+                    sink.accept(rowDiff(source.key(), RowDiff.DiffType.CHANGED, changedColumns));
+                    diffs++;
+                }
+                hasSource = source.next();
+                hasTarget = target.next();
+            }
+        }
+        return diffs;
+    }
+
+    private static List<String> changedColumns(Object[] source, Object[] target, List<String> columnNames) {
+        List<String> changed = new ArrayList<>();
+        for (int i = 0; i < columnNames.size(); i++) {
+            if (!valuesEqual(source[i], target[i])) {
+                changed.add(columnNames.get(i));
+            }
+        }
+        return changed;
+    }
+
+    private static RowDiff rowDiff(Object[] key, RowDiff.DiffType type, List<String> changedColumns) {
+        List<String> primaryKey = new ArrayList<>(key.length);
+        for (Object value : key) {
+            primaryKey.add(render(value));
+        }
+        RowDiff diff = new RowDiff();
+        diff.setPrimaryKey(primaryKey);
+        diff.setDiffType(type);
+        diff.setChangedColumns(changedColumns);
+        return diff;
+    }
+
+    static int compareKeys(Object[] a, Object[] b) {
+        for (int i = 0; i < a.length; i++) {
+            int order = compareValues(a[i], b[i]);
+            if (order != 0) {
+                return order;
+            }
+        }
+        return 0;
+    }
+
+    // 与查询的排序保持一致：数值按大小，字符串按码点（即 UTF-8 字节的无符号顺序），二进制按无符号字节；
+    // 不能按排序规则比较，例如 _ci 与 _bin、带重音的字符在各排序规则中的先后都不相同
+    @SuppressWarnings("unchecked")
+    static int compareValues(Object a, Object b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        if (a instanceof Number && b instanceof Number) {
+            return toBigDecimal((Number) a).compareTo(toBigDecimal((Number) b));
+        }
+        if (a instanceof String && b instanceof String) {
+            return compareCodePoints((String) a, (String) b);
+        }
+        if (a instanceof byte[] && b instanceof byte[]) {
+            return Arrays.compareUnsigned((byte[]) a, (byte[]) b);
+        }
+        if (a instanceof Comparable && a.getClass() == b.getClass()) {
+            return ((Comparable<Object>) a).compareTo(b);
+        }
+        return a.toString().compareTo(b.toString());
+    }
+
+    // String.compareTo 按 UTF-16 编码单元比较，增补字符与 U+E000 以上的字符顺序与 UTF-8 字节顺序不同
+    static int compareCodePoints(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int ca = a.codePointAt(i);
+            int cb = b.codePointAt(j);
+            if (ca != cb) {
+                return Integer.compare(ca, cb);
+            }
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+
+    // 字段类型在两侧不同（例如 INT 与 BIGINT）时驱动返回的对象类型不同，数值按大小比较
+    static boolean valuesEqual(Object a, Object b) {
+        if (a instanceof Number && b instanceof Number) {
+            return toBigDecimal((Number) a).compareTo(toBigDecimal((Number) b)) == 0;
+        }
+        return Objects.deepEquals(a, b);
+    }
+
+    private static BigDecimal toBigDecimal(Number value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        }
+        if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        }
+        if (value instanceof Double || value instanceof Float) {
+            return BigDecimal.valueOf(value.doubleValue());
+        }
+        return BigDecimal.valueOf(value.longValue());
+    }
+
+    private static String render(Object value) {
+        if (value instanceof byte[]) {
+            StringBuilder hex = new StringBuilder("0x");
+            for (byte b : (byte[]) value) {
+                hex.append(String.format("%02X", b));
+            }
+            return hex.toString();
+        }
+        return String.valueOf(value);
+    }
+
+    // 按主键顺序逐行读取的一侧数据，next 返回 true 后 key 和 values 指向当前行
+    interface Rows {
+        boolean next() throws SQLException;
+
+        Object[] key();
+
+        Object[] values();
+    }
+
+    // 单侧的只进游标，结果集前 keySize 列为主键，其后为要比较的字段
+    static class RowCursor implements Rows, AutoCloseable {
+        private final CancellationHandle cancellation;
+        private final PreparedStatement stmt;
+        private final int keySize;
+        private final int valueCount;
+        private ResultSet rs;
+        private Object[] key;
+        private Object[] values;
+
+        RowCursor(Connection conn, String sql, List<Object> params, int keySize, int valueCount,
+                  CancellationHandle cancellation) throws SQLException {
+            this.cancellation = cancellation;
+            this.keySize = keySize;
+            this.valueCount = valueCount;
+            this.stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            try {
+                enableCursor(conn, stmt);
+                for (int i = 0; i < params.size(); i++) {
+                    stmt.setObject(i + 1, params.get(i));
+                }
+                cancellation.register(stmt);
+                rs = stmt.executeQuery();
+            } catch (SQLException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean next() throws SQLException {
+            if (!rs.next()) {
+                return false;
+            }
+            key = new Object[keySize];
+            for (int i = 0; i < keySize; i++) {
+                key[i] = rs.getObject(i + 1);
+            }
+            values = new Object[valueCount];
+            for (int i = 0; i < valueCount; i++) {
+                values[i] = rs.getObject(keySize + i + 1);
+            }
+            return true;
+        }
+
+        @Override
+        public Object[] key() {
+            return key;
+        }
+
+        @Override
+        public Object[] values() {
+            return values;
+        }
+
+        // URL 带 useCursorFetch=true 时 MySQL 驱动按 fetchSize 分批读取服务端游标；
+        // 否则退回逐行流式读取，两种方式都不会把整个结果集读进内存
+        private static void enableCursor(Connection conn, PreparedStatement stmt) throws SQLException {
+            String url = conn.getMetaData().getURL();
+            if (url != null && url.contains("useCursorFetch=true")) {
+                stmt.setFetchSize(CURSOR_FETCH_SIZE);
+            } else {
+                InformationSchemaLoader.enableStreaming(stmt);
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            cancellation.unregister(stmt);
+            try {
+                if (rs != null) {
+                    rs.close();
+                }
+            } finally {
+                stmt.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.dbdiff.plugin.service;
+
+import com.dbdiff.plugin.model.ColumnInfo;
+import com.dbdiff.plugin.model.ForeignKeyInfo;
+import com.dbdiff.plugin.model.IndexInfo;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 按连接地址、用户和库名缓存上次读取的表结构（字段、索引、外键）及逐表指纹，
+// 再次对比时指纹未变的表直接复用，只重新读取指纹变化的表
+public class SchemaSnapshotCache {
+    private final Map<String, CachedSchema> schemas = new ConcurrentHashMap<>();
+
+    static class CachedSchema {
+        final Map<String, String> fingerprints;
+        final Map<String, Map<String, ColumnInfo>> columns;
+        final Map<String, Map<String, IndexInfo>> indexes;
+        final Map<String, Map<String, ForeignKeyInfo>> foreignKeys;
+
+        CachedSchema(Map<String, String> fingerprints, Map<String, Map<String, ColumnInfo>> columns,
+                     Map<String, Map<String, IndexInfo>> indexes,
+                     Map<String, Map<String, ForeignKeyInfo>> foreignKeys) {
+            this.fingerprints = fingerprints;
+            this.columns = columns;
+            this.indexes = indexes;
+            this.foreignKeys = foreignKeys;
+        }
+
+        boolean isCurrent(String table, String fingerprint) {
+            return fingerprint != null && fingerprint.equals(fingerprints.get(table)) && columns.containsKey(table);
+        }
+    }
+
+    static String key(String url, String user, String catalog) {
+        return url + "|" + user + "|" + catalog;
+    }
+
+    CachedSchema get(String key) {
+        return schemas.get(key);
+    }
+
+    void put(String key, CachedSchema schema) {
+        schemas.put(key, schema);
+    }
+
+    public void clear() {
+        schemas.clear();
+    }
+}
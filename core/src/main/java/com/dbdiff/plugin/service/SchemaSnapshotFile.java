@@ -0,0 +1,209 @@
+package com.dbdiff.plugin.service;
+
+import com.dbdiff.plugin.model.ColumnInfo;
+import com.dbdiff.plugin.model.ForeignKeyInfo;
+import com.dbdiff.plugin.model.IndexInfo;
+import com.dbdiff.plugin.model.SchemaSnapshot;
+import com.dbdiff.plugin.model.TableSnapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// 快照的二进制文件格式：魔数 + 版本号，之后依次是库名、采集时间和各表的建表语句、字段、索引、外键
+// 字符串写成 int 长度（-1 表示 null）+ UTF-8 字节，读取时整个文件映射到内存直接解析
+public class SchemaSnapshotFile {
+    private static final int MAGIC = 0x44424453;
+    // 版本 2 增加了索引，版本 3 增加了外键，仍可读取旧版本的文件
+    private static final int VERSION = 3;
+    private static final int MIN_VERSION = 1;
+
+    public static void write(SchemaSnapshot snapshot, Path file) throws IOException {
+        try (OutputStream fileOut = Files.newOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            writeString(out, snapshot.getCatalog());
+            out.writeLong(snapshot.getCapturedAt());
+
+            out.writeInt(snapshot.getTables().size());
+            for (TableSnapshot table : snapshot.getTables().values()) {
+                writeString(out, table.getTableName());
+                writeString(out, table.getCreateTableSql());
+                out.writeInt(table.getColumns().size());
+                for (Map.Entry<String, ColumnInfo> entry : table.getColumns().entrySet()) {
+                    ColumnInfo column = entry.getValue();
+                    writeString(out, entry.getKey());
+                    writeString(out, column.getType());
+                    out.writeInt(column.getSize());
+                    out.writeInt(column.getDecimal());
+                    out.writeBoolean(column.isNullable());
+                    writeString(out, column.getDefaultValue());
+                    writeString(out, column.getComment());
+                }
+
+                out.writeInt(table.getIndexes().size());
+                for (IndexInfo index : table.getIndexes().values()) {
+                    writeString(out, index.getName());
+                    out.writeBoolean(index.isUnique());
+                    writeString(out, index.getIndexType());
+                    out.writeInt(index.getColumns().size());
+                    for (String column : index.getColumns()) {
+                        writeString(out, column);
+                    }
+                }
+
+                out.writeInt(table.getForeignKeys().size());
+                for (ForeignKeyInfo foreignKey : table.getForeignKeys().values()) {
+                    writeString(out, foreignKey.getName());
+                    writeStrings(out, foreignKey.getColumns());
+                    writeString(out, foreignKey.getReferencedCatalog());
+                    writeString(out, foreignKey.getReferencedTable());
+                    writeStrings(out, foreignKey.getReferencedColumns());
+                    writeString(out, foreignKey.getUpdateRule());
+                    writeString(out, foreignKey.getDeleteRule());
+                }
+            }
+        }
+    }
+
+    public static SchemaSnapshot read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a schema snapshot file: " + file);
+            }
+            int version = buffer.getInt();
+            if (version < MIN_VERSION || version > VERSION) {
+                throw new IOException("Unsupported schema snapshot version " + version + ": " + file);
+            }
+
+            SchemaSnapshot snapshot = new SchemaSnapshot();
+            snapshot.setCatalog(readString(buffer));
+            snapshot.setCapturedAt(buffer.getLong());
+
+            int tableCount = readCount(buffer);
+            for (int i = 0; i < tableCount; i++) {
+                TableSnapshot table = new TableSnapshot();
+                table.setTableName(readString(buffer));
+                table.setCreateTableSql(readString(buffer));
+
+                int columnCount = readCount(buffer);
+                Map<String, ColumnInfo> columns = new LinkedHashMap<>(columnCount * 2);
+                for (int j = 0; j < columnCount; j++) {
+                    String name = readString(buffer).intern();
+                    // 按写入顺序依次读取
+                    String type = readString(buffer);
+                    int size = buffer.getInt();
+                    int decimal = buffer.getInt();
+                    boolean nullable = buffer.get() != 0;
+                    String defaultValue = readString(buffer);
+                    String comment = readString(buffer);
+                    columns.put(name, new ColumnInfo(type, size, decimal, nullable, defaultValue, comment));
+                }
+                table.setColumns(columns);
+
+                if (version >= 2) {
+                    int indexCount = readCount(buffer);
+                    Map<String, IndexInfo> indexes = new LinkedHashMap<>(indexCount * 2);
+                    for (int j = 0; j < indexCount; j++) {
+                        IndexInfo index = new IndexInfo();
+                        index.setName(readString(buffer));
+                        index.setUnique(buffer.get() != 0);
+                        index.setIndexType(readString(buffer));
+                        int indexColumnCount = readCount(buffer);
+                        List<String> indexColumns = new ArrayList<>(indexColumnCount);
+                        for (int k = 0; k < indexColumnCount; k++) {
+                            indexColumns.add(readString(buffer));
+                        }
+                        index.setColumns(indexColumns);
+                        indexes.put(index.getName(), index);
+                    }
+                    table.setIndexes(indexes);
+                }
+
+                if (version >= 3) {
+                    int foreignKeyCount = readCount(buffer);
+                    Map<String, ForeignKeyInfo> foreignKeys = new LinkedHashMap<>(foreignKeyCount * 2);
+                    for (int j = 0; j < foreignKeyCount; j++) {
+                        ForeignKeyInfo foreignKey = new ForeignKeyInfo();
+                        foreignKey.setName(readString(buffer));
+                        foreignKey.setColumns(readStrings(buffer));
+                        foreignKey.setReferencedCatalog(readString(buffer));
+                        foreignKey.setReferencedTable(readString(buffer));
+                        foreignKey.setReferencedColumns(readStrings(buffer));
+                        foreignKey.setUpdateRule(readString(buffer));
+                        foreignKey.setDeleteRule(readString(buffer));
+                        foreignKeys.put(foreignKey.getName(), foreignKey);
+                    }
+                    table.setForeignKeys(foreignKeys);
+                }
+                snapshot.getTables().put(table.getTableName(), table);
+            }
+            return snapshot;
+        } catch (RuntimeException e) {
+            // 文件被截断或内容损坏时 ByteBuffer 抛出 BufferUnderflowException，长度或数量越界时抛出 IllegalStateException
+            throw new IOException("Corrupted schema snapshot file: " + file, e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static List<String> readStrings(ByteBuffer buffer) {
+        int count = readCount(buffer);
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readString(buffer));
+        }
+        return values;
+    }
+
+    // 每个元素至少占一个字节，数量超过剩余字节数说明文件已损坏，不能按它分配集合
+    private static int readCount(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining()) {
+            throw new IllegalStateException("Invalid element count " + count + " at offset " + buffer.position());
+        }
+        return count;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IllegalStateException("Invalid string length " + length + " at offset " + buffer.position());
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,272 @@
+package com.dbdiff.plugin.service;
+
+import com.dbdiff.plugin.model.ColumnDiff;
+import com.dbdiff.plugin.model.ForeignKeyDiff;
+import com.dbdiff.plugin.model.IndexDiff;
+import com.dbdiff.plugin.model.TableDiff;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// 根据对比结果生成两侧的同步脚本，逐条语句写入 Writer，不依赖界面组件，便于单独做性能测试
+public class SqlScriptGenerator {
+    // 延迟加载建表语句时，脚本中代替尚未读取的语句
+    public static final String CREATE_TABLE_SQL_PLACEHOLDER = "-- 建表语句未加载，点击“复制表结构”后读取";
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    public static class Scripts {
+        private final String sourceScript;
+        private final String targetScript;
+
+        Scripts(String sourceScript, String targetScript) {
+            this.sourceScript = sourceScript;
+            this.targetScript = targetScript;
+        }
+
+        public String getSourceScript() {
+            return sourceScript;
+        }
+
+        public String getTargetScript() {
+            return targetScript;
+        }
+    }
+
+    // 结果较小时使用，例如性能测试；大结果应通过 write* 方法直接写入文件
+    public static Scripts generate(List<TableDiff> diffs) {
+        try {
+            StringWriter sourceScript = new StringWriter();
+            writeSourceScript(sourceScript, diffs);
+            StringWriter targetScript = new StringWriter();
+            writeTargetScript(targetScript, diffs);
+            return new Scripts(sourceScript.toString(), targetScript.toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static String generateMigrationScript(List<TableDiff> diffs) {
+        try {
+            StringWriter script = new StringWriter();
+            writeMigrationScript(script, diffs);
+            return script.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // 源数据库的同步脚本：按依赖顺序创建目标数据库新增的表
+    public static void writeSourceScript(Writer out, List<TableDiff> diffs) throws IOException {
+        TableDependencyOrder added = TableDependencyOrder.of(filter(diffs, TableDiff.DiffType.ADDED));
+
+        boolean wrap = beginForeignKeyChecks(out, added.isCyclic(), !added.getTables().isEmpty());
+        writeCreateTables(out, added, "-- 在源数据库中缺失的表: ");
+        endForeignKeyChecks(out, wrap);
+    }
+
+    // 目标数据库的同步脚本，按阶段输出，整体可一次执行：先删除外键，再按依赖顺序建表、修改表结构，最后添加外键
+    public static void writeTargetScript(Writer out, List<TableDiff> diffs) throws IOException {
+        TableDependencyOrder removed = TableDependencyOrder.of(filter(diffs, TableDiff.DiffType.REMOVED));
+        TableDependencyOrder modified = TableDependencyOrder.of(filter(diffs, TableDiff.DiffType.MODIFIED));
+
+        boolean wrap = beginForeignKeyChecks(out, removed.isCyclic() || modified.isCyclic(),
+                                             !removed.getTables().isEmpty() || !modified.getTables().isEmpty());
+        writeDropForeignKeys(out, modified);
+        writeCreateTables(out, removed, "-- 在目标数据库中缺失的表: ");
+        writeAlterTables(out, modified);
+        writeAddForeignKeys(out, modified);
+        endForeignKeyChecks(out, wrap);
+    }
+
+    // 导出报告中的完整迁移脚本：删除外键、建表、修改表、添加外键，最后按依赖的逆序删除多余的表
+    public static void writeMigrationScript(Writer out, List<TableDiff> diffs) throws IOException {
+        TableDependencyOrder added = TableDependencyOrder.of(filter(diffs, TableDiff.DiffType.ADDED));
+        TableDependencyOrder removed = TableDependencyOrder.of(filter(diffs, TableDiff.DiffType.REMOVED));
+        TableDependencyOrder modified = TableDependencyOrder.of(filter(diffs, TableDiff.DiffType.MODIFIED));
+
+        boolean wrap = beginForeignKeyChecks(out, added.isCyclic() || removed.isCyclic() || modified.isCyclic(),
+                                             !added.getTables().isEmpty() || !removed.getTables().isEmpty() ||
+                                             !modified.getTables().isEmpty());
+        writeDropForeignKeys(out, modified);
+        writeCreateTables(out, added, "-- 新增表: ");
+        writeAlterTables(out, modified);
+        writeAddForeignKeys(out, modified);
+
+        List<TableDiff> dropOrder = new ArrayList<>(removed.getTables());
+        Collections.reverse(dropOrder);
+        for (TableDiff diff : dropOrder) {
+            out.write("-- 删除表\n");
+            out.append("DROP TABLE IF EXISTS `").append(diff.getTableName()).append("`;\n\n");
+        }
+        endForeignKeyChecks(out, wrap);
+    }
+
+    // 写入文件或管道，语句逐条经缓冲区输出，不在内存中拼接整个脚本；不关闭通道
+    public static void writeMigrationScript(WritableByteChannel channel, List<TableDiff> diffs) throws IOException {
+        Writer out = new BufferedWriter(Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), -1),
+                                        WRITE_BUFFER_SIZE);
+        writeMigrationScript(out, diffs);
+        out.flush();
+    }
+
+    private static List<TableDiff> filter(List<TableDiff> diffs, TableDiff.DiffType type) {
+        List<TableDiff> result = new ArrayList<>();
+        for (TableDiff diff : diffs) {
+            if (diff.getDiffType() == type && (type != TableDiff.DiffType.MODIFIED || hasChanges(diff))) {
+                result.add(diff);
+            }
+        }
+        return result;
+    }
+
+    private static void writeCreateTables(Writer script, TableDependencyOrder order, String comment)
+            throws IOException {
+        for (TableDiff diff : order.getTables()) {
+            script.append(comment).append(diff.getTableName()).append("\n");
+            script.append(formatCreateTableSql(diff.getCreateTableSql())).append("\n\n");
+        }
+    }
+
+    private static void writeAlterTables(Writer script, TableDependencyOrder order) throws IOException {
+        for (TableDiff diff : order.getTables()) {
+            // 如果有列或索引的变更，生成ALTER TABLE语句
+            if (hasAlterations(diff)) {
+                script.append(generateAlterTableSql(diff)).append("\n\n");
+            }
+        }
+    }
+
+    // 被删除或修改的外键先于其他变更删除，避免阻止字段和索引的修改；按依赖逆序删除
+    private static void writeDropForeignKeys(Writer script, TableDependencyOrder order) throws IOException {
+        List<TableDiff> tables = new ArrayList<>(order.getTables());
+        Collections.reverse(tables);
+        for (TableDiff diff : tables) {
+            List<String> drops = new ArrayList<>();
+            for (ForeignKeyDiff foreignKeyDiff : foreignKeyDiffs(diff)) {
+                if (foreignKeyDiff.getDiffType() != ForeignKeyDiff.DiffType.ADDED) {
+                    drops.add("DROP FOREIGN KEY `" + foreignKeyDiff.getConstraintName() + "`");
+                }
+            }
+            writeAlterStatement(script, diff.getTableName(), " 的外键删除", drops);
+        }
+    }
+
+    // 新增或修改的外键在所有表和索引就绪之后添加
+    private static void writeAddForeignKeys(Writer script, TableDependencyOrder order) throws IOException {
+        for (TableDiff diff : order.getTables()) {
+            List<String> adds = new ArrayList<>();
+            for (ForeignKeyDiff foreignKeyDiff : foreignKeyDiffs(diff)) {
+                if (foreignKeyDiff.getDiffType() != ForeignKeyDiff.DiffType.REMOVED) {
+                    adds.add("ADD " + foreignKeyDiff.getTargetDefinition());
+                }
+            }
+            writeAlterStatement(script, diff.getTableName(), " 的外键新增", adds);
+        }
+    }
+
+    private static void writeAlterStatement(Writer script, String table, String comment,
+                                            List<String> alterations) throws IOException {
+        if (alterations.isEmpty()) {
+            return;
+        }
+        script.append("-- 表 ").append(table).append(comment).append("\n");
+        script.append("ALTER TABLE `").append(table).append("`\n");
+        script.append(String.join(",\n", alterations)).append(";\n\n");
+    }
+
+    // 存在循环外键引用时无法找到合法的建表顺序，执行期间临时关闭外键检查；脚本为空时不输出
+    private static boolean beginForeignKeyChecks(Writer out, boolean cyclic, boolean hasStatements)
+            throws IOException {
+        if (!cyclic || !hasStatements) {
+            return false;
+        }
+        out.write("-- 存在循环外键引用，执行期间临时关闭外键检查\n");
+        out.write("SET FOREIGN_KEY_CHECKS = 0;\n\n");
+        return true;
+    }
+
+    private static void endForeignKeyChecks(Writer out, boolean wrapped) throws IOException {
+        if (wrapped) {
+            out.write("SET FOREIGN_KEY_CHECKS = 1;\n");
+        }
+    }
+
+    private static List<ForeignKeyDiff> foreignKeyDiffs(TableDiff diff) {
+        return diff.getForeignKeyDiffs() != null ? diff.getForeignKeyDiffs() : Collections.emptyList();
+    }
+
+    public static boolean hasChanges(TableDiff diff) {
+        return hasAlterations(diff) ||
+               (diff.getForeignKeyDiffs() != null && !diff.getForeignKeyDiffs().isEmpty());
+    }
+
+    // 字段或索引的变更，外键变更单独成句
+    private static boolean hasAlterations(TableDiff diff) {
+        return (diff.getColumnDiffs() != null && !diff.getColumnDiffs().isEmpty()) ||
+               (diff.getIndexDiffs() != null && !diff.getIndexDiffs().isEmpty());
+    }
+
+    public static String formatCreateTableSql(String createSql) {
+        if (createSql == null) {
+            return CREATE_TABLE_SQL_PLACEHOLDER;
+        }
+        if (!createSql.trim().endsWith(";")) {
+            createSql = createSql.trim() + ";";
+        }
+        return createSql;
+    }
+
+    public static String generateAlterTableSql(TableDiff diff) {
+        StringBuilder sql = new StringBuilder();
+        sql.append("-- 表 ").append(diff.getTableName()).append(" 的结构变更\n");
+        sql.append("ALTER TABLE `").append(diff.getTableName()).append("`\n");
+
+        List<String> alterations = new ArrayList<>();
+        // 先删除旧索引再改字段，最后建新索引，避免索引引用已删除或未创建的字段
+        if (diff.getIndexDiffs() != null) {
+            for (IndexDiff indexDiff : diff.getIndexDiffs()) {
+                if (indexDiff.getDiffType() != IndexDiff.DiffType.ADDED) {
+                    alterations.add(indexDiff.isPrimaryKey()
+                        ? "DROP PRIMARY KEY"
+                        : "DROP INDEX `" + indexDiff.getIndexName() + "`");
+                }
+            }
+        }
+        for (ColumnDiff columnDiff : diff.getColumnDiffs()) {
+            switch (columnDiff.getDiffType()) {
+                case ADDED:
+                    alterations.add("ADD COLUMN `" + columnDiff.getColumnName() + "` " + 
+                                  columnDiff.getTargetType());
+                    break;
+                case REMOVED:
+                    alterations.add("DROP COLUMN `" + columnDiff.getColumnName() + "`");
+                    break;
+                case TYPE_CHANGED:
+                    alterations.add("MODIFY COLUMN `" + columnDiff.getColumnName() + "` " + 
+                                  columnDiff.getTargetType());
+                    break;
+            }
+        }
+
+        if (diff.getIndexDiffs() != null) {
+            for (IndexDiff indexDiff : diff.getIndexDiffs()) {
+                if (indexDiff.getDiffType() != IndexDiff.DiffType.REMOVED) {
+                    alterations.add("ADD " + indexDiff.getTargetDefinition());
+                }
+            }
+        }
+
+        sql.append(String.join(",\n", alterations)).append(";");
+        return sql.toString();
+    }
+}
@@ -0,0 +1,87 @@
+package com.dbdiff.plugin.service;
+
+import com.dbdiff.plugin.logging.Logger;
+import com.dbdiff.plugin.model.TableDiff;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+// 按外键依赖对表排序（Kahn 算法），被引用的表排在前面；只考虑参与排序的表之间的引用
+// 存在循环引用时，剩余的表按表名追加在末尾，脚本需要临时关闭外键检查
+public class TableDependencyOrder {
+    private static final Logger LOG = Logger.getInstance(TableDependencyOrder.class);
+
+    private final List<TableDiff> tables;
+    private final boolean cyclic;
+
+    private TableDependencyOrder(List<TableDiff> tables, boolean cyclic) {
+        this.tables = tables;
+        this.cyclic = cyclic;
+    }
+
+    public static TableDependencyOrder of(Collection<TableDiff> diffs) {
+        Map<String, TableDiff> byName = new TreeMap<>();
+        for (TableDiff diff : diffs) {
+            byName.put(diff.getTableName(), diff);
+        }
+
+        // 入度为当前表引用的、同样参与排序的表的数量
+        Map<String, Integer> inDegree = new HashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        for (TableDiff diff : byName.values()) {
+            int degree = 0;
+            for (String referenced : diff.getReferencedTables()) {
+                if (byName.containsKey(referenced) && !referenced.equals(diff.getTableName())) {
+                    dependents.computeIfAbsent(referenced, k -> new ArrayList<>()).add(diff.getTableName());
+                    degree++;
+                }
+            }
+            inDegree.put(diff.getTableName(), degree);
+        }
+
+        // 就绪队列按表名排序，保证相同输入得到相同的脚本
+        TreeSet<String> ready = new TreeSet<>();
+        for (Map.Entry<String, Integer> entry : inDegree.entrySet()) {
+            if (entry.getValue() == 0) {
+                ready.add(entry.getKey());
+            }
+        }
+
+        List<TableDiff> ordered = new ArrayList<>(byName.size());
+        while (!ready.isEmpty()) {
+            String table = ready.pollFirst();
+            ordered.add(byName.get(table));
+            for (String dependent : dependents.getOrDefault(table, new ArrayList<>())) {
+                if (inDegree.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        boolean cyclic = ordered.size() < byName.size();
+        if (cyclic) {
+            List<String> remaining = new ArrayList<>();
+            for (Map.Entry<String, Integer> entry : new TreeMap<>(inDegree).entrySet()) {
+                if (entry.getValue() > 0) {
+                    remaining.add(entry.getKey());
+                    ordered.add(byName.get(entry.getKey()));
+                }
+            }
+            LOG.warn("Circular foreign key references between tables: " + remaining);
+        }
+        return new TableDependencyOrder(ordered, cyclic);
+    }
+
+    public List<TableDiff> getTables() {
+        return tables;
+    }
+
+    public boolean isCyclic() {
+        return cyclic;
+    }
+}
@@ -0,0 +1,67 @@
+package com.dbdiff.plugin.service;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// 启动一组执行同一任务的工作线程并等待全部结束：按完成顺序等待，第一个失败的线程立即中止其余线程，
+// 等其余线程退出、连接归还后再抛出该错误
+final class WorkerGroup {
+    @FunctionalInterface
+    interface Worker {
+        void run() throws SQLException;
+    }
+
+    private WorkerGroup() {
+    }
+
+    // subject 用于错误信息，例如 tables 对应 "Interrupted while comparing tables"
+    static void run(String name, int workers, CancellationHandle cancellation, String subject, Worker worker)
+            throws SQLException {
+        ExecutorService executor = Executors.newFixedThreadPool(workers, new WorkerThreadFactory(name));
+        try {
+            cancellation.clearAbort();
+            CompletionService<Void> completion = new ExecutorCompletionService<>(executor);
+            for (int i = 0; i < workers; i++) {
+                completion.submit(() -> {
+                    worker.run();
+                    return null;
+                });
+            }
+            await(completion, workers, cancellation, subject);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CompletionService<Void> completion, int workers, CancellationHandle cancellation,
+                              String subject) throws SQLException {
+        Throwable failure = null;
+        for (int i = 0; i < workers; i++) {
+            try {
+                completion.take().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancellation.abort();
+                throw new SQLException("Interrupted while comparing " + subject, e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                    cancellation.abort();
+                }
+            }
+        }
+        if (failure instanceof SQLException) {
+            throw (SQLException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure != null) {
+            throw new SQLException("Failed to compare " + subject, failure);
+        }
+    }
+}
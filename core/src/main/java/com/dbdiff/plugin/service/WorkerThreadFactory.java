@@ -0,0 +1,21 @@
+package com.dbdiff.plugin.service;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 对比服务的工作线程：守护线程，按服务名编号便于在线程转储中区分
+class WorkerThreadFactory implements ThreadFactory {
+    private final String name;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    WorkerThreadFactory(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+        Thread thread = new Thread(r, name + "-worker-" + counter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
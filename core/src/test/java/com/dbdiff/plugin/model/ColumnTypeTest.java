@@ -0,0 +1,57 @@
+package com.dbdiff.plugin.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ColumnTypeTest {
+    @Test
+    void parseIgnoresCaseAndUnsignedSuffix() {
+        assertSame(ColumnType.INT, ColumnType.parse("int"));
+        assertSame(ColumnType.BIGINT, ColumnType.parse("bigint Unsigned"));
+        assertSame(ColumnType.OTHER, ColumnType.parse("interval"));
+        assertSame(ColumnType.OTHER, ColumnType.parse(" UNSIGNED"));
+        assertSame(ColumnType.OTHER, ColumnType.parse(null));
+        assertTrue(ColumnType.isUnsigned("tinyint unsigned"));
+        assertFalse(ColumnType.isUnsigned("unsigned"));
+    }
+
+    @Test
+    void declaresUnsignedOnlyForNumericModifiers() {
+        assertTrue(ColumnType.declaresUnsigned("int", "int(10) unsigned zerofill"));
+        assertTrue(ColumnType.declaresUnsigned("bigint", "BIGINT UNSIGNED"));
+        assertTrue(ColumnType.declaresUnsigned("decimal", "decimal(10,2) unsigned"));
+        assertFalse(ColumnType.declaresUnsigned("int", "int(10)"));
+        assertFalse(ColumnType.declaresUnsigned("int", "int(10) unsignedx"));
+        assertFalse(ColumnType.declaresUnsigned("int", null));
+    }
+
+    // 取值列表中的 unsigned 不是修饰词
+    @Test
+    void enumAndSetValuesAreNotUnsigned() {
+        assertFalse(ColumnType.declaresUnsigned("enum", "enum('signed','unsigned')"));
+        assertFalse(ColumnType.declaresUnsigned("set", "set('unsigned')"));
+        assertFalse(ColumnType.declaresUnsigned("varchar", "varchar(10) unsigned"));
+        ColumnInfo column = new ColumnInfo("enum", ColumnType.declaresUnsigned("enum", "enum('unsigned')"),
+                                           0, 0, true, null, "");
+        assertEquals("ENUM", column.getType());
+    }
+
+    // 分开传入基本类型名和 unsigned 与传入完整类型名得到相同的字段，已知类型名不再新建字符串
+    @Test
+    void separateUnsignedFlagMatchesFullTypeName() {
+        ColumnInfo full = new ColumnInfo("int unsigned", 10, 0, false, "0", "");
+        ColumnInfo split = new ColumnInfo("int", true, 10, 0, false, "0", "");
+        assertEquals(full, split);
+        assertSame(full.getType(), split.getType());
+        assertEquals("INT UNSIGNED", split.getType());
+
+        ColumnInfo other = new ColumnInfo("mytype", true, 0, 0, true, null, "");
+        assertSame(ColumnType.OTHER, other.getColumnType());
+        assertEquals("mytype UNSIGNED", other.getType());
+        assertEquals(new ColumnInfo("mytype UNSIGNED", 0, 0, true, null, ""), other);
+    }
+}
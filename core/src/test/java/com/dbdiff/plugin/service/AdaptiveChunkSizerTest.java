@@ -0,0 +1,57 @@
+package com.dbdiff.plugin.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdaptiveChunkSizerTest {
+    private static final long MILLIS = 1_000_000L;
+
+    @Test
+    void initialSizeIsClamped() {
+        assertEquals(AdaptiveChunkSizer.MIN_CHUNK_SIZE, new AdaptiveChunkSizer(1).getChunkSize());
+        assertEquals(AdaptiveChunkSizer.MAX_CHUNK_SIZE, new AdaptiveChunkSizer(Integer.MAX_VALUE).getChunkSize());
+    }
+
+    @Test
+    void latencyInsideTargetRangeKeepsSize() {
+        AdaptiveChunkSizer sizer = new AdaptiveChunkSizer(10_000);
+        sizer.record(10_000, 200 * MILLIS);
+        sizer.record(10_000, 500 * MILLIS);
+        assertEquals(10_000, sizer.getChunkSize());
+    }
+
+    // 理想大小按 300 ms 估算，再与当前值取平均
+    @Test
+    void fastChunkGrows() {
+        AdaptiveChunkSizer sizer = new AdaptiveChunkSizer(10_000);
+        sizer.record(10_000, 100 * MILLIS);
+        assertEquals(20_000, sizer.getChunkSize());
+    }
+
+    @Test
+    void slowChunkShrinks() {
+        AdaptiveChunkSizer sizer = new AdaptiveChunkSizer(10_000);
+        sizer.record(10_000, 1_000 * MILLIS);
+        assertEquals(6_500, sizer.getChunkSize());
+    }
+
+    @Test
+    void sizeStaysWithinBounds() {
+        AdaptiveChunkSizer sizer = new AdaptiveChunkSizer(AdaptiveChunkSizer.MAX_CHUNK_SIZE);
+        sizer.record(AdaptiveChunkSizer.MAX_CHUNK_SIZE, 1);
+        assertEquals(AdaptiveChunkSizer.MAX_CHUNK_SIZE, sizer.getChunkSize());
+
+        sizer = new AdaptiveChunkSizer(AdaptiveChunkSizer.MIN_CHUNK_SIZE);
+        sizer.record(AdaptiveChunkSizer.MIN_CHUNK_SIZE, 60_000 * MILLIS);
+        assertEquals(AdaptiveChunkSizer.MIN_CHUNK_SIZE, sizer.getChunkSize());
+    }
+
+    @Test
+    void emptyOrUntimedChunksAreIgnored() {
+        AdaptiveChunkSizer sizer = new AdaptiveChunkSizer(10_000);
+        sizer.record(0, 10 * MILLIS);
+        sizer.record(10_000, 0);
+        assertEquals(10_000, sizer.getChunkSize());
+    }
+}
@@ -0,0 +1,51 @@
+package com.dbdiff.plugin.service;
+
+import com.dbdiff.plugin.model.ColumnInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DataCompareServiceTest {
+
+    @Test
+    void characterKeysAreOrderedByBinaryValue() {
+        Map<String, ColumnInfo> columns = new HashMap<>();
+        columns.put("tenant_id", column("int"));
+        columns.put("code", column("varchar"));
+        columns.put("status", column("enum"));
+
+        assertEquals("`tenant_id`, CAST(CONVERT(`code` USING utf8mb4) AS BINARY), "
+                     + "CAST(CONVERT(`status` USING utf8mb4) AS BINARY)",
+                     DataCompareService.keyOrderSql(Arrays.asList("tenant_id", "code", "status"), columns, columns));
+    }
+
+    // 两侧类型不同时只要一侧为字符类型就转换，两侧的查询使用同一个排序
+    @Test
+    void eitherSideCharacterTypeIsConverted() {
+        Map<String, ColumnInfo> source = new HashMap<>();
+        source.put("id", column("bigint"));
+        Map<String, ColumnInfo> target = new HashMap<>();
+        target.put("id", column("char"));
+
+        assertEquals("CAST(CONVERT(`id` USING utf8mb4) AS BINARY)",
+                     DataCompareService.keyOrderSql(Arrays.asList("id"), source, target));
+        assertEquals("`id`", DataCompareService.keyOrderSql(Arrays.asList("id"), source, source));
+    }
+
+    // 每个值带上字符数，分隔符出现在值中也不会让不同的行拼出同一个字符串
+    @Test
+    void rowChecksumPrefixesEachValueWithItsLength() {
+        ColumnInfo nullable = new ColumnInfo("varchar", 10, 0, true, null, "");
+        assertEquals("CRC32(CONCAT_WS('#', CHAR_LENGTH(`a`), `a`, CHAR_LENGTH(`b`), `b`, CONCAT(ISNULL(`b`))))",
+                     DataCompareService.rowChecksumSql(Arrays.asList("a", "b"),
+                                                       Arrays.asList(column("varchar"), nullable)));
+    }
+
+    private static ColumnInfo column(String type) {
+        return new ColumnInfo(type, 0, 0, false, null, "");
+    }
+}
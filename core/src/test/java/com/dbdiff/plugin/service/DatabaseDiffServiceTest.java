@@ -0,0 +1,47 @@
+package com.dbdiff.plugin.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DatabaseDiffServiceTest {
+
+    @Test
+    void likeWildcards() {
+        Pattern pattern = DatabaseDiffService.likeToRegex("tmp_%");
+        assertTrue(pattern.matcher("tmp_orders").matches());
+        assertTrue(pattern.matcher("tmpXorders").matches());
+        assertTrue(pattern.matcher("tmp_").matches());
+        assertFalse(pattern.matcher("orders_tmp").matches());
+
+        Pattern single = DatabaseDiffService.likeToRegex("log_20__");
+        assertTrue(single.matcher("log_2024").matches());
+        assertFalse(single.matcher("log_202").matches());
+    }
+
+    @Test
+    void escapedWildcardsMatchLiterally() {
+        Pattern pattern = DatabaseDiffService.likeToRegex("tmp\\_%");
+        assertTrue(pattern.matcher("tmp_orders").matches());
+        assertFalse(pattern.matcher("tmpXorders").matches());
+
+        assertTrue(DatabaseDiffService.likeToRegex("100\\%").matcher("100%").matches());
+        assertFalse(DatabaseDiffService.likeToRegex("100\\%").matcher("1000").matches());
+    }
+
+    // 表名中的正则元字符按字面匹配
+    @Test
+    void regexCharactersAreQuoted() {
+        Pattern pattern = DatabaseDiffService.likeToRegex("a.b$(c)%");
+        assertTrue(pattern.matcher("a.b$(c)_1").matches());
+        assertFalse(pattern.matcher("aXb$(c)").matches());
+    }
+
+    @Test
+    void matchingIgnoresCase() {
+        assertTrue(DatabaseDiffService.likeToRegex("Orders%").matcher("ORDERS_2024").matches());
+    }
+}
@@ -0,0 +1,162 @@
+package com.dbdiff.plugin.service;
+
+import com.dbdiff.plugin.model.ColumnDiff;
+import com.dbdiff.plugin.model.ColumnInfo;
+import com.dbdiff.plugin.model.IndexDiff;
+import com.dbdiff.plugin.model.TableDiff;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DiffReportWriterTest {
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void jsonReportShape() throws IOException {
+        StringWriter out = new StringWriter();
+        DiffReportWriter.writeJsonReport(out, Arrays.asList(modifiedTable(), addedTable()), "prod \"app\"", "staging");
+
+        Map<String, Object> report = (Map<String, Object>) parse(out.toString());
+        assertEquals(Arrays.asList("formatVersion", "sourceDatabase", "targetDatabase", "tables"),
+                     new ArrayList<>(report.keySet()));
+        assertEquals(1L, report.get("formatVersion"));
+        assertEquals("prod \"app\"", report.get("sourceDatabase"));
+
+        List<Object> tables = (List<Object>) report.get("tables");
+        assertEquals(2, tables.size());
+        Map<String, Object> orders = (Map<String, Object>) tables.get(0);
+        assertEquals(Arrays.asList("tableName", "diffType", "columns", "indexes", "foreignKeys", "referencedTables",
+                                   "createTableSql", "sourceStats", "targetStats"),
+                     new ArrayList<>(orders.keySet()));
+        assertEquals("orders", orders.get("tableName"));
+        assertEquals("MODIFIED", orders.get("diffType"));
+        assertEquals(Collections.singletonList("customer"), orders.get("referencedTables"));
+        assertNull(orders.get("createTableSql"));
+        assertNull(orders.get("sourceStats"));
+
+        Map<String, Object> column = (Map<String, Object>) ((List<Object>) orders.get("columns")).get(0);
+        assertEquals("amount", column.get("name"));
+        assertEquals("TYPE_CHANGED", column.get("diffType"));
+        assertEquals(new ColumnInfo("decimal", 10, 2, true, null, "").toString(), column.get("sourceType"));
+        assertEquals(new ColumnInfo("decimal", 12, 2, true, null, "").toString(), column.get("targetType"));
+
+        Map<String, Object> index = (Map<String, Object>) ((List<Object>) orders.get("indexes")).get(0);
+        assertEquals("idx_customer", index.get("name"));
+        assertEquals("ADDED", index.get("diffType"));
+        assertEquals(false, index.get("primaryKey"));
+
+        Map<String, Object> audit = (Map<String, Object>) tables.get(1);
+        assertEquals("CREATE TABLE `audit_log` (`id` bigint)", audit.get("createTableSql"));
+        assertEquals(Collections.emptyList(), audit.get("columns"));
+    }
+
+    // 每行一个完整的表对象，带格式版本和两侧库名，最后一行以换行结束
+    @Test
+    @SuppressWarnings("unchecked")
+    void ndjsonReportWritesOneObjectPerLine() throws IOException {
+        StringWriter out = new StringWriter();
+        DiffReportWriter.writeNdjsonReport(out, Arrays.asList(modifiedTable(), addedTable()), "prod", "staging");
+
+        String[] lines = out.toString().split("\n", -1);
+        assertEquals(3, lines.length);
+        assertEquals("", lines[2]);
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Map<String, Object> table = (Map<String, Object>) parse(lines[i]);
+            assertEquals(1L, table.get("formatVersion"));
+            assertEquals("prod", table.get("sourceDatabase"));
+            assertEquals("staging", table.get("targetDatabase"));
+            names.add((String) table.get("tableName"));
+        }
+        assertEquals(Arrays.asList("orders", "audit_log"), names);
+    }
+
+    @Test
+    void emptyNdjsonReportIsEmpty() throws IOException {
+        StringWriter out = new StringWriter();
+        DiffReportWriter.writeNdjsonReport(out, Collections.emptyList(), "prod", "staging");
+        assertEquals("", out.toString());
+    }
+
+    private static TableDiff modifiedTable() {
+        ColumnDiff column = new ColumnDiff();
+        column.setColumnName("amount");
+        column.setDiffType(ColumnDiff.DiffType.TYPE_CHANGED);
+        column.setSourceColumn(new ColumnInfo("decimal", 10, 2, true, null, ""));
+        column.setTargetColumn(new ColumnInfo("decimal", 12, 2, true, null, ""));
+
+        IndexDiff index = new IndexDiff();
+        index.setIndexName("idx_customer");
+        index.setDiffType(IndexDiff.DiffType.ADDED);
+        index.setSourceDefinition("KEY (customer_id)");
+
+        TableDiff diff = new TableDiff();
+        diff.setTableName("orders");
+        diff.setDiffType(TableDiff.DiffType.MODIFIED);
+        diff.setColumnDiffs(Collections.singletonList(column));
+        diff.setIndexDiffs(Collections.singletonList(index));
+        diff.setForeignKeyDiffs(Collections.emptyList());
+        diff.setReferencedTables(new TreeSet<>(Collections.singletonList("customer")));
+        return diff;
+    }
+
+    private static TableDiff addedTable() {
+        TableDiff diff = new TableDiff();
+        diff.setTableName("audit_log");
+        diff.setDiffType(TableDiff.DiffType.ADDED);
+        diff.setCreateTableSql("CREATE TABLE `audit_log` (`id` bigint)");
+        return diff;
+    }
+
+    private static Object parse(String json) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            Object value = readValue(parser, parser.nextToken());
+            assertNull(parser.nextToken());
+            return value;
+        }
+    }
+
+    private static Object readValue(JsonParser parser, JsonToken token) throws IOException {
+        switch (token) {
+            case START_OBJECT:
+                Map<String, Object> object = new LinkedHashMap<>();
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.getCurrentName();
+                    object.put(name, readValue(parser, parser.nextToken()));
+                }
+                return object;
+            case START_ARRAY:
+                List<Object> array = new ArrayList<>();
+                for (JsonToken next = parser.nextToken(); next != JsonToken.END_ARRAY; next = parser.nextToken()) {
+                    array.add(readValue(parser, next));
+                }
+                return array;
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+                return parser.getLongValue();
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return parser.getBooleanValue();
+            case VALUE_NULL:
+                return null;
+            default:
+                throw new IOException("Unexpected token " + token);
+        }
+    }
+}
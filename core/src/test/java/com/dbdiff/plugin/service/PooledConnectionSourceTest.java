@@ -0,0 +1,120 @@
+package com.dbdiff.plugin.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PooledConnectionSourceTest {
+    private final List<FakeConnection> created = new ArrayList<>();
+
+    @Test
+    void returnedConnectionIsReused() throws SQLException {
+        try (PooledConnectionSource source = new PooledConnectionSource(this::createFake, 2, 60_000)) {
+            source.create().close();
+            source.create().close();
+            assertEquals(1, created.size());
+            assertEquals(1, source.getIdleCount());
+        }
+    }
+
+    // 通过 Statement 和 ResultSet 拿到的连接仍是池化连接，关闭时归还而不是断开底层连接
+    @Test
+    void statementsDoNotExposeThePhysicalConnection() throws SQLException {
+        try (PooledConnectionSource source = new PooledConnectionSource(this::createFake, 2, 60_000)) {
+            Connection conn = source.create();
+            Statement stmt = conn.createStatement();
+            ResultSet rs = stmt.executeQuery("SELECT 1");
+            assertSame(conn, stmt.getConnection());
+            assertSame(conn, rs.getStatement().getConnection());
+
+            rs.getStatement().getConnection().close();
+            assertEquals(1, source.getIdleCount());
+            assertFalse(created.get(0).closed);
+        }
+    }
+
+    // Statement 上的连接类错误同样标记连接损坏，归还时直接关闭
+    @Test
+    void connectionErrorOnStatementDiscardsConnection() throws SQLException {
+        try (PooledConnectionSource source = new PooledConnectionSource(this::createFake, 2, 60_000)) {
+            Connection conn = source.create();
+            Statement stmt = conn.createStatement();
+            SQLException error = assertThrows(SQLException.class, () -> stmt.executeUpdate("BROKEN"));
+            assertEquals("08S01", error.getSQLState());
+            conn.close();
+
+            assertEquals(0, source.getIdleCount());
+            assertTrue(created.get(0).closed);
+            Connection next = source.create();
+            assertEquals(2, created.size());
+            assertNotSame(conn, next);
+            next.close();
+        }
+    }
+
+    private Connection createFake() {
+        FakeConnection fake = new FakeConnection();
+        created.add(fake);
+        return fake.connection;
+    }
+
+    private static class FakeConnection {
+        boolean closed;
+        final Connection connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+            new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "close":
+                        closed = true;
+                        return null;
+                    case "isClosed":
+                        return closed;
+                    case "isValid":
+                    case "getAutoCommit":
+                        return true;
+                    case "createStatement":
+                        return statement((Connection) proxy);
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    private static Statement statement(Connection conn) {
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+            new Class<?>[]{Statement.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getConnection":
+                        return conn;
+                    case "executeQuery":
+                        return resultSet((Statement) proxy);
+                    case "executeUpdate":
+                        throw new SQLException("Communications link failure", "08S01");
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+    }
+
+    private static ResultSet resultSet(Statement stmt) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+            new Class<?>[]{ResultSet.class}, (proxy, method, args) -> {
+                if ("getStatement".equals(method.getName())) {
+                    return stmt;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            });
+    }
+}
@@ -0,0 +1,120 @@
+package com.dbdiff.plugin.service;
+
+import com.dbdiff.plugin.model.RowDiff;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RowStreamDifferTest {
+    private static final List<String> COLUMNS = Collections.singletonList("value");
+
+    // 字符串按码点比较，大写字母排在小写之前，带重音的字符排在所有 ASCII 字符之后
+    @Test
+    void stringKeysCompareByCodePoint() {
+        assertTrue(compare("B", "a") < 0);
+        assertTrue(compare("a", "b") < 0);
+        assertTrue(compare("z", "é") < 0);
+        assertTrue(compare("é", "f") > 0);
+        assertTrue(compare("a", "a ") < 0);
+        assertEquals(0, compare("Ä", "Ä"));
+    }
+
+    @Test
+    void supplementaryCharactersFollowUtf8ByteOrder() {
+        // U+1F600 在 UTF-16 中以 0xD83D 开头，按编码单元比较会排在 U+FFFD 之前
+        assertTrue("\uD83D\uDE00".compareTo("\uFFFD") < 0);
+        assertTrue(compare("\uD83D\uDE00", "\uFFFD") > 0);
+    }
+
+    @Test
+    void compositeKeysCompareColumnByColumn() {
+        assertTrue(RowStreamDiffer.compareKeys(new Object[]{1, "b"}, new Object[]{2L, "a"}) < 0);
+        assertTrue(RowStreamDiffer.compareKeys(new Object[]{2, "b"}, new Object[]{2L, "a"}) > 0);
+        assertEquals(0, RowStreamDiffer.compareKeys(new Object[]{new BigDecimal("2.0"), "a"}, new Object[]{2, "a"}));
+        assertTrue(RowStreamDiffer.compareKeys(new Object[]{null, "a"}, new Object[]{1, "a"}) < 0);
+        assertTrue(RowStreamDiffer.compareKeys(new Object[]{new byte[]{(byte) 0x80}}, new Object[]{new byte[]{1}}) > 0);
+    }
+
+    // _bin 排序下源库 ['B', 'a']、目标库 ['a']，只有 B 是差异
+    @Test
+    void mixedCaseKeysDoNotProduceSpuriousDiffs() throws Exception {
+        List<RowDiff> diffs = diff(rows("B", "a"), rows("a"));
+        assertEquals(Collections.singletonList("REMOVED B"), describe(diffs));
+    }
+
+    @Test
+    void accentedKeysDoNotProduceSpuriousDiffs() throws Exception {
+        List<RowDiff> diffs = diff(rows("e", "z", "é", "ö"), rows("E", "e", "é", "ö"));
+        assertEquals(Arrays.asList("ADDED E", "REMOVED z"), describe(diffs));
+    }
+
+    @Test
+    void changedValuesAreReportedOnce() throws Exception {
+        List<Object[]> source = rows("a", "b", "c");
+        List<Object[]> target = rows("a", "b", "c");
+        target.get(1)[1] = "changed";
+        List<RowDiff> diffs = diff(source, target);
+
+        assertEquals(Collections.singletonList("CHANGED b"), describe(diffs));
+        assertEquals(COLUMNS, diffs.get(0).getChangedColumns());
+    }
+
+    private static int compare(String a, String b) {
+        return RowStreamDiffer.compareValues(a, b);
+    }
+
+    // 每行为 {主键, 值}，值与主键相同
+    private static List<Object[]> rows(String... keys) {
+        List<Object[]> rows = new ArrayList<>();
+        for (String key : keys) {
+            rows.add(new Object[]{key, key});
+        }
+        return rows;
+    }
+
+    private static List<RowDiff> diff(List<Object[]> source, List<Object[]> target) throws Exception {
+        List<RowDiff> diffs = new ArrayList<>();
+        new RowStreamDiffer(new CancellationHandle()).diff(new ListRows(source), new ListRows(target), COLUMNS,
+                                                           diffs::add);
+        return diffs;
+    }
+
+    private static List<String> describe(List<RowDiff> diffs) {
+        List<String> described = new ArrayList<>();
+        for (RowDiff diff : diffs) {
+            described.add(diff.getDiffType() + " " + String.join(",", diff.getPrimaryKey()));
+        }
+        return described;
+    }
+
+    private static class ListRows implements RowStreamDiffer.Rows {
+        private final List<Object[]> rows;
+        private int index = -1;
+
+        ListRows(List<Object[]> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean next() {
+            return ++index < rows.size();
+        }
+
+        @Override
+        public Object[] key() {
+            return new Object[]{rows.get(index)[0]};
+        }
+
+        @Override
+        public Object[] values() {
+            return new Object[]{rows.get(index)[1]};
+        }
+    }
+}
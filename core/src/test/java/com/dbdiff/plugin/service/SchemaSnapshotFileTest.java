@@ -0,0 +1,132 @@
+package com.dbdiff.plugin.service;
+
+import com.dbdiff.plugin.model.ColumnInfo;
+import com.dbdiff.plugin.model.ForeignKeyInfo;
+import com.dbdiff.plugin.model.IndexInfo;
+import com.dbdiff.plugin.model.SchemaSnapshot;
+import com.dbdiff.plugin.model.TableSnapshot;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaSnapshotFileTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTrip() throws IOException {
+        SchemaSnapshot snapshot = snapshot();
+        Path file = dir.resolve("app.snapshot");
+        SchemaSnapshotFile.write(snapshot, file);
+        SchemaSnapshot read = SchemaSnapshotFile.read(file);
+
+        assertEquals("app", read.getCatalog());
+        assertEquals(snapshot.getCapturedAt(), read.getCapturedAt());
+        assertEquals(Arrays.asList("customer", "orders"), new ArrayList<>(read.getTables().keySet()));
+
+        TableSnapshot orders = read.getTables().get("orders");
+        TableSnapshot expected = snapshot.getTables().get("orders");
+        assertEquals(expected.getCreateTableSql(), orders.getCreateTableSql());
+        assertEquals(new ArrayList<>(expected.getColumns().entrySet()), new ArrayList<>(orders.getColumns().entrySet()));
+        assertEquals(expected.getIndexes(), orders.getIndexes());
+        assertEquals(expected.getForeignKeys(), orders.getForeignKeys());
+        assertNull(read.getTables().get("customer").getCreateTableSql());
+
+        assertTrue(new DatabaseDiffService().compareSnapshots(snapshot, read).isEmpty());
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Path file = dir.resolve("other.txt");
+        Files.write(file, "not a snapshot".getBytes());
+        assertThrows(IOException.class, () -> SchemaSnapshotFile.read(file));
+    }
+
+    @Test
+    void rejectsTruncatedFile() throws IOException {
+        Path file = dir.resolve("app.snapshot");
+        SchemaSnapshotFile.write(snapshot(), file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 10));
+        assertThrows(IOException.class, () -> SchemaSnapshotFile.read(file));
+    }
+
+    // 损坏的长度或数量不能导致按该值分配内存，应报告为文件损坏
+    @Test
+    void rejectsOversizedLengthsAndCounts() throws IOException {
+        Path file = dir.resolve("app.snapshot");
+        SchemaSnapshotFile.write(snapshot(), file);
+        byte[] bytes = Files.readAllBytes(file);
+
+        // 魔数、版本号之后是库名 "app" 的长度
+        byte[] badString = bytes.clone();
+        ByteBuffer.wrap(badString).putInt(8, Integer.MAX_VALUE);
+        Files.write(file, badString);
+        assertThrows(IOException.class, () -> SchemaSnapshotFile.read(file));
+
+        // 库名和采集时间之后是表的数量
+        byte[] badCount = bytes.clone();
+        ByteBuffer.wrap(badCount).putInt(8 + 4 + 3 + 8, Integer.MAX_VALUE);
+        Files.write(file, badCount);
+        assertThrows(IOException.class, () -> SchemaSnapshotFile.read(file));
+
+        byte[] negativeCount = bytes.clone();
+        ByteBuffer.wrap(negativeCount).putInt(8 + 4 + 3 + 8, -5);
+        Files.write(file, negativeCount);
+        assertThrows(IOException.class, () -> SchemaSnapshotFile.read(file));
+    }
+
+    private static SchemaSnapshot snapshot() {
+        TableSnapshot customer = new TableSnapshot();
+        customer.setTableName("customer");
+        customer.getColumns().put("id", new ColumnInfo("bigint unsigned", 0, 0, false, null, ""));
+        customer.getIndexes().put(IndexInfo.PRIMARY_KEY_NAME, index(IndexInfo.PRIMARY_KEY_NAME, true, "id"));
+
+        TableSnapshot orders = new TableSnapshot();
+        orders.setTableName("orders");
+        orders.setCreateTableSql("CREATE TABLE `orders` (\n  `id` bigint NOT NULL\n) COMMENT='订单'");
+        orders.getColumns().put("id", new ColumnInfo("bigint", 0, 0, false, null, ""));
+        orders.getColumns().put("customer_id", new ColumnInfo("bigint unsigned", 0, 0, true, null, "客户"));
+        orders.getColumns().put("amount", new ColumnInfo("decimal", 12, 2, false, "0.00", ""));
+        orders.getColumns().put("note", new ColumnInfo("varchar", 255, 0, true, "", "备注 ✓"));
+        orders.getIndexes().put(IndexInfo.PRIMARY_KEY_NAME, index(IndexInfo.PRIMARY_KEY_NAME, true, "id"));
+        orders.getIndexes().put("idx_customer", index("idx_customer", false, "customer_id", "amount"));
+
+        ForeignKeyInfo foreignKey = new ForeignKeyInfo();
+        foreignKey.setName("fk_orders_customer");
+        foreignKey.setColumns(Collections.singletonList("customer_id"));
+        foreignKey.setReferencedTable("customer");
+        foreignKey.setReferencedColumns(Collections.singletonList("id"));
+        foreignKey.setUpdateRule("CASCADE");
+        foreignKey.setDeleteRule("SET NULL");
+        orders.getForeignKeys().put(foreignKey.getName(), foreignKey);
+
+        SchemaSnapshot snapshot = new SchemaSnapshot();
+        snapshot.setCatalog("app");
+        snapshot.setCapturedAt(1_700_000_000_000L);
+        snapshot.getTables().put(customer.getTableName(), customer);
+        snapshot.getTables().put(orders.getTableName(), orders);
+        return snapshot;
+    }
+
+    private static IndexInfo index(String name, boolean unique, String... columns) {
+        IndexInfo index = new IndexInfo();
+        index.setName(name);
+        index.setUnique(unique);
+        index.setIndexType("BTREE");
+        index.setColumns(Arrays.asList(columns));
+        return index;
+    }
+}
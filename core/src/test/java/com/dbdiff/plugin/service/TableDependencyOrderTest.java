@@ -0,0 +1,90 @@
+package com.dbdiff.plugin.service;
+
+import com.dbdiff.plugin.model.TableDiff;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TableDependencyOrderTest {
+
+    @Test
+    void referencedTablesComeFirst() {
+        TableDependencyOrder order = TableDependencyOrder.of(Arrays.asList(
+            table("order_item", "orders", "product"),
+            table("orders", "customer"),
+            table("product"),
+            table("customer")));
+
+        assertEquals(Arrays.asList("customer", "orders", "product", "order_item"), names(order));
+        assertFalse(order.isCyclic());
+    }
+
+    // 自引用（如 parent_id 指向本表）不影响排序，也不算循环
+    @Test
+    void selfReferenceIsIgnored() {
+        TableDependencyOrder order = TableDependencyOrder.of(Arrays.asList(
+            table("category", "category"),
+            table("item", "category")));
+
+        assertEquals(Arrays.asList("category", "item"), names(order));
+        assertFalse(order.isCyclic());
+    }
+
+    // 引用未参与排序的表时只按参与排序的表计算依赖
+    @Test
+    void referencesOutsideTheSetAreIgnored() {
+        TableDependencyOrder order = TableDependencyOrder.of(Arrays.asList(
+            table("b", "unchanged"),
+            table("a", "b")));
+
+        assertEquals(Arrays.asList("b", "a"), names(order));
+        assertFalse(order.isCyclic());
+    }
+
+    // 循环中的表以及依赖它们的表按表名追加在末尾，其余表仍按依赖排序
+    @Test
+    void cycleIsAppendedByName() {
+        TableDependencyOrder order = TableDependencyOrder.of(Arrays.asList(
+            table("z_child", "x_cycle"),
+            table("x_cycle", "y_cycle", "base"),
+            table("y_cycle", "x_cycle"),
+            table("base")));
+
+        assertTrue(order.isCyclic());
+        assertEquals(Arrays.asList("base", "x_cycle", "y_cycle", "z_child"), names(order));
+    }
+
+    @Test
+    void orderDoesNotDependOnInputOrder() {
+        List<TableDiff> tables = Arrays.asList(table("c", "a"), table("b", "a"), table("a"), table("d"));
+        List<TableDiff> reversed = new ArrayList<>(tables);
+        Collections.reverse(reversed);
+
+        assertEquals(names(TableDependencyOrder.of(tables)), names(TableDependencyOrder.of(reversed)));
+        assertEquals(Arrays.asList("a", "b", "c", "d"), names(TableDependencyOrder.of(tables)));
+    }
+
+    private static TableDiff table(String name, String... referenced) {
+        TableDiff diff = new TableDiff();
+        diff.setTableName(name);
+        diff.setDiffType(TableDiff.DiffType.ADDED);
+        diff.setReferencedTables(new TreeSet<>(Arrays.asList(referenced)));
+        return diff;
+    }
+
+    private static List<String> names(TableDependencyOrder order) {
+        List<String> names = new ArrayList<>();
+        for (TableDiff diff : order.getTables()) {
+            names.add(diff.getTableName());
+        }
+        return names;
+    }
+}
@@ -5,4 +5,8 @@ pluginManagement {
     }
 }
 
-rootProject.name = "database-compare-tool"
\ No newline at end of file
+rootProject.name = "database-compare-tool"
+
+// core: 与 IDE 无关的对比核心，插件和命令行工具共用
+// cli: 命令行工具，不依赖 IDE，打包为独立 jar
+include("core", "cli")
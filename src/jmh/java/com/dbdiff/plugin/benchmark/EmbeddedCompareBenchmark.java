@@ -0,0 +1,63 @@
+package com.dbdiff.plugin.benchmark;
+
+import com.dbdiff.plugin.model.TableDiff;
+import com.dbdiff.plugin.service.DatabaseDiffService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 通过 JDBC 对内嵌 H2 执行完整对比，衡量元数据读取在内的端到端耗时
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EmbeddedCompareBenchmark {
+    private static final String SOURCE_DB = "bench_source";
+    private static final String TARGET_DB = "bench_target";
+
+    @Param({"100", "1000", "10000"})
+    public int tables;
+
+    @Param({"20"})
+    public int columns;
+
+    @Param({"0.1"})
+    public double drift;
+
+    private Connection source;
+    private Connection target;
+    private DatabaseDiffService diffService;
+
+    @Setup
+    public void setUp() throws SQLException {
+        SyntheticSchemas schemas = SyntheticSchemas.generate(tables, columns, drift);
+        EmbeddedDatabases.create(SOURCE_DB, schemas.getSource());
+        EmbeddedDatabases.create(TARGET_DB, schemas.getTarget());
+        source = EmbeddedDatabases.open(SOURCE_DB);
+        target = EmbeddedDatabases.open(TARGET_DB);
+        diffService = new DatabaseDiffService(EmbeddedCompareHarness.harnessOptions(1));
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        source.close();
+        target.close();
+        EmbeddedDatabases.drop(SOURCE_DB);
+        EmbeddedDatabases.drop(TARGET_DB);
+    }
+
+    @Benchmark
+    public List<TableDiff> compareDatabase() {
+        return diffService.compareDatabase(source, target);
+    }
+}
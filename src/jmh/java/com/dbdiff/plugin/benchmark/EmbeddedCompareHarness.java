@@ -0,0 +1,116 @@
+package com.dbdiff.plugin.benchmark;
+
+import com.dbdiff.plugin.model.TableDiff;
+import com.dbdiff.plugin.service.CompareOptions;
+import com.dbdiff.plugin.service.ConnectionPool;
+import com.dbdiff.plugin.service.DatabaseDiffService;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+// 在内嵌 H2 上端到端执行 compareDatabase，输出耗时、元数据查询次数和堆内存峰值
+// 用法: ./gradlew embeddedCompare -Ptables=100,1000,10000 -Pcolumns=20 -Pdrift=0.1 -Pparallelism=1
+// H2 没有 MySQL 的 information_schema 字段和 SHOW CREATE TABLE，因此使用 JDBC 元数据方式并延迟加载建表语句
+public class EmbeddedCompareHarness {
+    private static final String SOURCE_DB = "harness_source";
+    private static final String TARGET_DB = "harness_target";
+
+    public static void main(String[] args) throws Exception {
+        String[] tableCounts = (args.length > 0 ? args[0] : "100,1000,10000").split(",");
+        int columns = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        double drift = args.length > 2 ? Double.parseDouble(args[2]) : 0.1;
+        int parallelism = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+
+        System.out.printf("%8s %8s %8s %10s %12s %14s%n",
+                          "tables", "columns", "diffs", "wall(ms)", "roundTrips", "peakHeap(MB)");
+        for (String tableCount : tableCounts) {
+            int tables = Integer.parseInt(tableCount.trim());
+            Result result = run(tables, columns, drift, parallelism);
+            System.out.printf("%8d %8d %8d %10d %12d %14.1f%n",
+                              tables, columns, result.diffs, result.wallMillis, result.roundTrips,
+                              result.peakHeapBytes / (1024.0 * 1024.0));
+        }
+    }
+
+    public static Result run(int tables, int columns, double drift, int parallelism) throws SQLException {
+        SyntheticSchemas schemas = SyntheticSchemas.generate(tables, columns, drift);
+        EmbeddedDatabases.create(SOURCE_DB, schemas.getSource());
+        EmbeddedDatabases.create(TARGET_DB, schemas.getTarget());
+        // 建库用到的快照不再需要，避免计入对比过程的内存峰值
+        schemas = null;
+
+        try {
+            DatabaseDiffService diffService = new DatabaseDiffService(harnessOptions(parallelism));
+            RoundTripCounter counter = new RoundTripCounter();
+
+            System.gc();
+            resetPeakHeap();
+            long start = System.nanoTime();
+            List<TableDiff> diffs;
+            if (parallelism > 1) {
+                try (ConnectionPool sourcePool = new ConnectionPool(
+                         () -> counter.wrap(EmbeddedDatabases.open(SOURCE_DB)), parallelism);
+                     ConnectionPool targetPool = new ConnectionPool(
+                         () -> counter.wrap(EmbeddedDatabases.open(TARGET_DB)), parallelism)) {
+                    diffs = diffService.compareDatabase(sourcePool, targetPool);
+                }
+            } else {
+                try (Connection source = counter.wrap(EmbeddedDatabases.open(SOURCE_DB));
+                     Connection target = counter.wrap(EmbeddedDatabases.open(TARGET_DB))) {
+                    diffs = diffService.compareDatabase(source, target);
+                }
+            }
+            long wallMillis = (System.nanoTime() - start) / 1_000_000;
+
+            return new Result(diffs.size(), wallMillis, counter.getRoundTrips(), peakHeap());
+        } finally {
+            EmbeddedDatabases.drop(SOURCE_DB);
+            EmbeddedDatabases.drop(TARGET_DB);
+        }
+    }
+
+    static CompareOptions harnessOptions(int parallelism) {
+        CompareOptions options = new CompareOptions();
+        options.setUseInformationSchema(false);
+        options.setLazyCreateTableSql(true);
+        options.setParallelism(parallelism);
+        return options;
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    // 各堆内存池峰值之和，峰值不一定同时出现，因此是上界；H2 内存库本身也在堆中，对比时占用基本不变
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
+    public static class Result {
+        final int diffs;
+        final long wallMillis;
+        final long roundTrips;
+        final long peakHeapBytes;
+
+        Result(int diffs, long wallMillis, long roundTrips, long peakHeapBytes) {
+            this.diffs = diffs;
+            this.wallMillis = wallMillis;
+            this.roundTrips = roundTrips;
+            this.peakHeapBytes = peakHeapBytes;
+        }
+    }
+}
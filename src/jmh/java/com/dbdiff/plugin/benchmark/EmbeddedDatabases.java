@@ -0,0 +1,91 @@
+package com.dbdiff.plugin.benchmark;
+
+import com.dbdiff.plugin.model.ColumnInfo;
+import com.dbdiff.plugin.model.IndexInfo;
+import com.dbdiff.plugin.model.SchemaSnapshot;
+import com.dbdiff.plugin.model.TableSnapshot;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+// 在进程内的 H2（MySQL 兼容模式）中按快照建表，库在最后一个连接关闭后仍保留，供连接池中的多个连接共享
+public class EmbeddedDatabases {
+    private static final int DDL_BATCH_SIZE = 200;
+
+    public static String url(String database) {
+        return "jdbc:h2:mem:" + database + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    }
+
+    public static Connection open(String database) throws SQLException {
+        return DriverManager.getConnection(url(database), "sa", "");
+    }
+
+    public static void create(String database, SchemaSnapshot snapshot) throws SQLException {
+        try (Connection conn = open(database);
+             Statement stmt = conn.createStatement()) {
+            int pending = 0;
+            for (TableSnapshot table : snapshot.getTables().values()) {
+                stmt.addBatch(createTableSql(table));
+                for (IndexInfo index : table.getIndexes().values()) {
+                    if (!index.isPrimaryKey()) {
+                        stmt.addBatch("CREATE " + (index.isUnique() ? "UNIQUE " : "") + "INDEX `" + index.getName() +
+                                      "` ON `" + table.getTableName() + "` (`" +
+                                      String.join("`, `", index.getColumns()) + "`)");
+                    }
+                }
+                if (++pending >= DDL_BATCH_SIZE) {
+                    stmt.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                stmt.executeBatch();
+            }
+        }
+    }
+
+    public static void drop(String database) throws SQLException {
+        try (Connection conn = open(database);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+    }
+
+    private static String createTableSql(TableSnapshot table) {
+        StringBuilder sql = new StringBuilder("CREATE TABLE `").append(table.getTableName()).append("` (");
+        boolean first = true;
+        for (Map.Entry<String, ColumnInfo> entry : table.getColumns().entrySet()) {
+            ColumnInfo column = entry.getValue();
+            if (!first) {
+                sql.append(", ");
+            }
+            first = false;
+            sql.append('`').append(entry.getKey()).append("` ").append(columnType(column));
+            if (!column.isNullable()) {
+                sql.append(" NOT NULL");
+            }
+            if (column.getDefaultValue() != null) {
+                sql.append(" DEFAULT ").append(column.getDefaultValue());
+            }
+        }
+        IndexInfo primaryKey = table.getIndexes().get(IndexInfo.PRIMARY_KEY_NAME);
+        if (primaryKey != null) {
+            sql.append(", PRIMARY KEY (`").append(String.join("`, `", primaryKey.getColumns())).append("`)");
+        }
+        return sql.append(")").toString();
+    }
+
+    private static String columnType(ColumnInfo column) {
+        switch (column.getType()) {
+            case "VARCHAR":
+                return "VARCHAR(" + column.getSize() + ")";
+            case "DECIMAL":
+                return "DECIMAL(12," + column.getDecimal() + ")";
+            default:
+                return column.getType();
+        }
+    }
+}
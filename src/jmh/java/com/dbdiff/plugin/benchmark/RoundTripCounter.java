@@ -0,0 +1,50 @@
+package com.dbdiff.plugin.benchmark;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 用动态代理包装连接，统计发往数据库的查询次数：Statement 的 execute* 调用和 DatabaseMetaData 返回结果集的调用
+public class RoundTripCounter {
+    private final AtomicLong roundTrips = new AtomicLong();
+
+    public Connection wrap(Connection conn) {
+        return proxy(Connection.class, conn);
+    }
+
+    public long getRoundTrips() {
+        return roundTrips.get();
+    }
+
+    public void reset() {
+        roundTrips.set(0);
+    }
+
+    private <T> T proxy(Class<T> type, Object target) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (target instanceof Statement && method.getName().startsWith("execute")) {
+                roundTrips.incrementAndGet();
+            } else if (target instanceof DatabaseMetaData && result instanceof ResultSet) {
+                roundTrips.incrementAndGet();
+            }
+
+            // 连接创建的语句和元数据对象同样需要包装，才能统计到其上的查询
+            Class<?> returnType = method.getReturnType();
+            if (result != null && target instanceof Connection
+                    && (Statement.class.isAssignableFrom(returnType) || returnType == DatabaseMetaData.class)) {
+                return proxy(returnType, result);
+            }
+            return result;
+        }));
+    }
+}
@@ -0,0 +1,43 @@
+package com.dbdiff.plugin.benchmark;
+
+import com.dbdiff.plugin.model.TableDiff;
+import com.dbdiff.plugin.service.DatabaseDiffService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 两份快照之间的差异计算，不经过 JDBC，只衡量 compareColumns 等内存中的对比逻辑
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SchemaCompareBenchmark {
+    // 表数 x 每表字段数，覆盖少表多字段和多表少字段两个方向
+    @Param({"10x5", "10x500", "1000x50", "10000x20", "50000x5"})
+    public String shape;
+
+    // 目标侧发生变化的表所占比例
+    @Param({"0.05", "0.5"})
+    public double drift;
+
+    private SyntheticSchemas schemas;
+    private DatabaseDiffService diffService;
+
+    @Setup
+    public void setUp() {
+        schemas = SyntheticSchemas.generate(shape, drift);
+        diffService = new DatabaseDiffService();
+    }
+
+    @Benchmark
+    public List<TableDiff> compareSnapshots() {
+        return diffService.compareSnapshots(schemas.getSource(), schemas.getTarget());
+    }
+}
@@ -0,0 +1,76 @@
+package com.dbdiff.plugin.benchmark;
+
+import com.dbdiff.plugin.model.TableDiff;
+import com.dbdiff.plugin.service.DatabaseDiffService;
+import com.dbdiff.plugin.service.DiffReportWriter;
+import com.dbdiff.plugin.service.SqlScriptGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 同步脚本生成和 HTML/CSV 报告导出，报告写入空 Writer，只衡量格式化本身的耗时和分配
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ScriptExportBenchmark {
+    @Param({"10x500", "1000x50", "10000x20", "50000x5"})
+    public String shape;
+
+    @Param({"0.5"})
+    public double drift;
+
+    private List<TableDiff> diffs;
+
+    @Setup
+    public void setUp() {
+        SyntheticSchemas schemas = SyntheticSchemas.generate(shape, drift);
+        diffs = new DatabaseDiffService().compareSnapshots(schemas.getSource(), schemas.getTarget());
+    }
+
+    @Benchmark
+    public void generateScripts(Blackhole blackhole) {
+        SqlScriptGenerator.Scripts scripts = SqlScriptGenerator.generate(diffs);
+        blackhole.consume(scripts.getSourceScript());
+        blackhole.consume(scripts.getTargetScript());
+    }
+
+    @Benchmark
+    public void generateAlterTableSql(Blackhole blackhole) {
+        for (TableDiff diff : diffs) {
+            if (diff.getDiffType() == TableDiff.DiffType.MODIFIED) {
+                blackhole.consume(SqlScriptGenerator.generateAlterTableSql(diff));
+            }
+        }
+    }
+
+    @Benchmark
+    public void exportHtml() throws IOException {
+        DiffReportWriter.writeHtmlReport(Writer.nullWriter(), diffs, "bench_source", "bench_target");
+    }
+
+    @Benchmark
+    public void exportCsv() throws IOException {
+        DiffReportWriter.writeCsvReport(Writer.nullWriter(), diffs);
+    }
+
+    @Benchmark
+    public void exportJson() throws IOException {
+        DiffReportWriter.writeJsonReport(Writer.nullWriter(), diffs, "bench_source", "bench_target");
+    }
+
+    @Benchmark
+    public void exportNdjson() throws IOException {
+        DiffReportWriter.writeNdjsonReport(Writer.nullWriter(), diffs, "bench_source", "bench_target");
+    }
+}
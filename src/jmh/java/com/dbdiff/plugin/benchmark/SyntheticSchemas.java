@@ -0,0 +1,148 @@
+package com.dbdiff.plugin.benchmark;
+
+import com.dbdiff.plugin.model.ColumnInfo;
+import com.dbdiff.plugin.model.IndexInfo;
+import com.dbdiff.plugin.model.SchemaSnapshot;
+import com.dbdiff.plugin.model.TableSnapshot;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+// 生成结构相近的两份快照，按比例在目标侧制造差异；种子固定，保证不同提交间的结果可比
+public class SyntheticSchemas {
+    private static final String[] TYPES = {"INT", "BIGINT", "VARCHAR", "DECIMAL", "DATETIME", "TEXT", "TINYINT"};
+    private static final long SEED = 20241116L;
+
+    private final SchemaSnapshot source;
+    private final SchemaSnapshot target;
+
+    private SyntheticSchemas(SchemaSnapshot source, SchemaSnapshot target) {
+        this.source = source;
+        this.target = target;
+    }
+
+    public SchemaSnapshot getSource() {
+        return source;
+    }
+
+    public SchemaSnapshot getTarget() {
+        return target;
+    }
+
+    // 形如 "1000x50"：1000 张表，每张表 50 个字段
+    public static SyntheticSchemas generate(String shape, double driftRatio) {
+        String[] parts = shape.split("x");
+        return generate(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), driftRatio);
+    }
+
+    public static SyntheticSchemas generate(int tableCount, int columnCount, double driftRatio) {
+        Random random = new Random(SEED);
+        SchemaSnapshot source = newSnapshot("bench_source");
+        SchemaSnapshot target = newSnapshot("bench_target");
+
+        for (int t = 0; t < tableCount; t++) {
+            String tableName = String.format("table_%06d", t);
+            TableSnapshot sourceTable = newTable(tableName, columnCount, random);
+            TableSnapshot targetTable = copyOf(sourceTable);
+
+            if (random.nextDouble() < driftRatio) {
+                // 差异表中一部分只存在于一侧，其余修改字段
+                int kind = random.nextInt(5);
+                if (kind == 0) {
+                    source.getTables().put(tableName, sourceTable);
+                    continue;
+                }
+                if (kind == 1) {
+                    target.getTables().put(tableName, targetTable);
+                    continue;
+                }
+                driftColumns(targetTable, random);
+            }
+            source.getTables().put(tableName, sourceTable);
+            target.getTables().put(tableName, targetTable);
+        }
+        return new SyntheticSchemas(source, target);
+    }
+
+    private static SchemaSnapshot newSnapshot(String catalog) {
+        SchemaSnapshot snapshot = new SchemaSnapshot();
+        snapshot.setCatalog(catalog);
+        snapshot.setCapturedAt(0L);
+        return snapshot;
+    }
+
+    private static TableSnapshot newTable(String tableName, int columnCount, Random random) {
+        TableSnapshot table = new TableSnapshot();
+        table.setTableName(tableName);
+        StringBuilder ddl = new StringBuilder("CREATE TABLE `").append(tableName).append("` (\n");
+        for (int c = 0; c < columnCount; c++) {
+            String columnName = c == 0 ? "id" : "col_" + c;
+            ColumnInfo column = newColumn(random);
+            table.getColumns().put(columnName, column);
+            ddl.append("  `").append(columnName).append("` ").append(column).append(",\n");
+        }
+        ddl.append("  PRIMARY KEY (`id`)\n) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4");
+        table.getIndexes().put(IndexInfo.PRIMARY_KEY_NAME, newIndex(IndexInfo.PRIMARY_KEY_NAME, true, "id"));
+        table.setCreateTableSql(ddl.toString());
+        return table;
+    }
+
+    private static IndexInfo newIndex(String name, boolean unique, String... columns) {
+        IndexInfo index = new IndexInfo();
+        index.setName(name);
+        index.setUnique(unique);
+        index.setIndexType("BTREE");
+        index.getColumns().addAll(Arrays.asList(columns));
+        return index;
+    }
+
+    private static ColumnInfo newColumn(Random random) {
+        String type = TYPES[random.nextInt(TYPES.length)];
+        int size = "VARCHAR".equals(type) ? 32 + random.nextInt(224) : 0;
+        int decimal = "DECIMAL".equals(type) ? 2 : 0;
+        boolean nullable = random.nextBoolean();
+        // 只给数值类型设置默认值，保证生成的结构在内嵌数据库中也能建表
+        boolean numeric = !"VARCHAR".equals(type) && !"DATETIME".equals(type) && !"TEXT".equals(type);
+        String defaultValue = numeric && random.nextInt(4) == 0 ? "0" : null;
+        return new ColumnInfo(type, size, decimal, nullable, defaultValue, "synthetic column");
+    }
+
+    private static TableSnapshot copyOf(TableSnapshot table) {
+        TableSnapshot copy = new TableSnapshot();
+        copy.setTableName(table.getTableName());
+        copy.setCreateTableSql(table.getCreateTableSql());
+        // 字段定义不可变，两侧直接共用
+        copy.getColumns().putAll(table.getColumns());
+        for (IndexInfo index : table.getIndexes().values()) {
+            copy.getIndexes().put(index.getName(),
+                                  newIndex(index.getName(), index.isUnique(), index.getColumns().toArray(new String[0])));
+        }
+        return copy;
+    }
+
+    // 目标侧：新增一个字段及其索引、删除一个字段、修改一个字段的类型
+    private static void driftColumns(TableSnapshot table, Random random) {
+        table.getColumns().put("drift_added", newColumn(random));
+        // H2 的索引名在整个库内唯一，带上表名
+        String indexName = "idx_" + table.getTableName() + "_drift_added";
+        table.getIndexes().put(indexName, newIndex(indexName, false, "drift_added"));
+
+        Iterator<String> names = table.getColumns().keySet().iterator();
+        names.next();
+        if (table.getColumns().size() > 3 && names.hasNext()) {
+            names.next();
+            names.remove();
+        }
+        for (Map.Entry<String, ColumnInfo> entry : table.getColumns().entrySet()) {
+            if (!"id".equals(entry.getKey())) {
+                ColumnInfo column = entry.getValue();
+                String type = "BIGINT".equals(column.getType()) ? "INT" : "BIGINT";
+                entry.setValue(new ColumnInfo(type, column.getSize(), column.getDecimal(), column.isNullable(),
+                                              column.getDefaultValue(), column.getComment()));
+                break;
+            }
+        }
+    }
+}
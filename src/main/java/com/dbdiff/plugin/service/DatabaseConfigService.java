@@ -36,6 +36,15 @@ public class DatabaseConfigService implements PersistentStateComponent<DatabaseC
         public List<String> savedConnections = new ArrayList<>();
         @NotNull
         public Map<String, ConnectionInfo> connectionDetails = new HashMap<>();
+        public boolean useInformationSchema = true;
+        public int parallelism = 4;
+        public String tableIncludePattern = "";
+        public String tableExcludePattern = "";
+        public boolean lazyCreateTableSql = false;
+        public boolean compareTableStats = false;
+        public int dataCompareConcurrency = 2;
+        public boolean htmlReportPerTable = false;
+        public boolean useIdeModel = true;
     }
 
     public static class ConnectionInfo {
@@ -83,4 +92,16 @@ public class DatabaseConfigService implements PersistentStateComponent<DatabaseC
     public List<String> getSavedConnections() {
         return new ArrayList<>(myState.savedConnections);
     }
+
+    public CompareOptions getCompareOptions() {
+        CompareOptions options = new CompareOptions();
+        options.setUseInformationSchema(myState.useInformationSchema);
+        options.setParallelism(myState.parallelism);
+        options.setTableIncludePattern(myState.tableIncludePattern);
+        options.setTableExcludePattern(myState.tableExcludePattern);
+        options.setLazyCreateTableSql(myState.lazyCreateTableSql);
+        options.setCompareTableStats(myState.compareTableStats);
+        options.setDataCompareConcurrency(myState.dataCompareConcurrency);
+        return options;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,98 @@
+package com.dbdiff.plugin.service;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.project.Project;
+import com.intellij.util.concurrency.AppExecutorUtil;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+// 项目级连接复用：同一地址和账号的连接在多次对比、测试连接之间保持，省去每次 TLS 握手和认证
+public class DatabaseConnectionService implements Disposable {
+    // 每个地址最多保留的空闲连接数，与并行度上限一致
+    private static final int MAX_IDLE_CONNECTIONS = 16;
+    private static final long IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final long EVICTION_INTERVAL_SECONDS = 30;
+
+    private final Map<List<String>, PooledConnectionSource> sources = new ConcurrentHashMap<>();
+    private final ScheduledFuture<?> evictionTask;
+    private volatile boolean disposed;
+    private static volatile boolean driverLoaded;
+
+    public DatabaseConnectionService() {
+        evictionTask = AppExecutorUtil.getAppScheduledExecutorService().scheduleWithFixedDelay(
+            this::evictIdle, EVICTION_INTERVAL_SECONDS, EVICTION_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    public static DatabaseConnectionService getInstance(Project project) {
+        return project.getService(DatabaseConnectionService.class);
+    }
+
+    // 返回的连接 close() 时归还到池中
+    public Connection getConnection(String url, String user, String password) throws SQLException {
+        loadDriver();
+        return getSource(url, user, password).create();
+    }
+
+    public ConnectionFactory connectionFactory(String url, String user, String password) {
+        return () -> getConnection(url, user, password);
+    }
+
+    private PooledConnectionSource getSource(String url, String user, String password) {
+        if (disposed) {
+            throw new IllegalStateException("Connection service is disposed");
+        }
+        String jdbcUrl = normalizeUrl(url);
+        // 密码也作为键的一部分，修改密码后不会复用旧连接
+        return sources.computeIfAbsent(Arrays.asList(jdbcUrl, user, password), key -> new PooledConnectionSource(
+            () -> DriverManager.getConnection(jdbcUrl, user, password), MAX_IDLE_CONNECTIONS, IDLE_TIMEOUT_MILLIS));
+    }
+
+    // 驱动在插件类加载器中，DriverManager 的 ServiceLoader 找不到，需要显式加载一次
+    private static void loadDriver() throws SQLException {
+        if (!driverLoaded) {
+            try {
+                Class.forName("com.mysql.cj.jdbc.Driver");
+                driverLoaded = true;
+            } catch (ClassNotFoundException e) {
+                throw new SQLException("MySQL JDBC Driver not found", e);
+            }
+        }
+    }
+
+    // 补全协议头并追加常用参数
+    static String normalizeUrl(String url) {
+        if (!url.toLowerCase().startsWith("jdbc:")) {
+            url = "jdbc:mysql://" + url;
+        }
+        if (!url.contains("?")) {
+            url += "?";
+        } else if (!url.endsWith("&") && !url.endsWith("?")) {
+            url += "&";
+        }
+        return url + "useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
+    }
+
+    private void evictIdle() {
+        for (PooledConnectionSource source : sources.values()) {
+            source.evictIdle();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        disposed = true;
+        evictionTask.cancel(false);
+        for (PooledConnectionSource source : sources.values()) {
+            source.close();
+        }
+        sources.clear();
+    }
+}
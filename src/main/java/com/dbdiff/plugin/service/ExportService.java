@@ -1,56 +1,45 @@
 package com.dbdiff.plugin.service;
 
 import com.dbdiff.plugin.model.TableDiff;
-import com.dbdiff.plugin.model.ColumnDiff;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.fileChooser.FileChooser;
 import com.intellij.openapi.fileChooser.FileChooserDescriptor;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.ui.Messages;
 import com.intellij.openapi.vfs.VirtualFile;
-import org.apache.commons.csv.CSVPrinter;
-import org.apache.commons.csv.CSVFormat;
+import org.jetbrains.annotations.NotNull;
 
 import java.io.*;
-import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
 
+// 选择导出目录并在后台任务中调用 DiffReportWriter 写文件
 public class ExportService {
+    private static final String REPORT_DIR = "db_diff_report";
     
     public static void exportToHtml(Project project, List<TableDiff> diffs, String sourceDb, String targetDb) {
         FileChooserDescriptor descriptor = new FileChooserDescriptor(false, true, false, false, false, false);
         VirtualFile file = FileChooser.chooseFile(descriptor, project, null);
         if (file != null) {
-            String path = file.getPath() + "/db_diff_report.html";
-            try (PrintWriter writer = new PrintWriter(new FileWriter(path))) {
-                writer.println("<!DOCTYPE html>");
-                writer.println("<html><head>");
-                writer.println("<meta charset='UTF-8'>");
-                writer.println("<style>");
-                writer.println("body { font-family: Arial, sans-serif; }");
-                writer.println("table { border-collapse: collapse; width: 100%; }");
-                writer.println("th, td { border: 1px solid #ddd; padding: 8px; }");
-                writer.println("th { background-color: #f5f5f5; }");
-                writer.println(".added { background-color: #90EE90; }");
-                writer.println(".removed { background-color: #FFB6C1; }");
-                writer.println(".modified { background-color: #ADD8E6; }");
-                writer.println("</style></head><body>");
-                
-                writer.println("<h1>数据库结构差异报告</h1>");
-                writer.println("<p>源数据库: " + sourceDb + "</p>");
-                writer.println("<p>目标数据库: " + targetDb + "</p>");
-                
-                writer.println("<h2>差异摘要</h2>");
-                writeSummary(writer, diffs);
-                
-                writer.println("<h2>详细差异</h2>");
-                writeDetails(writer, diffs);
-                
-                writer.println("<h2>SQL同步脚本</h2>");
-                writeSqlScripts(writer, diffs);
-                
-                writer.println("</body></html>");
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+            DatabaseConfigService.State state = DatabaseConfigService.getInstance(project).getState();
+            boolean perTable = state != null && state.htmlReportPerTable;
+            // 单文件报告在差异很多时浏览器难以打开，可拆分为索引页加每表一页
+            Path target = perTable
+                ? Paths.get(file.getPath(), REPORT_DIR)
+                : Paths.get(file.getPath(), "db_diff_report.html");
+            runExport(project, "导出HTML报告", target, listener -> {
+                loadMissingCreateTableSql(project, diffs);
+                if (perTable) {
+                    DiffReportWriter.writeHtmlReportPages(target, diffs, sourceDb, targetDb, listener);
+                } else {
+                    try (Writer out = DiffReportWriter.newWriter(target)) {
+                        DiffReportWriter.writeHtmlReport(out, diffs, sourceDb, targetDb, listener);
+                    }
+                }
+            });
         }
     }
     
@@ -58,191 +47,83 @@ public class ExportService {
         FileChooserDescriptor descriptor = new FileChooserDescriptor(false, true, false, false, false, false);
         VirtualFile file = FileChooser.chooseFile(descriptor, project, null);
         if (file != null) {
-            String path = file.getPath() + "/db_diff_report.csv";
-            try (CSVPrinter printer = new CSVPrinter(new FileWriter(path), CSVFormat.DEFAULT)) {
-                printer.printRecord("表名", "操作类型", "字段名", "源类型", "目标类型", "差异描述");
-                
-                for (TableDiff diff : diffs) {
-                    if (diff.getDiffType() == TableDiff.DiffType.ADDED) {
-                        printer.printRecord(diff.getTableName(), "新增表", "", "", "", "新增表");
-                    } else if (diff.getDiffType() == TableDiff.DiffType.REMOVED) {
-                        printer.printRecord(diff.getTableName(), "删除表", "", "", "", "删除表");
-                    }
-                    
-                    if (diff.getColumnDiffs() != null) {
-                        for (ColumnDiff colDiff : diff.getColumnDiffs()) {
-                            printer.printRecord(
-                                diff.getTableName(),
-                                getDiffTypeDesc(colDiff.getDiffType()),
-                                colDiff.getColumnName(),
-                                colDiff.getSourceType(),
-                                colDiff.getTargetType(),
-                                getColumnDiffDesc(colDiff)
-                            );
-                        }
-                    }
+            Path target = Paths.get(file.getPath(), "db_diff_report.csv");
+            runExport(project, "导出CSV", target, listener -> {
+                try (Writer out = DiffReportWriter.newWriter(target)) {
+                    // 带 BOM，Excel 才能按 UTF-8 识别中文表头
+                    out.write('\uFEFF');
+                    DiffReportWriter.writeCsvReport(out, diffs, listener);
                 }
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+            });
         }
     }
-    
-    private static void writeSummary(PrintWriter writer, List<TableDiff> diffs) {
-        int addedTables = 0, removedTables = 0, modifiedTables = 0;
-        int addedColumns = 0, removedColumns = 0, modifiedColumns = 0;
-        
-        for (TableDiff diff : diffs) {
-            switch (diff.getDiffType()) {
-                case ADDED: addedTables++; break;
-                case REMOVED: removedTables++; break;
-                case MODIFIED: 
-                    modifiedTables++;
-                    if (diff.getColumnDiffs() != null) {
-                        for (ColumnDiff colDiff : diff.getColumnDiffs()) {
-                            switch (colDiff.getDiffType()) {
-                                case ADDED: addedColumns++; break;
-                                case REMOVED: removedColumns++; break;
-                                case TYPE_CHANGED: modifiedColumns++; break;
-                            }
-                        }
+
+    // 供评审流水线读取：json 为单个文档，ndjson 每行一个表，可边读边处理
+    public static void exportToJson(Project project, List<TableDiff> diffs, String sourceDb, String targetDb,
+                                    boolean ndjson) {
+        FileChooserDescriptor descriptor = new FileChooserDescriptor(false, true, false, false, false, false);
+        VirtualFile file = FileChooser.chooseFile(descriptor, project, null);
+        if (file != null) {
+            Path target = Paths.get(file.getPath(), ndjson ? "db_diff_report.ndjson" : "db_diff_report.json");
+            runExport(project, ndjson ? "导出NDJSON" : "导出JSON", target, listener -> {
+                try (Writer out = DiffReportWriter.newWriter(target)) {
+                    if (ndjson) {
+                        DiffReportWriter.writeNdjsonReport(out, diffs, sourceDb, targetDb, listener);
+                    } else {
+                        DiffReportWriter.writeJsonReport(out, diffs, sourceDb, targetDb, listener);
                     }
-                    break;
-            }
-        }
-        
-        writer.println("<table>");
-        writer.println("<tr><th colspan='2'>差异统计</th></tr>");
-        writer.println("<tr><td>新增表</td><td>" + addedTables + "</td></tr>");
-        writer.println("<tr><td>删除表</td><td>" + removedTables + "</td></tr>");
-        writer.println("<tr><td>修改表</td><td>" + modifiedTables + "</td></tr>");
-        writer.println("<tr><td>新增字段</td><td>" + addedColumns + "</td></tr>");
-        writer.println("<tr><td>删除字段</td><td>" + removedColumns + "</td></tr>");
-        writer.println("<tr><td>修改字段</td><td>" + modifiedColumns + "</td></tr>");
-        writer.println("</table>");
-    }
-    
-    private static void writeDetails(PrintWriter writer, List<TableDiff> diffs) {
-        writer.println("<table>");
-        writer.println("<tr><th>表名</th><th>操作类型</th><th>字段名</th><th>源类型</th><th>目标类型</th><th>差异描述</th></tr>");
-        
-        for (TableDiff diff : diffs) {
-            String cssClass = getCssClass(diff.getDiffType());
-            
-            if (diff.getDiffType() == TableDiff.DiffType.ADDED || diff.getDiffType() == TableDiff.DiffType.REMOVED) {
-                writer.println(String.format(
-                    "<tr class='%s'><td>%s</td><td>%s</td><td colspan='4'>%s</td></tr>",
-                    cssClass,
-                    diff.getTableName(),
-                    getDiffTypeDesc(diff.getDiffType()),
-                    diff.getDiffType() == TableDiff.DiffType.ADDED ? "新增表" : "删除表"
-                ));
-            }
-            
-            if (diff.getColumnDiffs() != null) {
-                for (ColumnDiff colDiff : diff.getColumnDiffs()) {
-                    writer.println(String.format(
-                        "<tr class='%s'><td>%s</td><td>%s</td><td>%s</td><td>%s</td><td>%s</td><td>%s</td></tr>",
-                        getCssClass(colDiff.getDiffType()),
-                        diff.getTableName(),
-                        getDiffTypeDesc(colDiff.getDiffType()),
-                        colDiff.getColumnName(),
-                        colDiff.getSourceType(),
-                        colDiff.getTargetType(),
-                        getColumnDiffDesc(colDiff)
-                    ));
                 }
-            }
-        }
-        writer.println("</table>");
-    }
-    
-    private static void writeSqlScripts(PrintWriter writer, List<TableDiff> diffs) {
-        writer.println("<pre>");
-        for (TableDiff diff : diffs) {
-            switch (diff.getDiffType()) {
-                case ADDED:
-                    writer.println("-- 新增表");
-                    writer.println(diff.getCreateTableSql());
-                    writer.println();
-                    break;
-                case REMOVED:
-                    writer.println("-- 删除表");
-                    writer.println("DROP TABLE IF EXISTS `" + diff.getTableName() + "`;");
-                    writer.println();
-                    break;
-                case MODIFIED:
-                    if (diff.getColumnDiffs() != null && !diff.getColumnDiffs().isEmpty()) {
-                        writer.println("-- 修改表 " + diff.getTableName());
-                        writer.println("ALTER TABLE `" + diff.getTableName() + "`");
-                        for (ColumnDiff colDiff : diff.getColumnDiffs()) {
-                            switch (colDiff.getDiffType()) {
-                                case ADDED:
-                                    writer.println("  ADD COLUMN `" + colDiff.getColumnName() + "` " + colDiff.getTargetType() + ",");
-                                    break;
-                                case REMOVED:
-                                    writer.println("  DROP COLUMN `" + colDiff.getColumnName() + "`,");
-                                    break;
-                                case TYPE_CHANGED:
-                                    writer.println("  MODIFY COLUMN `" + colDiff.getColumnName() + "` " + colDiff.getTargetType() + ",");
-                                    break;
-                            }
-                        }
-                        writer.println(";");
-                        writer.println();
-                    }
-                    break;
-            }
+            });
         }
-        writer.println("</pre>");
     }
-    
-    private static String getCssClass(TableDiff.DiffType type) {
-        switch (type) {
-            case ADDED: return "added";
-            case REMOVED: return "removed";
-            case MODIFIED: return "modified";
-            default: return "";
-        }
-    }
-    
-    private static String getCssClass(ColumnDiff.DiffType type) {
-        switch (type) {
-            case ADDED: return "added";
-            case REMOVED: return "removed";
-            case TYPE_CHANGED: return "modified";
-            default: return "";
-        }
-    }
-    
-    private static String getDiffTypeDesc(TableDiff.DiffType type) {
-        switch (type) {
-            case ADDED: return "新增";
-            case REMOVED: return "删除";
-            case MODIFIED: return "修改";
-            default: return "";
+
+    // HTML 报告和 SQL 脚本包含建表语句，延迟加载时先按保存的连接配置读取缺少的语句，读取失败则导出失败
+    public static void loadMissingCreateTableSql(Project project, List<TableDiff> diffs) {
+        DatabaseConfigService.State state = DatabaseConfigService.getInstance(project).getState();
+        if (state == null) {
+            throw new IllegalStateException("没有保存的连接配置，无法读取建表语句");
         }
+        DatabaseConnectionService connections = DatabaseConnectionService.getInstance(project);
+        new DatabaseDiffService().loadMissingCreateTableSql(diffs,
+            connections.connectionFactory(state.sourceUrl, state.sourceUser, state.sourcePassword),
+            connections.connectionFactory(state.targetUrl, state.targetUser, state.targetPassword));
     }
-    
-    private static String getDiffTypeDesc(ColumnDiff.DiffType type) {
-        switch (type) {
-            case ADDED: return "新增字段";
-            case REMOVED: return "删除字段";
-            case TYPE_CHANGED: return "修改字段";
-            default: return "";
-        }
+
+    @FunctionalInterface
+    private interface ExportAction {
+        void run(ExportListener listener) throws IOException;
     }
-    
-    private static String getColumnDiffDesc(ColumnDiff diff) {
-        switch (diff.getDiffType()) {
-            case ADDED:
-                return "新增字段: " + diff.getTargetType();
-            case REMOVED:
-                return "删除字段: " + diff.getSourceType();
-            case TYPE_CHANGED:
-                return "类型变更: " + diff.getSourceType() + " -> " + diff.getTargetType();
-            default:
-                return "";
-        }
+
+    // 在后台任务中写文件，进度按已写出的表数量计算，取消时中止写入
+    private static void runExport(Project project, String title, Path target, ExportAction action) {
+        ProgressManager.getInstance().run(new Task.Backgroundable(project, title, true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                ExportListener listener = new ExportListener() {
+                    @Override
+                    public void onTableWritten(String table, int processedTables, int totalTables) {
+                        indicator.checkCanceled();
+                        indicator.setFraction((double) processedTables / totalTables);
+                        indicator.setText2(String.format("%d / %d  %s", processedTables, totalTables, table));
+                    }
+                };
+                try {
+                    action.run(listener);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                Messages.showInfoMessage(project, "已导出到: " + target, "导出成功");
+            }
+
+            @Override
+            public void onThrowable(@NotNull Throwable error) {
+                Messages.showErrorDialog(project, "Error: " + error.getMessage(), title + "失败");
+            }
+        });
     }
-} 
\ No newline at end of file
+}
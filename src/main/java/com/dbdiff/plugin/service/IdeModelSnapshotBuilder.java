@@ -0,0 +1,158 @@
+package com.dbdiff.plugin.service;
+
+import com.dbdiff.plugin.model.ColumnInfo;
+import com.dbdiff.plugin.model.ColumnType;
+import com.dbdiff.plugin.model.ForeignKeyInfo;
+import com.dbdiff.plugin.model.IndexInfo;
+import com.dbdiff.plugin.model.SchemaSnapshot;
+import com.dbdiff.plugin.model.TableSnapshot;
+import com.intellij.database.model.DasColumn;
+import com.intellij.database.model.DasForeignKey;
+import com.intellij.database.model.DasIndex;
+import com.intellij.database.model.DasModel;
+import com.intellij.database.model.DasObject;
+import com.intellij.database.model.DasTable;
+import com.intellij.database.model.DasTableKey;
+import com.intellij.database.model.DataType;
+import com.intellij.database.model.MultiRef;
+import com.intellij.database.model.ObjectKind;
+import com.intellij.database.util.DasUtil;
+import com.intellij.openapi.diagnostic.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// 直接使用 Database 工具窗口已经内省好的模型生成快照，对比时不再访问数据库读取元数据
+public class IdeModelSnapshotBuilder {
+    private static final Logger LOG = Logger.getInstance(IdeModelSnapshotBuilder.class);
+
+    private final Pattern include;
+    private final Pattern exclude;
+
+    public IdeModelSnapshotBuilder(CompareOptions options) {
+        String includePattern = options.getTableIncludePattern();
+        String excludePattern = options.getTableExcludePattern();
+        this.include = includePattern != null ? DatabaseDiffService.likeToRegex(includePattern) : null;
+        this.exclude = excludePattern != null ? DatabaseDiffService.likeToRegex(excludePattern) : null;
+    }
+
+    // 模型中没有该库（数据源未内省或未勾选该 schema）时返回 null，由调用方回退到 JDBC 读取
+    public SchemaSnapshot build(DasModel model, String catalog) {
+        if (model == null || catalog == null || !isIntrospected(model, catalog)) {
+            return null;
+        }
+        SchemaSnapshot snapshot = new SchemaSnapshot();
+        snapshot.setCatalog(catalog);
+        snapshot.setCapturedAt(System.currentTimeMillis());
+        for (DasTable table : DasUtil.getTables(model)) {
+            if (table.getKind() != ObjectKind.TABLE || table.isSystem()
+                || !catalog.equalsIgnoreCase(DasUtil.getSchema(table)) || !matches(table.getName())) {
+                continue;
+            }
+            snapshot.getTables().put(table.getName(), buildTable(table, catalog));
+        }
+        LOG.info("Built snapshot of " + snapshot.getTables().size() + " tables from IDE model: " + catalog);
+        return snapshot;
+    }
+
+    private boolean isIntrospected(DasModel model, String catalog) {
+        for (DasObject root : model.getModelRoots()) {
+            if (root.getKind() == ObjectKind.SCHEMA && catalog.equalsIgnoreCase(root.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matches(String table) {
+        return (include == null || include.matcher(table).matches())
+            && (exclude == null || !exclude.matcher(table).matches());
+    }
+
+    // 建表语句留空，界面在复制表结构时再按需读取
+    private TableSnapshot buildTable(DasTable table, String catalog) {
+        TableSnapshot snapshot = new TableSnapshot();
+        snapshot.setTableName(table.getName());
+        for (DasColumn column : DasUtil.getColumns(table)) {
+            snapshot.getColumns().put(column.getName(), toColumnInfo(column));
+        }
+
+        // 主键在模型中是单独的键对象，对应的索引不重复记录
+        DasTableKey primaryKey = DasUtil.getPrimaryKey(table);
+        if (primaryKey != null) {
+            IndexInfo index = new IndexInfo();
+            index.setName(IndexInfo.PRIMARY_KEY_NAME);
+            index.setUnique(true);
+            index.setColumns(names(primaryKey.getColumnsRef()));
+            snapshot.getIndexes().put(index.getName(), index);
+        }
+        for (DasIndex dasIndex : DasUtil.getIndices(table)) {
+            if (IndexInfo.PRIMARY_KEY_NAME.equalsIgnoreCase(dasIndex.getName())) {
+                continue;
+            }
+            IndexInfo index = new IndexInfo();
+            index.setName(dasIndex.getName());
+            index.setUnique(dasIndex.isUnique());
+            index.setColumns(names(dasIndex.getColumnsRef()));
+            snapshot.getIndexes().put(index.getName(), index);
+        }
+
+        for (DasForeignKey dasForeignKey : DasUtil.getForeignKeys(table)) {
+            ForeignKeyInfo foreignKey = new ForeignKeyInfo();
+            foreignKey.setName(dasForeignKey.getName());
+            foreignKey.setColumns(names(dasForeignKey.getColumnsRef()));
+            String referencedCatalog = dasForeignKey.getRefTableSchema();
+            foreignKey.setReferencedCatalog(
+                referencedCatalog == null || catalog.equalsIgnoreCase(referencedCatalog) ? null : referencedCatalog);
+            foreignKey.setReferencedTable(dasForeignKey.getRefTableName());
+            foreignKey.setReferencedColumns(names(dasForeignKey.getRefColumns()));
+            foreignKey.setUpdateRule(ruleName(dasForeignKey.getUpdateRule()));
+            foreignKey.setDeleteRule(ruleName(dasForeignKey.getDeleteRule()));
+            snapshot.getForeignKeys().put(foreignKey.getName(), foreignKey);
+        }
+        return snapshot;
+    }
+
+    // 类型名与 information_schema 的写法一致，例如 INT UNSIGNED；未声明长度时记为 0
+    private ColumnInfo toColumnInfo(DasColumn column) {
+        DataType dataType = column.getDataType();
+        String type = dataType.typeName != null ? dataType.typeName : "";
+        boolean unsigned = ColumnType.declaresUnsigned(type, dataType.getSpecification());
+        return new ColumnInfo(type, unsigned, Math.max(dataType.size, 0), Math.max(dataType.scale, 0),
+                              !column.isNotNull(), column.getDefault(),
+                              column.getComment() != null ? column.getComment() : "");
+    }
+
+    private static List<String> names(MultiRef<?> ref) {
+        List<String> names = new ArrayList<>();
+        if (ref != null) {
+            for (String name : ref.names()) {
+                names.add(name);
+            }
+        }
+        return names;
+    }
+
+    // CASCADE、SET NULL 等，与 REFERENTIAL_CONSTRAINTS 中的写法一致
+    private static String ruleName(DasForeignKey.RuleAction rule) {
+        return rule != null ? rule.name().replace('_', ' ') : null;
+    }
+
+    // 从 jdbc:mysql://host:3306/db?params 中取出库名，没有指定库时返回 null
+    public static String catalogFromUrl(String url) {
+        if (url == null) {
+            return null;
+        }
+        int query = url.indexOf('?');
+        String path = query >= 0 ? url.substring(0, query) : url;
+        int hostStart = path.indexOf("//");
+        int slash = path.indexOf('/', hostStart >= 0 ? hostStart + 2 : 0);
+        if (slash < 0 || slash == path.length() - 1) {
+            return null;
+        }
+        String catalog = path.substring(slash + 1);
+        int end = catalog.indexOf('/');
+        return end >= 0 ? catalog.substring(0, end) : catalog;
+    }
+}
@@ -0,0 +1,109 @@
+package com.dbdiff.plugin.ui;
+
+import com.dbdiff.plugin.model.DataDiff;
+import com.dbdiff.plugin.service.CompareOptions;
+import com.dbdiff.plugin.service.ConnectionFactory;
+import com.dbdiff.plugin.service.ConnectionPool;
+import com.dbdiff.plugin.service.DataCompareListener;
+import com.dbdiff.plugin.service.DataCompareService;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// 在后台线程并行对比两侧共有表的数据，进度条和工具窗口显示吞吐量，取消时中断正在执行的校验和查询
+public class DataCompareTask extends Task.Backgroundable {
+    private static final long THROUGHPUT_REPORT_INTERVAL_MS = 500;
+
+    private final ConnectionFactory sourceFactory;
+    private final ConnectionFactory targetFactory;
+    private final CompareOptions options;
+    private final DataCompareService compareService;
+
+    private List<DataDiff> diffs;
+    private final AtomicLong comparedRows = new AtomicLong();
+    private long startTime;
+    private long duration;
+
+    public DataCompareTask(Project project, ConnectionFactory sourceFactory,
+                           ConnectionFactory targetFactory, CompareOptions options) {
+        super(project, "对比表数据", true);
+        this.sourceFactory = sourceFactory;
+        this.targetFactory = targetFactory;
+        this.options = options;
+        this.compareService = new DataCompareService(options);
+    }
+
+    @Override
+    public void run(@NotNull ProgressIndicator indicator) {
+        startTime = System.currentTimeMillis();
+        indicator.setIndeterminate(true);
+        indicator.setText("正在读取表结构...");
+
+        // 每侧连接池的大小即为该服务器上同时执行的校验和查询数
+        int concurrency = options.getDataCompareConcurrency();
+        try (ConnectionPool sourcePool = new ConnectionPool(sourceFactory, concurrency);
+             ConnectionPool targetPool = new ConnectionPool(targetFactory, concurrency)) {
+            DataCompareListener listener = new DataCompareListener() {
+                private volatile long lastReport;
+
+                @Override
+                public void onStarted(int totalTables) {
+                    indicator.setIndeterminate(false);
+                    indicator.setText(String.format("正在对比 %d 个表的数据", totalTables));
+                }
+
+                @Override
+                public void onChunkCompared(String table, long rows) {
+                    long total = comparedRows.addAndGet(rows);
+                    long now = System.currentTimeMillis();
+                    // 多个工作线程同时回调，限制刷新频率
+                    if (now - lastReport >= THROUGHPUT_REPORT_INTERVAL_MS) {
+                        lastReport = now;
+                        long rowsPerSecond = rowsPerSecond(total, now - startTime);
+                        indicator.setText2(String.format("%s  %,d 行/秒", table, rowsPerSecond));
+                        DiffResultToolWindow.showDataCompareThroughput(total, rowsPerSecond);
+                    }
+                }
+
+                @Override
+                public void onTableCompared(DataDiff diff, int processedTables, int totalTables) {
+                    indicator.setFraction((double) processedTables / totalTables);
+                }
+            };
+
+            Future<List<DataDiff>> future = ApplicationManager.getApplication().executeOnPooledThread(
+                () -> compareService.compareData(sourcePool, targetPool, listener));
+            try {
+                diffs = ProgressIndicatorUtils.awaitWithCheckCanceled(future, indicator);
+            } catch (ProcessCanceledException e) {
+                compareService.cancel();
+                throw e;
+            }
+        }
+        duration = System.currentTimeMillis() - startTime;
+    }
+
+    private static long rowsPerSecond(long rows, long elapsedMillis) {
+        return elapsedMillis > 0 ? rows * 1000 / elapsedMillis : 0;
+    }
+
+    @Override
+    public void onSuccess() {
+        DiffResultToolWindow.showDataCompareThroughput(comparedRows.get(), rowsPerSecond(comparedRows.get(), duration));
+        new DataDiffDialog(getProject(), diffs).show();
+    }
+
+    @Override
+    public void onThrowable(@NotNull Throwable error) {
+        Messages.showErrorDialog(getProject(), "Error: " + error.getMessage(), "数据对比失败");
+    }
+}
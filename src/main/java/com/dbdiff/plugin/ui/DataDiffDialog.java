@@ -0,0 +1,145 @@
+package com.dbdiff.plugin.ui;
+
+import com.dbdiff.plugin.model.DataDiff;
+import com.dbdiff.plugin.model.RowDiff;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.table.JBTable;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.util.List;
+
+// 数据对比结果：每个表一行汇总，下面列出有差异的行的主键
+public class DataDiffDialog extends DialogWrapper {
+    private final List<DataDiff> diffs;
+    private static final Color ADDED_COLOR = new Color(144, 238, 144);  // 浅绿色
+    private static final Color REMOVED_COLOR = new Color(255, 182, 193); // 浅红色
+    private static final Color MODIFIED_COLOR = new Color(173, 216, 230); // 浅蓝色
+    private static final int RESULT_COLUMN = 5;
+
+    public DataDiffDialog(Project project, List<DataDiff> diffs) {
+        super(project);
+        this.diffs = diffs;
+        setTitle("Table Data Differences");
+        init();
+    }
+
+    @Override
+    protected JComponent createCenterPanel() {
+        JPanel mainPanel = new JPanel(new BorderLayout());
+        mainPanel.setPreferredSize(new Dimension(1000, 600));
+
+        String[] columnNames = {"表名", "主键", "源行数", "目标行数", "差异块", "结果"};
+        DefaultTableModel model = new DefaultTableModel(columnNames, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+
+        int differentTables = 0;
+        for (DataDiff diff : diffs) {
+            if (diff.isSkipped()) {
+                model.addRow(new Object[]{diff.getTableName(), "", "", "", "", "跳过: " + diff.getSkipReason()});
+                continue;
+            }
+            if (!diff.isIdentical()) {
+                differentTables++;
+            }
+            model.addRow(new Object[]{
+                diff.getTableName(),
+                String.join(", ", diff.getPrimaryKey()),
+                diff.getSourceRows(),
+                diff.getTargetRows(),
+                diff.getMismatchedChunkCount() + " / " + diff.getChunkCount(),
+                diff.isIdentical() ? "一致" : "差异行 " + diff.getRowDiffCount()
+            });
+            for (RowDiff rowDiff : diff.getRowDiffs()) {
+                model.addRow(new Object[]{
+                    diff.getTableName(),
+                    String.join(", ", rowDiff.getPrimaryKey()),
+                    "",
+                    "",
+                    "",
+                    getDiffDescription(rowDiff)
+                });
+            }
+            if (diff.getRowDiffCount() > diff.getRowDiffs().size()) {
+                model.addRow(new Object[]{
+                    diff.getTableName(), "", "", "", "",
+                    String.format("另有 %d 行差异未列出", diff.getRowDiffCount() - diff.getRowDiffs().size())
+                });
+            }
+        }
+
+        JBTable diffTable = new JBTable(model);
+        diffTable.setAutoResizeMode(JTable.AUTO_RESIZE_SUBSEQUENT_COLUMNS);
+        diffTable.getTableHeader().setReorderingAllowed(false);
+        diffTable.setRowHeight(30);
+
+        // 设置列宽
+        diffTable.getColumnModel().getColumn(0).setPreferredWidth(200); // 表名
+        diffTable.getColumnModel().getColumn(1).setPreferredWidth(200); // 主键
+        diffTable.getColumnModel().getColumn(2).setPreferredWidth(100); // 源行数
+        diffTable.getColumnModel().getColumn(3).setPreferredWidth(100); // 目标行数
+        diffTable.getColumnModel().getColumn(4).setPreferredWidth(80);  // 差异块
+        diffTable.getColumnModel().getColumn(RESULT_COLUMN).setPreferredWidth(150); // 结果
+
+        DefaultTableCellRenderer renderer = new DefaultTableCellRenderer() {
+            @Override
+            public Component getTableCellRendererComponent(JTable table, Object value,
+                    boolean isSelected, boolean hasFocus, int row, int column) {
+                Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+
+                String result = (String) table.getModel().getValueAt(row, RESULT_COLUMN);
+                if (!isSelected) {
+                    if (result.contains("新增")) {
+                        c.setBackground(ADDED_COLOR);
+                    } else if (result.contains("删除")) {
+                        c.setBackground(REMOVED_COLOR);
+                    } else if (result.contains("修改")) {
+                        c.setBackground(MODIFIED_COLOR);
+                    } else {
+                        c.setBackground(table.getBackground());
+                    }
+                }
+                return c;
+            }
+        };
+        for (int i = 0; i < diffTable.getColumnCount(); i++) {
+            diffTable.getColumnModel().getColumn(i).setCellRenderer(renderer);
+        }
+
+        JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        topPanel.add(new JBLabel(String.format("共对比 %d 个表，%d 个表数据不一致:", diffs.size(), differentTables)));
+
+        mainPanel.add(topPanel, BorderLayout.NORTH);
+        mainPanel.add(new JBScrollPane(diffTable), BorderLayout.CENTER);
+        return mainPanel;
+    }
+
+    private String getDiffDescription(RowDiff rowDiff) {
+        switch (rowDiff.getDiffType()) {
+            case ADDED:
+                return "新增行";
+            case REMOVED:
+                return "删除行";
+            case CHANGED:
+                return rowDiff.getChangedColumns() != null
+                    ? "修改行: " + String.join(", ", rowDiff.getChangedColumns())
+                    : "修改行";
+            default:
+                return "";
+        }
+    }
+
+    @Override
+    protected Action[] createActions() {
+        return new Action[]{getOKAction()};
+    }
+}
@@ -0,0 +1,158 @@
+package com.dbdiff.plugin.ui;
+
+import com.dbdiff.plugin.exception.DatabaseComparisonException;
+import com.dbdiff.plugin.model.SchemaSnapshot;
+import com.dbdiff.plugin.model.TableDiff;
+import com.dbdiff.plugin.service.CompareOptions;
+import com.dbdiff.plugin.service.ConnectionFactory;
+import com.dbdiff.plugin.service.ConnectionPool;
+import com.dbdiff.plugin.service.DatabaseDiffService;
+import com.dbdiff.plugin.service.DiffListener;
+import com.dbdiff.plugin.service.IdeModelSnapshotBuilder;
+import com.dbdiff.plugin.service.SchemaSnapshotCache;
+import com.intellij.database.dataSource.LocalDataSource;
+import com.intellij.database.psi.DbDataSource;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.util.Computable;
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+// 在后台线程执行数据库对比，进度条显示已处理的表数量，取消时中断正在执行的查询
+public class DatabaseCompareTask extends Task.Backgroundable {
+    private final ConnectionFactory sourceFactory;
+    private final ConnectionFactory targetFactory;
+    private final CompareOptions options;
+    private final DatabaseDiffService diffService;
+    // Database 工具窗口中的数据源，两侧都已内省时直接对比其模型
+    private final DbDataSource sourceDataSource;
+    private final DbDataSource targetDataSource;
+
+    private List<TableDiff> diffs;
+    private String sourceDb;
+    private String targetDb;
+    private long duration;
+
+    public DatabaseCompareTask(Project project, ConnectionFactory sourceFactory,
+                               ConnectionFactory targetFactory, CompareOptions options) {
+        this(project, sourceFactory, targetFactory, options, null, null);
+    }
+
+    public DatabaseCompareTask(Project project, ConnectionFactory sourceFactory, ConnectionFactory targetFactory,
+                               CompareOptions options, DbDataSource sourceDataSource,
+                               DbDataSource targetDataSource) {
+        super(project, "对比数据库结构", true);
+        this.sourceFactory = sourceFactory;
+        this.targetFactory = targetFactory;
+        this.options = options;
+        this.sourceDataSource = sourceDataSource;
+        this.targetDataSource = targetDataSource;
+        this.diffService = new DatabaseDiffService(options);
+        this.diffService.setSnapshotCache(project.getService(SchemaSnapshotCache.class));
+    }
+
+    @Override
+    public void run(@NotNull ProgressIndicator indicator) {
+        long startTime = System.currentTimeMillis();
+        indicator.setIndeterminate(true);
+        indicator.setText("正在读取数据库元数据...");
+
+        // 模型只在两侧都可用时使用，避免一侧来自模型、一侧来自 information_schema 时因表示不同产生误报
+        SchemaSnapshot sourceModel = buildModelSnapshot(sourceDataSource);
+        SchemaSnapshot targetModel = sourceModel != null ? buildModelSnapshot(targetDataSource) : null;
+        if (sourceModel != null && targetModel != null) {
+            sourceDb = sourceModel.getCatalog();
+            targetDb = targetModel.getCatalog();
+            DiffResultToolWindow.beginStreaming(sourceDb, targetDb);
+            DiffListener listener = createListener(indicator);
+            diffs = await(() -> diffService.compareSnapshots(sourceModel, targetModel, listener), indicator);
+        } else {
+            try (ConnectionPool sourcePool = new ConnectionPool(sourceFactory, options.getParallelism());
+                 ConnectionPool targetPool = new ConnectionPool(targetFactory, options.getParallelism())) {
+                // 获取数据库名称
+                sourceDb = sourcePool.getCatalog();
+                targetDb = targetPool.getCatalog();
+                DiffResultToolWindow.beginStreaming(sourceDb, targetDb);
+                DiffListener listener = createListener(indicator);
+                diffs = await(() -> diffService.compareDatabase(sourcePool, targetPool, listener), indicator);
+            } catch (SQLException e) {
+                throw new DatabaseComparisonException("Failed to connect to database", e);
+            }
+        }
+
+        duration = System.currentTimeMillis() - startTime;
+    }
+
+    // 数据源未内省、不是本地数据源或地址中没有库名时返回 null，回退到 JDBC 读取
+    private SchemaSnapshot buildModelSnapshot(DbDataSource dataSource) {
+        if (dataSource == null || !(dataSource.getDelegate() instanceof LocalDataSource)) {
+            return null;
+        }
+        String catalog = IdeModelSnapshotBuilder.catalogFromUrl(((LocalDataSource) dataSource.getDelegate()).getUrl());
+        IdeModelSnapshotBuilder builder = new IdeModelSnapshotBuilder(options);
+        return ApplicationManager.getApplication().runReadAction(
+            (Computable<SchemaSnapshot>) () -> builder.build(dataSource.getModel(), catalog));
+    }
+
+    private DiffListener createListener(ProgressIndicator indicator) {
+        return new DiffListener() {
+            @Override
+            public void onStarted(int totalTables) {
+                indicator.setIndeterminate(false);
+                indicator.setText(String.format("正在对比 %d 个表", totalTables));
+            }
+
+            @Override
+            public void onTableProcessed(String table, int processedTables, int totalTables) {
+                indicator.setFraction((double) processedTables / totalTables);
+                indicator.setText2(String.format("%d / %d  %s", processedTables, totalTables, table));
+            }
+
+            @Override
+            public void onTableDiff(TableDiff diff) {
+                DiffResultToolWindow.publishDiff(diff);
+            }
+        };
+    }
+
+    // 对比在独立线程中执行，当前线程轮询取消状态，取消时中断进行中的 JDBC 查询
+    private List<TableDiff> await(Callable<List<TableDiff>> compare, ProgressIndicator indicator) {
+        Future<List<TableDiff>> future = ApplicationManager.getApplication().executeOnPooledThread(compare);
+        try {
+            return ProgressIndicatorUtils.awaitWithCheckCanceled(future, indicator);
+        } catch (ProcessCanceledException e) {
+            diffService.cancel();
+            throw e;
+        }
+    }
+
+    @Override
+    public void onSuccess() {
+        DiffResultToolWindow.showCompareTime(duration);
+        DiffResultToolWindow.showDiffResult(diffs, sourceDb, targetDb);
+    }
+
+    @Override
+    public void onCancel() {
+        DiffResultToolWindow.stopStreaming();
+    }
+
+    @Override
+    public void onThrowable(@NotNull Throwable error) {
+        DiffResultToolWindow.stopStreaming();
+        onCompareFailed(error.getMessage());
+    }
+
+    protected void onCompareFailed(String message) {
+        Messages.showErrorDialog(getProject(), "Error: " + message, "Database Connection Error");
+    }
+}
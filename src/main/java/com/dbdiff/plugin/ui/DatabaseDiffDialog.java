@@ -5,15 +5,17 @@ import com.intellij.openapi.ui.DialogWrapper;
 import com.intellij.openapi.ui.Messages;
 import com.intellij.ui.components.JBTextField;
 import com.intellij.ui.components.JBPasswordField;
-import com.dbdiff.plugin.service.DatabaseDiffService;
+import com.intellij.ui.components.JBCheckBox;
 import com.dbdiff.plugin.service.DatabaseConfigService;
-import com.dbdiff.plugin.model.TableDiff;
+import com.dbdiff.plugin.service.CompareOptions;
+import com.dbdiff.plugin.service.DatabaseConnectionService;
 import com.intellij.database.dataSource.DatabaseConnection;
 import com.intellij.database.dataSource.DatabaseConnectionPoint;
 import com.intellij.database.dataSource.LocalDataSource;
 import com.intellij.database.psi.DbDataSource;
 import com.intellij.database.psi.DbPsiFacade;
 import com.intellij.openapi.ui.ComboBox;
+import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.ui.ColoredListCellRenderer;
 import com.intellij.util.ui.JBUI;
 import org.jetbrains.annotations.NotNull;
@@ -22,8 +24,6 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionListener;
 import java.sql.Connection;
-import java.sql.DriverManager;
-import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
 
@@ -37,6 +37,20 @@ public class DatabaseDiffDialog extends DialogWrapper {
     private final JBPasswordField targetPasswordField = new JBPasswordField();
     private final JBTextField sourceUrlField;
     private final JBTextField targetUrlField;
+    private final JBCheckBox useInformationSchemaCheckBox =
+        new JBCheckBox("Bulk load metadata from information_schema", true);
+    private final JSpinner parallelismSpinner = new JSpinner(new SpinnerNumberModel(4, 1, 32, 1));
+    private final JSpinner dataCompareConcurrencySpinner = new JSpinner(new SpinnerNumberModel(2, 1, 16, 1));
+    private final JBCheckBox lazyCreateTableSqlCheckBox =
+        new JBCheckBox("Load CREATE TABLE statements on demand", false);
+    private final JBCheckBox compareTableStatsCheckBox =
+        new JBCheckBox("Show row counts and data size from table statistics", false);
+    private final JBCheckBox htmlReportPerTableCheckBox =
+        new JBCheckBox("Split HTML report into one page per table", false);
+    private final JBCheckBox useIdeModelCheckBox =
+        new JBCheckBox("Use the introspected model of selected data sources", true);
+    private final JBTextField tableIncludeField = new JBTextField();
+    private final JBTextField tableExcludeField = new JBTextField();
 
     private static final String MYSQL_URL_TEMPLATE = "jdbc:mysql://localhost:3306/database_name";
 
@@ -99,6 +113,9 @@ public class DatabaseDiffDialog extends DialogWrapper {
         gbc.insets = JBUI.insets(15, 5, 5, 5);  // 增加上边距
         connectionPanel.add(targetPanel, gbc);
 
+        gbc.gridy = 2;
+        connectionPanel.add(createOptionsPanel(), gbc);
+
         // 添加提示信息面板
         JPanel tipsPanel = createTipsPanel();
         
@@ -107,7 +124,7 @@ public class DatabaseDiffDialog extends DialogWrapper {
         mainPanel.add(tipsPanel, BorderLayout.SOUTH);
 
         // 设置首选大小
-        mainPanel.setPreferredSize(new Dimension(500, 400));
+        mainPanel.setPreferredSize(new Dimension(500, 500));
         
         return mainPanel;
     }
@@ -180,6 +197,72 @@ public class DatabaseDiffDialog extends DialogWrapper {
         return panel;
     }
 
+    private JPanel createOptionsPanel() {
+        JPanel panel = new JPanel(new GridBagLayout());
+        panel.setBorder(BorderFactory.createTitledBorder("Compare Options"));
+
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        gbc.insets = JBUI.insets(5);
+        gbc.anchor = GridBagConstraints.WEST;
+        gbc.gridx = 0;
+        gbc.gridy = 0;
+        gbc.weightx = 1.0;
+
+        // 驱动不支持 information_schema 时取消勾选，回退到 JDBC 元数据逐表读取
+        useInformationSchemaCheckBox.setToolTipText(
+            "Uncheck for drivers without information_schema to use JDBC DatabaseMetaData per table");
+        panel.add(useInformationSchemaCheckBox, gbc);
+
+        // 并行对比的工作线程数，每个线程占用源库和目标库各一个连接
+        JPanel parallelismPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        parallelismPanel.add(new JLabel("Parallel workers: "));
+        parallelismPanel.add(parallelismSpinner);
+        // 数据对比的校验和查询较重，单独限制每台服务器上的并发数
+        parallelismPanel.add(new JLabel("  Data compare queries per server: "));
+        parallelismPanel.add(dataCompareConcurrencySpinner);
+        gbc.gridy = 1;
+        panel.add(parallelismPanel, gbc);
+
+        // 表名过滤，LIKE 语法，直接下推到元数据查询中
+        tableIncludeField.getEmptyText().setText("e.g. order_%");
+        tableExcludeField.getEmptyText().setText("e.g. tmp\\_%");
+        JPanel filterPanel = new JPanel(new GridLayout(2, 2, 5, 5));
+        filterPanel.add(new JLabel("Include tables (LIKE):"));
+        filterPanel.add(tableIncludeField);
+        filterPanel.add(new JLabel("Exclude tables (LIKE):"));
+        filterPanel.add(tableExcludeField);
+        gbc.gridy = 2;
+        panel.add(filterPanel, gbc);
+
+        // 只在复制表结构时读取建表语句，新增/删除的表较多时可以明显缩短对比时间
+        lazyCreateTableSqlCheckBox.setToolTipText(
+            "Skip SHOW CREATE TABLE during comparison and fetch it when copying the table structure");
+        gbc.gridy = 3;
+        panel.add(lazyCreateTableSqlCheckBox, gbc);
+
+        // 行数和空间占用取自 information_schema.TABLES，每侧一次查询，不对表做 COUNT(*)
+        compareTableStatsCheckBox.setToolTipText(
+            "Read TABLE_ROWS, DATA_LENGTH and INDEX_LENGTH; InnoDB row counts are estimates");
+        gbc.gridy = 4;
+        panel.add(compareTableStatsCheckBox, gbc);
+
+        // 差异较多时单文件报告可能有几十 MB，拆成索引页和每表一页后浏览器可以正常打开
+        htmlReportPerTableCheckBox.setToolTipText(
+            "Write index.html with a summary, one page per table and db_sync.sql into db_diff_report/");
+        gbc.gridy = 5;
+        panel.add(htmlReportPerTableCheckBox, gbc);
+
+        // 两侧都选择了已内省的数据源时直接对比 IDE 中的模型；模型可能落后于数据库，需要时先刷新数据源
+        useIdeModelCheckBox.setToolTipText(
+            "Compare the Database tool window models without querying metadata; refresh the data sources first " +
+            "if the schemas changed since the last introspection");
+        gbc.gridy = 6;
+        panel.add(useIdeModelCheckBox, gbc);
+
+        return panel;
+    }
+
     private JPanel createTipsPanel() {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBorder(BorderFactory.createTitledBorder("Tips"));
@@ -204,7 +287,8 @@ public class DatabaseDiffDialog extends DialogWrapper {
             String password = isSource ? new String(sourcePasswordField.getPassword()) 
                                      : new String(targetPasswordField.getPassword());
 
-            Connection conn = createConnection(url, user, password);
+            // 测试成功的连接归还到项目连接池，随后的对比可以直接复用
+            Connection conn = DatabaseConnectionService.getInstance(project).getConnection(url, user, password);
             conn.close();
             
             Messages.showInfoMessage(
@@ -227,34 +311,28 @@ public class DatabaseDiffDialog extends DialogWrapper {
             try {
                 saveConfig();
                 
-                Connection sourceConn = createConnection(
-                    sourceUrlField.getText(),
-                    sourceUserField.getText(),
-                    new String(sourcePasswordField.getPassword())
-                );
-                
-                Connection targetConn = createConnection(
-                    targetUrlField.getText(),
-                    targetUserField.getText(),
-                    new String(targetPasswordField.getPassword())
-                );
-                
-                DatabaseDiffService diffService = new DatabaseDiffService();
-                List<TableDiff> diffs = diffService.compareDatabase(sourceConn, targetConn);
-                
-                // 获取数据库名称
-                String sourceDb = sourceConn.getCatalog();
-                String targetDb = targetConn.getCatalog();
-                
-                // 关闭连接
-                sourceConn.close();
-                targetConn.close();
-                
+                String sourceUrl = sourceUrlField.getText();
+                String sourceUser = sourceUserField.getText();
+                String sourcePassword = new String(sourcePasswordField.getPassword());
+                String targetUrl = targetUrlField.getText();
+                String targetUser = targetUserField.getText();
+                String targetPassword = new String(targetPasswordField.getPassword());
+
+                CompareOptions options = DatabaseConfigService.getInstance(project).getCompareOptions();
+                DatabaseConnectionService connections = DatabaseConnectionService.getInstance(project);
+
                 // 关闭当前对话框
                 close(OK_EXIT_CODE);
-                
-                // 在工具窗口中显示结果，包含数据库名称
-                DiffResultToolWindow.showDiffResult(diffs, sourceDb, targetDb);
+
+                // 在后台任务中执行对比，完成后在工具窗口中显示结果
+                ProgressManager.getInstance().run(new DatabaseCompareTask(
+                    project,
+                    connections.connectionFactory(sourceUrl, sourceUser, sourcePassword),
+                    connections.connectionFactory(targetUrl, targetUser, targetPassword),
+                    options,
+                    selectedModelSource(sourceDbCombo, sourceUrl),
+                    selectedModelSource(targetDbCombo, targetUrl)
+                ));
                 
             } catch (Exception e) {
                 Messages.showErrorDialog(
@@ -266,29 +344,17 @@ public class DatabaseDiffDialog extends DialogWrapper {
         }
     }
 
-    private Connection createConnection(String url, String user, String password) throws SQLException {
-        // 验证并修正 URL 格式
-        if (!url.toLowerCase().startsWith("jdbc:")) {
-            url = "jdbc:mysql://" + url;
+    // 地址与所选数据源一致时才使用其模型，手工修改过地址则按地址连接；表统计信息只能从数据库读取
+    private DbDataSource selectedModelSource(JComboBox<DbDataSource> comboBox, String url) {
+        if (!useIdeModelCheckBox.isSelected() || compareTableStatsCheckBox.isSelected()
+            || !(comboBox.getSelectedItem() instanceof DbDataSource)) {
+            return null;
         }
-        
-        try {
-            // 确保 MySQL 驱动被加载
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            
-            // 添加常用参数
-            if (!url.contains("?")) {
-                url += "?";
-            } else if (!url.endsWith("&") && !url.endsWith("?")) {
-                url += "&";
-            }
-            
-            url += "useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
-            
-            return DriverManager.getConnection(url, user, password);
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL JDBC Driver not found", e);
+        DbDataSource dataSource = (DbDataSource) comboBox.getSelectedItem();
+        if (!(dataSource.getDelegate() instanceof LocalDataSource)) {
+            return null;
         }
+        return url.trim().equals(((LocalDataSource) dataSource.getDelegate()).getUrl()) ? dataSource : null;
     }
 
     private boolean validateInput() {
@@ -341,6 +407,15 @@ public class DatabaseDiffDialog extends DialogWrapper {
             targetUrlField.setText(state.targetUrl);
             targetUserField.setText(state.targetUser);
             targetPasswordField.setText(state.targetPassword);
+            useInformationSchemaCheckBox.setSelected(state.useInformationSchema);
+            parallelismSpinner.setValue(Math.max(1, state.parallelism));
+            dataCompareConcurrencySpinner.setValue(Math.max(1, state.dataCompareConcurrency));
+            tableIncludeField.setText(state.tableIncludePattern);
+            tableExcludeField.setText(state.tableExcludePattern);
+            lazyCreateTableSqlCheckBox.setSelected(state.lazyCreateTableSql);
+            compareTableStatsCheckBox.setSelected(state.compareTableStats);
+            htmlReportPerTableCheckBox.setSelected(state.htmlReportPerTable);
+            useIdeModelCheckBox.setSelected(state.useIdeModel);
         }
     }
 
@@ -352,6 +427,15 @@ public class DatabaseDiffDialog extends DialogWrapper {
         state.targetUrl = targetUrlField.getText();
         state.targetUser = targetUserField.getText();
         state.targetPassword = new String(targetPasswordField.getPassword());
+        state.useInformationSchema = useInformationSchemaCheckBox.isSelected();
+        state.parallelism = (Integer) parallelismSpinner.getValue();
+        state.dataCompareConcurrency = (Integer) dataCompareConcurrencySpinner.getValue();
+        state.tableIncludePattern = tableIncludeField.getText().trim();
+        state.tableExcludePattern = tableExcludeField.getText().trim();
+        state.lazyCreateTableSql = lazyCreateTableSqlCheckBox.isSelected();
+        state.compareTableStats = compareTableStatsCheckBox.isSelected();
+        state.htmlReportPerTable = htmlReportPerTableCheckBox.isSelected();
+        state.useIdeModel = useIdeModelCheckBox.isSelected();
         
         DatabaseConfigService.getInstance(project).loadState(state);
     }
@@ -2,6 +2,8 @@ package com.dbdiff.plugin.ui;
 
 import com.dbdiff.plugin.model.TableDiff;
 import com.dbdiff.plugin.model.ColumnDiff;
+import com.dbdiff.plugin.model.ForeignKeyDiff;
+import com.dbdiff.plugin.model.IndexDiff;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.DialogWrapper;
 import com.intellij.ui.components.JBScrollPane;
@@ -80,6 +82,34 @@ public class DiffResultDialog extends DialogWrapper {
                     });
                 }
             }
+
+            if (tableDiff.getIndexDiffs() != null) {
+                for (IndexDiff indexDiff : tableDiff.getIndexDiffs()) {
+                    model.addRow(new Object[]{
+                        tableDiff.getTableName(),
+                        indexDiff.getIndexName(),
+                        indexDiff.getSourceDefinition() != null ? indexDiff.getSourceDefinition() : "",
+                        indexDiff.getTargetDefinition() != null ? indexDiff.getTargetDefinition() : "",
+                        "",  // 可空
+                        "",  // 注释
+                        getDiffDescription(indexDiff)
+                    });
+                }
+            }
+
+            if (tableDiff.getForeignKeyDiffs() != null) {
+                for (ForeignKeyDiff foreignKeyDiff : tableDiff.getForeignKeyDiffs()) {
+                    model.addRow(new Object[]{
+                        tableDiff.getTableName(),
+                        foreignKeyDiff.getConstraintName(),
+                        foreignKeyDiff.getSourceDefinition() != null ? foreignKeyDiff.getSourceDefinition() : "",
+                        foreignKeyDiff.getTargetDefinition() != null ? foreignKeyDiff.getTargetDefinition() : "",
+                        "",  // 可空
+                        "",  // 注释
+                        getDiffDescription(foreignKeyDiff)
+                    });
+                }
+            }
         }
 
         // 创建表格并设置渲染器
@@ -155,6 +185,32 @@ public class DiffResultDialog extends DialogWrapper {
                 return "";
         }
     }
+
+    private String getDiffDescription(ForeignKeyDiff foreignKeyDiff) {
+        switch (foreignKeyDiff.getDiffType()) {
+            case ADDED:
+                return "新增外键";
+            case REMOVED:
+                return "删除外键";
+            case CHANGED:
+                return "修改外键";
+            default:
+                return "";
+        }
+    }
+
+    private String getDiffDescription(IndexDiff indexDiff) {
+        switch (indexDiff.getDiffType()) {
+            case ADDED:
+                return "新增索引";
+            case REMOVED:
+                return "删除索引";
+            case CHANGED:
+                return "修改索引";
+            default:
+                return "";
+        }
+    }
     
     private void exportDiff() {
         // TODO: 实现导出功能
@@ -2,7 +2,7 @@ package com.dbdiff.plugin.ui;
 
 import com.dbdiff.plugin.model.TableDiff;
 import com.dbdiff.plugin.model.ColumnDiff;
-import com.dbdiff.plugin.service.DatabaseDiffService;
+import com.dbdiff.plugin.model.TableStats;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.wm.ToolWindow;
 import com.intellij.openapi.wm.ToolWindowFactory;
@@ -15,9 +15,21 @@ import org.jetbrains.annotations.NotNull;
 import com.intellij.openapi.ui.Messages;
 import com.intellij.util.ui.JBUI;
 import com.intellij.openapi.ui.ComboBox;
+import com.intellij.openapi.progress.ProgressManager;
 import javax.swing.table.TableCellRenderer;
 import com.dbdiff.plugin.service.ExportService;
 import com.dbdiff.plugin.service.DatabaseConfigService;
+import com.dbdiff.plugin.service.DatabaseConnectionService;
+import com.dbdiff.plugin.service.DatabaseDiffService;
+import com.dbdiff.plugin.service.SqlScriptGenerator;
+import com.dbdiff.plugin.exception.DatabaseComparisonException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileChooser.FileChooser;
+import com.intellij.openapi.fileChooser.FileChooserDescriptor;
+import com.intellij.openapi.vfs.VirtualFile;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -31,17 +43,27 @@ import javax.swing.event.DocumentListener;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.HashSet;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import javax.swing.table.TableColumn;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class DiffResultToolWindow implements ToolWindowFactory {
+    private static final Logger LOG = Logger.getInstance(DiffResultToolWindow.class);
     private static final Color BACKGROUND_COLOR = new Color(32, 33, 36);
     private static final Color FOREGROUND_COLOR = new Color(188, 190, 196);
     private static final Color BUTTON_BACKGROUND = new Color(60, 63, 65);
     private static final int ROW_HEIGHT = 32;
     private static final int DIVIDER_SIZE = 1;
+    private static final int BUTTON_COLUMN = 3;  // 操作列下标
     
     private static final Color DIFF_HIGHLIGHT_COLOR = new Color(147, 131, 247, 50);  // 紫色半透明
     
@@ -52,8 +74,10 @@ public class DiffResultToolWindow implements ToolWindowFactory {
     private static Project currentProject;
     private static JLabel sourceDatabaseLabel;
     private static JLabel targetDatabaseLabel;
-    private static JTextArea sourceScriptArea;
-    private static JTextArea targetScriptArea;
+    private static PagedScriptView sourceScriptView;
+    private static PagedScriptView targetScriptView;
+    // 脚本在后台生成，只展示最近一次请求的结果
+    private static final AtomicInteger scriptGeneration = new AtomicInteger();
 
     private JButton addDatabaseButton;
     private JComboBox<String> savedConnectionsCombo;
@@ -63,6 +87,17 @@ public class DiffResultToolWindow implements ToolWindowFactory {
     private static String sourceDb;
     private static String targetDb;
 
+    // 流式展示：对比线程发布的差异先进入队列，由定时器按批追加到表格
+    private static final int STREAM_FLUSH_INTERVAL_MS = 100;
+    private static final Queue<TableDiff> pendingDiffs = new ConcurrentLinkedQueue<>();
+    private static Timer streamTimer;
+
+    // 表格行序号与表数量统计，追加行时累加
+    private static int sourceRowIndex = 1;
+    private static int targetRowIndex = 1;
+    private static final Set<String> sourceTableNames = new HashSet<>();
+    private static final Set<String> targetTableNames = new HashSet<>();
+
     @Override
     public void createToolWindowContent(@NotNull Project project, @NotNull ToolWindow toolWindow) {
         currentProject = project;
@@ -73,6 +108,13 @@ public class DiffResultToolWindow implements ToolWindowFactory {
         // 创建主面板
         JPanel mainPanel = createMainPanel();
         Content content = ContentFactory.getInstance().createContent(mainPanel, "", false);
+        // 关闭时删除脚本视图的临时文件
+        PagedScriptView sourceView = sourceScriptView;
+        PagedScriptView targetView = targetScriptView;
+        content.setDisposer(() -> {
+            sourceView.clear();
+            targetView.clear();
+        });
         toolWindow.getContentManager().addContent(content);
     }
 
@@ -160,11 +202,11 @@ public class DiffResultToolWindow implements ToolWindowFactory {
         tablesSplitPane.setRightComponent(targetTablePanel);
 
         // 创建SQL脚本面板
-        sourceScriptArea = new JTextArea();
-        targetScriptArea = new JTextArea();
+        sourceScriptView = new PagedScriptView();
+        targetScriptView = new PagedScriptView();
         
-        JPanel sourceScriptPanel = createScriptPanel("源数据库缺失表的建表语句", sourceScriptArea);
-        JPanel targetScriptPanel = createScriptPanel("目标数据库缺失表的建表语句", targetScriptArea);
+        JPanel sourceScriptPanel = createScriptPanel("源数据库缺失表的建表语句", sourceScriptView);
+        JPanel targetScriptPanel = createScriptPanel("目标数据库缺失表的建表语句", targetScriptView);
 
         // 设置脚本面板的最小和首选大小
         sourceScriptPanel.setMinimumSize(panelSize);
@@ -250,28 +292,94 @@ public class DiffResultToolWindow implements ToolWindowFactory {
         }
     }
 
+    public static void beginStreaming(String srcDb, String tgtDb) {
+        pendingDiffs.clear();
+        if (currentProject != null) {
+            // 清空和启动定时器直接在同一个 EDT 任务中完成，不放进 show 的回调，
+            // 否则回调可能晚于随后的 showDiffResult 执行，把完整结果清掉
+            SwingUtilities.invokeLater(() -> {
+                sourceDb = srcDb;
+                targetDb = tgtDb;
+                currentDiffs = null;
+
+                sourceDatabaseLabel.setText("源数据库: " + sourceDb);
+                targetDatabaseLabel.setText("目标数据库: " + targetDb);
+                clearDiffRows();
+                scriptGeneration.incrementAndGet();
+                sourceScriptView.clear();
+                targetScriptView.clear();
+
+                if (streamTimer != null) {
+                    streamTimer.stop();
+                }
+                streamTimer = new Timer(STREAM_FLUSH_INTERVAL_MS, e -> flushPendingDiffs());
+                streamTimer.start();
+
+                showToolWindow();
+            });
+        }
+    }
+
+    // 可从任意线程调用
+    public static void publishDiff(TableDiff diff) {
+        pendingDiffs.add(diff);
+    }
+
+    public static void stopStreaming() {
+        SwingUtilities.invokeLater(() -> {
+            if (streamTimer != null) {
+                streamTimer.stop();
+                streamTimer = null;
+            }
+            flushPendingDiffs();
+        });
+    }
+
+    private static void flushPendingDiffs() {
+        List<TableDiff> batch = new ArrayList<>();
+        TableDiff diff;
+        while ((diff = pendingDiffs.poll()) != null) {
+            batch.add(diff);
+        }
+        if (!batch.isEmpty() && sourceModel != null) {
+            appendDiffRows(batch);
+        }
+    }
+
     public static void showDiffResult(List<TableDiff> diffs, String srcDb, String tgtDb) {
         if (currentProject != null) {
             SwingUtilities.invokeLater(() -> {
+                // 结束流式展示，用按确定顺序排列的完整结果重建表格
+                if (streamTimer != null) {
+                    streamTimer.stop();
+                    streamTimer = null;
+                }
+                pendingDiffs.clear();
                 currentDiffs = diffs;
                 sourceDb = srcDb;
                 targetDb = tgtDb;
-                
-                ToolWindow toolWindow = com.intellij.openapi.wm.ToolWindowManager.getInstance(currentProject)
-                        .getToolWindow("Database Diff Result");
-                if (toolWindow != null) {
-                    toolWindow.show(() -> {
-                        sourceDatabaseLabel.setText("源数据库: " + sourceDb);
-                        targetDatabaseLabel.setText("目标数据库: " + targetDb);
-                        updateDiffResults(diffs);
-                        updateScripts(diffs);
-                    });
-                }
+
+                sourceDatabaseLabel.setText("源数据库: " + sourceDb);
+                targetDatabaseLabel.setText("目标数据库: " + targetDb);
+                updateDiffResults(diffs);
+                updateScripts(diffs);
+
+                showToolWindow();
             });
         }
     }
 
-    private JPanel createScriptPanel(String title, JTextArea scriptArea) {
+    // currentProject 在创建工具窗口内容时设置，此时表格和标签都已创建，不需要等 show 的回调
+    private static void showToolWindow() {
+        ToolWindow toolWindow = com.intellij.openapi.wm.ToolWindowManager.getInstance(currentProject)
+                .getToolWindow("Database Diff Result");
+        if (toolWindow != null) {
+            toolWindow.show();
+        }
+    }
+
+    private JPanel createScriptPanel(String title, PagedScriptView scriptView) {
+        JTextArea scriptArea = scriptView.getTextArea();
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBackground(new Color(43, 43, 43));
         
@@ -292,7 +400,8 @@ public class DiffResultToolWindow implements ToolWindowFactory {
         copyButton.setForeground(new Color(187, 187, 187));
         copyButton.setBorder(BorderFactory.createEmptyBorder(2, 8, 2, 8));
         copyButton.addActionListener(e -> {
-            String text = scriptArea.getText();
+            // 文本区域只有当前页，复制时从临时文件读取完整脚本
+            String text = scriptView.getFullText();
             if (text != null && !text.trim().isEmpty()) {
                 copyToClipboard(text);
             }
@@ -301,6 +410,7 @@ public class DiffResultToolWindow implements ToolWindowFactory {
         // 创建按钮容器
         JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
         buttonPanel.setBackground(new Color(60, 63, 65));
+        buttonPanel.add(scriptView.createNavigation());
         buttonPanel.add(copyButton);
         titlePanel.add(buttonPanel, BorderLayout.EAST);
         
@@ -333,27 +443,27 @@ public class DiffResultToolWindow implements ToolWindowFactory {
 
     private void initializeTables() {
         // 创建表格模型，添加一列用于放置按钮
-        String[] columnNames = {"表名", "差异说明", "操作"};
+        String[] columnNames = {"表名", "差异说明", "数据量", "操作"};
         sourceModel = new DefaultTableModel(columnNames, 0) {
             @Override
             public boolean isCellEditable(int row, int column) {
-                return column == 2; // 只有操作列可编辑
+                return column == BUTTON_COLUMN; // 只有操作列可编辑
             }
             
             @Override
             public Class<?> getColumnClass(int column) {
-                return column == 2 ? JButton.class : String.class;
+                return column == BUTTON_COLUMN ? JButton.class : String.class;
             }
         };
         targetModel = new DefaultTableModel(columnNames, 0) {
             @Override
             public boolean isCellEditable(int row, int column) {
-                return column == 2;
+                return column == BUTTON_COLUMN;
             }
             
             @Override
             public Class<?> getColumnClass(int column) {
-                return column == 2 ? JButton.class : String.class;
+                return column == BUTTON_COLUMN ? JButton.class : String.class;
             }
         };
 
@@ -366,8 +476,8 @@ public class DiffResultToolWindow implements ToolWindowFactory {
         configureTable(targetTable);
         
         // 设置按钮列的渲染器和编辑器
-        setupButtonColumn(sourceTable, 2);
-        setupButtonColumn(targetTable, 2);
+        setupButtonColumn(sourceTable, BUTTON_COLUMN);
+        setupButtonColumn(targetTable, BUTTON_COLUMN);
     }
 
     private void configureTable(JBTable table) {
@@ -382,7 +492,8 @@ public class DiffResultToolWindow implements ToolWindowFactory {
         // 设置列宽
         table.getColumnModel().getColumn(0).setPreferredWidth(200); // 表名
         table.getColumnModel().getColumn(1).setPreferredWidth(150); // 差异说明
-        table.getColumnModel().getColumn(2).setPreferredWidth(60);  // 操作按钮，减小宽度
+        table.getColumnModel().getColumn(2).setPreferredWidth(120); // 数据量，未开启统计时为空
+        table.getColumnModel().getColumn(BUTTON_COLUMN).setPreferredWidth(60);  // 操作按钮，减小宽度
     }
 
     private void setupButtonColumn(JBTable table, int column) {
@@ -435,12 +546,9 @@ public class DiffResultToolWindow implements ToolWindowFactory {
                 if (diff.getTableName().equals(realTableName)) {
                     String sql = diff.getCreateTableSql();
                     if (sql != null && !sql.isEmpty()) {
-                        java.awt.Toolkit.getDefaultToolkit()
-                            .getSystemClipboard()
-                            .setContents(new java.awt.datatransfer.StringSelection(sql), null);
-                        Messages.showInfoMessage(currentProject, 
-                            String.format("表 %s 的结构已复制到剪贴板", realTableName), 
-                            "复制成功");
+                        copyCreateTableSql(realTableName, sql);
+                    } else if (diff.getDiffType() != TableDiff.DiffType.MODIFIED) {
+                        loadCreateTableSql(diff);
                     }
                     break;
                 }
@@ -448,6 +556,60 @@ public class DiffResultToolWindow implements ToolWindowFactory {
         }
     }
 
+    private void copyCreateTableSql(String tableName, String sql) {
+        java.awt.Toolkit.getDefaultToolkit()
+            .getSystemClipboard()
+            .setContents(new java.awt.datatransfer.StringSelection(sql), null);
+        Messages.showInfoMessage(currentProject, 
+            String.format("表 %s 的结构已复制到剪贴板", tableName), 
+            "复制成功");
+    }
+
+    // 延迟加载模式下对比结果不含建表语句，按上次对比使用的连接单独读取
+    private void loadCreateTableSql(TableDiff diff) {
+        DatabaseConfigService.State state = DatabaseConfigService.getInstance(currentProject).getState();
+        if (state == null) {
+            return;
+        }
+        // 删除的表只存在于源库，新增的表只存在于目标库
+        boolean fromSource = diff.getDiffType() == TableDiff.DiffType.REMOVED;
+        String url = fromSource ? state.sourceUrl : state.targetUrl;
+        String user = fromSource ? state.sourceUser : state.targetUser;
+        String password = fromSource ? state.sourcePassword : state.targetPassword;
+
+        ProgressManager.getInstance().run(new Task.Backgroundable(currentProject, "读取建表语句", true) {
+            private String sql;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setText(diff.getTableName());
+                try (Connection conn = DatabaseConnectionService.getInstance(currentProject)
+                         .getConnection(url, user, password)) {
+                    sql = new DatabaseDiffService().fetchCreateTableSql(conn, diff.getTableName());
+                } catch (SQLException e) {
+                    throw new DatabaseComparisonException("Failed to connect to database", e);
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                if (sql == null) {
+                    Messages.showWarningDialog(currentProject,
+                        String.format("表 %s 不存在或已被删除", diff.getTableName()), "复制失败");
+                    return;
+                }
+                diff.setCreateTableSql(sql);
+                updateScripts(currentDiffs);
+                copyCreateTableSql(diff.getTableName(), sql);
+            }
+
+            @Override
+            public void onThrowable(@NotNull Throwable error) {
+                Messages.showErrorDialog(currentProject, "Error: " + error.getMessage(), "读取建表语句失败");
+            }
+        });
+    }
+
     private JPanel createTablePanel(JLabel databaseLabel, JBTable table) {
         JPanel panel = new JPanel(new BorderLayout());
         panel.setBackground(new Color(32, 33, 36));
@@ -492,54 +654,68 @@ public class DiffResultToolWindow implements ToolWindowFactory {
     }
 
     private static void updateDiffResults(List<TableDiff> diffs) {
+        clearDiffRows();
+        appendDiffRows(diffs);
+    }
+
+    private static void clearDiffRows() {
         sourceModel.setRowCount(0);
         targetModel.setRowCount(0);
 
-        // 统计表的数量
-        Set<String> sourceTables = new HashSet<>();
-        Set<String> targetTables = new HashSet<>();
-
-        // 添加序号计数器
-        int sourceIndex = 1;
-        int targetIndex = 1;
+        sourceRowIndex = 1;
+        targetRowIndex = 1;
+        sourceTableNames.clear();
+        targetTableNames.clear();
+    }
 
+    private static void appendDiffRows(List<TableDiff> diffs) {
         for (TableDiff diff : diffs) {
             switch (diff.getDiffType()) {
                 case ADDED:
-                    targetTables.add(diff.getTableName());
+                    targetTableNames.add(diff.getTableName());
                     addEmptyRows(sourceModel, 0);
                     targetModel.addRow(new Object[]{
-                        targetIndex++ + ". " + diff.getTableName(),  // 添加序号
+                        targetRowIndex++ + ". " + diff.getTableName(),  // 添加序号
                         "新增",
+                        formatTableStats(diff.getTargetStats()),
                         "复制表结构"
                     });
                     break;
                     
                 case REMOVED:
-                    sourceTables.add(diff.getTableName());
+                    sourceTableNames.add(diff.getTableName());
                     sourceModel.addRow(new Object[]{
-                        sourceIndex++ + ". " + diff.getTableName(),  // 添加序号
+                        sourceRowIndex++ + ". " + diff.getTableName(),  // 添加序号
                         "删除",
+                        formatTableStats(diff.getSourceStats()),
                         "复制表结构"
                     });
                     addEmptyRows(targetModel, 0);
                     break;
                     
                 case MODIFIED:
-                    sourceTables.add(diff.getTableName());
-                    targetTables.add(diff.getTableName());
-                    if (diff.getColumnDiffs() != null && !diff.getColumnDiffs().isEmpty()) {
+                    sourceTableNames.add(diff.getTableName());
+                    targetTableNames.add(diff.getTableName());
+                    if (SqlScriptGenerator.hasChanges(diff)) {
                         int[] changes = countChanges(diff.getColumnDiffs());
                         String changeDesc = formatChangeDescription(changes[0], changes[1], changes[2]);
+                        if (diff.getIndexDiffs() != null && !diff.getIndexDiffs().isEmpty()) {
+                            changeDesc += (changeDesc.isEmpty() ? "" : " ") + "索引" + diff.getIndexDiffs().size();
+                        }
+                        if (diff.getForeignKeyDiffs() != null && !diff.getForeignKeyDiffs().isEmpty()) {
+                            changeDesc += (changeDesc.isEmpty() ? "" : " ") + "外键" + diff.getForeignKeyDiffs().size();
+                        }
                         
                         sourceModel.addRow(new Object[]{
-                            sourceIndex++ + ". " + diff.getTableName(),  // 添加序号
+                            sourceRowIndex++ + ". " + diff.getTableName(),  // 添加序号
                             changeDesc,
+                            formatTableStats(diff.getSourceStats()),
                             "复制表结构"
                         });
                         targetModel.addRow(new Object[]{
-                            targetIndex++ + ". " + diff.getTableName(),  // 添加序号
+                            targetRowIndex++ + ". " + diff.getTableName(),  // 添加序号
                             changeDesc,
+                            formatTableStats(diff.getTargetStats()),
                             "复制表结构"
                         });
                     }
@@ -548,11 +724,13 @@ public class DiffResultToolWindow implements ToolWindowFactory {
         }
 
         // 更新表数量显示
+        int sourceCount = sourceTableNames.size();
+        int targetCount = targetTableNames.size();
         SwingUtilities.invokeLater(() -> {
             // 更新源数据库表数量
-            updateTableCount(sourceTable, "sourceTableCount", sourceTables.size());
+            updateTableCount(sourceTable, "sourceTableCount", sourceCount);
             // 更新目标数据库表数量
-            updateTableCount(targetTable, "targetTableCount", targetTables.size());
+            updateTableCount(targetTable, "targetTableCount", targetCount);
         });
     }
 
@@ -568,6 +746,35 @@ public class DiffResultToolWindow implements ToolWindowFactory {
         return changes;
     }
 
+    // 例如 "1.2万行 / 3.5 MB"，行数为存储引擎的统计值
+    private static String formatTableStats(TableStats stats) {
+        if (stats == null) {
+            return "";
+        }
+        return formatRowCount(stats.getRows()) + " / " + formatBytes(stats.getTotalLength());
+    }
+
+    private static String formatRowCount(long rows) {
+        if (rows >= 100_000_000L) {
+            return String.format("%.1f亿行", rows / 100_000_000.0);
+        }
+        if (rows >= 10_000L) {
+            return String.format("%.1f万行", rows / 10_000.0);
+        }
+        return rows + "行";
+    }
+
+    private static String formatBytes(long bytes) {
+        String[] units = {"B", "KB", "MB", "GB", "TB"};
+        double size = bytes;
+        int unit = 0;
+        while (size >= 1024 && unit < units.length - 1) {
+            size /= 1024;
+            unit++;
+        }
+        return unit == 0 ? bytes + " B" : String.format("%.1f %s", size, units[unit]);
+    }
+
     private static String formatChangeDescription(int added, int removed, int modified) {
         StringBuilder desc = new StringBuilder();
         if (added > 0) desc.append("+").append(added);
@@ -639,68 +846,32 @@ public class DiffResultToolWindow implements ToolWindowFactory {
         // TODO: 实现导出功能
     }
 
+    // 大库的脚本可达几十 MB，在后台写入临时文件后按页展示
     private static void updateScripts(List<TableDiff> diffs) {
-        StringBuilder sourceScript = new StringBuilder();
-        StringBuilder targetScript = new StringBuilder();
-
-        for (TableDiff diff : diffs) {
-            switch (diff.getDiffType()) {
-                case ADDED:
-                    // 目标数据库新增的表，源数据库缺失
-                    sourceScript.append("-- 在源数据库中缺失的表: ").append(diff.getTableName()).append("\n");
-                    String createSql = diff.getCreateTableSql();
-                    if (!createSql.trim().endsWith(";")) {
-                        createSql = createSql.trim() + ";";
-                    }
-                    sourceScript.append(createSql).append("\n\n");
-                    break;
-                case REMOVED:
-                    // 源数据库有但目标数据库没有的表
-                    targetScript.append("-- 在目标数据库中缺失的表: ").append(diff.getTableName()).append("\n");
-                    String removedSql = diff.getCreateTableSql();
-                    if (!removedSql.trim().endsWith(";")) {
-                        removedSql = removedSql.trim() + ";";
-                    }
-                    targetScript.append(removedSql).append("\n\n");
-                    break;
-                case MODIFIED:
-                    // 如果有列的变更，生成ALTER TABLE语句
-                    if (diff.getColumnDiffs() != null && !diff.getColumnDiffs().isEmpty()) {
-                        String alterTableSql = generateAlterTableSql(diff);
-                        targetScript.append(alterTableSql).append("\n\n");
-                    }
-                    break;
-            }
-        }
-
-        sourceScriptArea.setText(sourceScript.toString());
-        targetScriptArea.setText(targetScript.toString());
-    }
-
-    private static String generateAlterTableSql(TableDiff diff) {
-        StringBuilder sql = new StringBuilder();
-        sql.append("-- 表 ").append(diff.getTableName()).append(" 的结构变更\n");
-        sql.append("ALTER TABLE `").append(diff.getTableName()).append("`\n");
-
-        List<String> alterations = new ArrayList<>();
-        for (ColumnDiff columnDiff : diff.getColumnDiffs()) {
-            switch (columnDiff.getDiffType()) {
-                case ADDED:
-                    alterations.add("ADD COLUMN `" + columnDiff.getColumnName() + "` " + 
-                                  columnDiff.getTargetType());
-                    break;
-                case REMOVED:
-                    alterations.add("DROP COLUMN `" + columnDiff.getColumnName() + "`");
-                    break;
-                case TYPE_CHANGED:
-                    alterations.add("MODIFY COLUMN `" + columnDiff.getColumnName() + "` " + 
-                                  columnDiff.getTargetType());
-                    break;
+        int generation = scriptGeneration.incrementAndGet();
+        List<TableDiff> snapshot = new ArrayList<>(diffs);
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            PagedScriptView.ScriptPages sourcePages = null;
+            PagedScriptView.ScriptPages targetPages = null;
+            try {
+                sourcePages = PagedScriptView.render(out -> SqlScriptGenerator.writeSourceScript(out, snapshot));
+                targetPages = PagedScriptView.render(out -> SqlScriptGenerator.writeTargetScript(out, snapshot));
+            } catch (IOException e) {
+                LOG.warn("Failed to render sync scripts", e);
             }
-        }
-
-        sql.append(String.join(",\n", alterations)).append(";");
-        return sql.toString();
+            PagedScriptView.ScriptPages finalSourcePages = sourcePages;
+            PagedScriptView.ScriptPages finalTargetPages = targetPages;
+            SwingUtilities.invokeLater(() -> {
+                if (generation != scriptGeneration.get()
+                        || finalSourcePages == null || finalTargetPages == null) {
+                    PagedScriptView.discard(finalSourcePages);
+                    PagedScriptView.discard(finalTargetPages);
+                    return;
+                }
+                sourceScriptView.show(finalSourcePages);
+                targetScriptView.show(finalTargetPages);
+            });
+        });
     }
 
     private JPanel createBottomPanel() {
@@ -708,55 +879,90 @@ public class DiffResultToolWindow implements ToolWindowFactory {
         
         JButton exportHtmlButton = new JButton("导出HTML报告");
         JButton exportCsvButton = new JButton("导出CSV");
+        JButton exportSqlButton = new JButton("导出SQL脚本");
+        JButton exportJsonButton = new JButton("导出JSON");
+        JButton exportNdjsonButton = new JButton("导出NDJSON");
         
         exportHtmlButton.addActionListener(e -> ExportService.exportToHtml(
             currentProject, currentDiffs, sourceDb, targetDb));
         exportCsvButton.addActionListener(e -> ExportService.exportToCsv(
             currentProject, currentDiffs));
+        exportSqlButton.addActionListener(e -> exportMigrationScript());
+        exportJsonButton.addActionListener(e -> ExportService.exportToJson(
+            currentProject, currentDiffs, sourceDb, targetDb, false));
+        exportNdjsonButton.addActionListener(e -> ExportService.exportToJson(
+            currentProject, currentDiffs, sourceDb, targetDb, true));
         
+        // 按主键分块比较两侧共有表的数据，使用上次保存的连接配置
+        JButton compareDataButton = new JButton("数据对比");
+        compareDataButton.addActionListener(e -> compareTableData());
+
+        panel.add(compareDataButton);
         panel.add(exportHtmlButton);
         panel.add(exportCsvButton);
+        panel.add(exportJsonButton);
+        panel.add(exportNdjsonButton);
+        panel.add(exportSqlButton);
         
         return panel;
     }
 
-    private String generateSqlScript() {
-        StringBuilder sql = new StringBuilder();
-        for (TableDiff diff : currentDiffs) {
-            switch (diff.getDiffType()) {
-                case ADDED:
-                    sql.append("-- 新增表\n");
-                    sql.append(diff.getCreateTableSql()).append("\n\n");
-                    break;
-                case REMOVED:
-                    sql.append("-- 删除表\n");
-                    sql.append("DROP TABLE IF EXISTS `").append(diff.getTableName()).append("`;\n\n");
-                    break;
-                case MODIFIED:
-                    if (diff.getColumnDiffs() != null && !diff.getColumnDiffs().isEmpty()) {
-                        sql.append("-- 修改表 ").append(diff.getTableName()).append("\n");
-                        sql.append("ALTER TABLE `").append(diff.getTableName()).append("`\n");
-                        for (ColumnDiff colDiff : diff.getColumnDiffs()) {
-                            switch (colDiff.getDiffType()) {
-                                case ADDED:
-                                    sql.append("  ADD COLUMN `").append(colDiff.getColumnName())
-                                       .append("` ").append(colDiff.getTargetType()).append(",\n");
-                                    break;
-                                case REMOVED:
-                                    sql.append("  DROP COLUMN `").append(colDiff.getColumnName()).append("`,\n");
-                                    break;
-                                case TYPE_CHANGED:
-                                    sql.append("  MODIFY COLUMN `").append(colDiff.getColumnName())
-                                       .append("` ").append(colDiff.getTargetType()).append(",\n");
-                                    break;
-                            }
-                        }
-                        sql.append(";\n\n");
-                    }
-                    break;
+    private void exportMigrationScript() {
+        if (currentDiffs == null || currentDiffs.isEmpty()) {
+            Messages.showWarningDialog(currentProject, "没有可导出的差异", "导出SQL脚本");
+            return;
+        }
+        FileChooserDescriptor descriptor = new FileChooserDescriptor(false, true, false, false, false, false);
+        VirtualFile dir = FileChooser.chooseFile(descriptor, currentProject, null);
+        if (dir == null) {
+            return;
+        }
+        List<TableDiff> diffs = new ArrayList<>(currentDiffs);
+        Path file = Paths.get(dir.getPath(), "db_sync.sql");
+        ProgressManager.getInstance().run(new Task.Backgroundable(currentProject, "导出SQL脚本", false) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(true);
+                ExportService.loadMissingCreateTableSql(currentProject, diffs);
+                // 直接写入文件通道，不在内存中拼接完整脚本
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    SqlScriptGenerator.writeMigrationScript(channel, diffs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                Messages.showInfoMessage(currentProject, "SQL脚本已导出到: " + file, "导出成功");
             }
+
+            @Override
+            public void onThrowable(@NotNull Throwable error) {
+                Messages.showErrorDialog(currentProject, "Error: " + error.getMessage(), "导出SQL脚本失败");
+            }
+        });
+    }
+
+    private void compareTableData() {
+        DatabaseConfigService.State state = DatabaseConfigService.getInstance(currentProject).getState();
+        if (state == null || state.sourceUrl.isEmpty() || state.targetUrl.isEmpty()) {
+            Messages.showWarningDialog(currentProject, "请先配置并执行一次结构对比", "数据对比");
+            return;
         }
-        return sql.toString();
+        DatabaseConnectionService connections = DatabaseConnectionService.getInstance(currentProject);
+        // 逐行对比时通过服务端游标分批读取，避免驱动把结果集整体缓存在内存中
+        ProgressManager.getInstance().run(new DataCompareTask(
+            currentProject,
+            connections.connectionFactory(withCursorFetch(state.sourceUrl), state.sourceUser, state.sourcePassword),
+            connections.connectionFactory(withCursorFetch(state.targetUrl), state.targetUser, state.targetPassword),
+            DatabaseConfigService.getInstance(currentProject).getCompareOptions()
+        ));
+    }
+
+    private static String withCursorFetch(String url) {
+        return url + (url.contains("?") ? "&" : "?") + "useCursorFetch=true";
     }
 
     private JPanel createActionToolbar() {
@@ -773,11 +979,11 @@ public class DiffResultToolWindow implements ToolWindowFactory {
         splitPane.setBorder(null);  // 移除边框
         splitPane.setDividerSize(1);  // 设置分割线宽度为1，与表格区域一致
 
-        sourceScriptArea = new JTextArea();
-        targetScriptArea = new JTextArea();
+        sourceScriptView = new PagedScriptView();
+        targetScriptView = new PagedScriptView();
         
-        JPanel sourceScriptPanel = createScriptPanel("源数据库缺失表的建表语句", sourceScriptArea);
-        JPanel targetScriptPanel = createScriptPanel("目标数据库缺失表的建表语句", targetScriptArea);
+        JPanel sourceScriptPanel = createScriptPanel("源数据库缺失表的建表语句", sourceScriptView);
+        JPanel targetScriptPanel = createScriptPanel("目标数据库缺失表的建表语句", targetScriptView);
 
         splitPane.setLeftComponent(sourceScriptPanel);
         splitPane.setRightComponent(targetScriptPanel);
@@ -797,79 +1003,43 @@ public class DiffResultToolWindow implements ToolWindowFactory {
         // 加载上次的配置
         DatabaseConfigService.State state = DatabaseConfigService.getInstance(currentProject).getState();
         if (state != null && !state.sourceUrl.isEmpty() && !state.targetUrl.isEmpty()) {
-            try {
-                long startTime = System.currentTimeMillis();
-                
-                // 创建数据库连接
-                Connection sourceConn = createConnection(
-                    state.sourceUrl,
-                    state.sourceUser,
-                    state.sourcePassword
-                );
-                
-                Connection targetConn = createConnection(
-                    state.targetUrl,
-                    state.targetUser,
-                    state.targetPassword
-                );
-                
-                // 执行比较
-                DatabaseDiffService diffService = new DatabaseDiffService();
-                List<TableDiff> diffs = diffService.compareDatabase(sourceConn, targetConn);
-                
-                // 计算耗时
-                long endTime = System.currentTimeMillis();
-                long duration = endTime - startTime;
-                compareTimeLabel.setText(String.format("耗时: %d ms", duration));
-                
-                // 获取数据库名称
-                String sourceDb = sourceConn.getCatalog();
-                String targetDb = targetConn.getCatalog();
-                
-                // 关闭连接
-                sourceConn.close();
-                targetConn.close();
-                
-                // 显示结果
-                showDiffResult(diffs, sourceDb, targetDb);
-                
-            } catch (Exception e) {
-                // 如果出错，再显示配置对话框
-                Messages.showErrorDialog(
-                    currentProject,
-                    "快速对比失败: " + e.getMessage() + "\n请重新配置数据库连接",
-                    "连接错误"
-                );
-                dialog.show();
-            }
+            DatabaseConnectionService connections = DatabaseConnectionService.getInstance(currentProject);
+            // 在后台任务中执行对比，避免阻塞界面
+            ProgressManager.getInstance().run(new DatabaseCompareTask(
+                currentProject,
+                connections.connectionFactory(state.sourceUrl, state.sourceUser, state.sourcePassword),
+                connections.connectionFactory(state.targetUrl, state.targetUser, state.targetPassword),
+                DatabaseConfigService.getInstance(currentProject).getCompareOptions()
+            ) {
+                @Override
+                protected void onCompareFailed(String message) {
+                    // 如果出错，再显示配置对话框
+                    Messages.showErrorDialog(
+                        currentProject,
+                        "快速对比失败: " + message + "\n请重新配置数据库连接",
+                        "连接错误"
+                    );
+                    dialog.show();
+                }
+            });
         } else {
             // 如果没有保存的配置，显示配置对话框
             dialog.show();
         }
     }
 
-    private Connection createConnection(String url, String user, String password) throws SQLException {
-        // 验证并修正 URL 格式
-        if (!url.toLowerCase().startsWith("jdbc:")) {
-            url = "jdbc:mysql://" + url;
-        }
-        
-        try {
-            // 确保 MySQL 驱动被加载
-            Class.forName("com.mysql.cj.jdbc.Driver");
-            
-            // 添加常用参数
-            if (!url.contains("?")) {
-                url += "?";
-            } else if (!url.endsWith("&") && !url.endsWith("?")) {
-                url += "&";
+    // 可从后台线程调用，在工具栏的耗时标签中显示数据对比的行数和吞吐量
+    public static void showDataCompareThroughput(long rows, long rowsPerSecond) {
+        SwingUtilities.invokeLater(() -> {
+            if (compareTimeLabel != null) {
+                compareTimeLabel.setText(String.format("数据对比: %,d 行, %,d 行/秒", rows, rowsPerSecond));
             }
-            
-            url += "useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC";
-            
-            return DriverManager.getConnection(url, user, password);
-        } catch (ClassNotFoundException e) {
-            throw new SQLException("MySQL JDBC Driver not found", e);
+        });
+    }
+
+    public static void showCompareTime(long duration) {
+        if (compareTimeLabel != null) {
+            compareTimeLabel.setText(String.format("耗时: %d ms", duration));
         }
     }
 
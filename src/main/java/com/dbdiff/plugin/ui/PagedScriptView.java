@@ -0,0 +1,182 @@
+package com.dbdiff.plugin.ui;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// 脚本写入临时文件，文本区域每次只显示一页，避免把几十 MB 的脚本整体交给 Swing 渲染
+class PagedScriptView {
+    static final int PAGE_LINES = 2000;
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final JTextArea textArea = new JTextArea();
+    private final JLabel pageLabel = new JLabel();
+    private final JButton previousButton = new JButton("上一页");
+    private final JButton nextButton = new JButton("下一页");
+    private ScriptPages pages;
+    private int page;
+
+    @FunctionalInterface
+    interface ScriptContent {
+        void writeTo(Writer out) throws IOException;
+    }
+
+    // 临时文件及每页起始字节位置，UTF-8 下按换行字节切分不会截断字符
+    static class ScriptPages {
+        final Path file;
+        final long[] pageOffsets;
+        final long size;
+
+        private ScriptPages(Path file, long[] pageOffsets, long size) {
+            this.file = file;
+            this.pageOffsets = pageOffsets;
+            this.size = size;
+        }
+
+        int getPageCount() {
+            return pageOffsets.length;
+        }
+    }
+
+    PagedScriptView() {
+        pageLabel.setForeground(new Color(187, 187, 187));
+        previousButton.addActionListener(e -> showPage(page - 1));
+        nextButton.addActionListener(e -> showPage(page + 1));
+        updateNavigation();
+    }
+
+    JTextArea getTextArea() {
+        return textArea;
+    }
+
+    JComponent createNavigation() {
+        JPanel navigation = new JPanel(new FlowLayout(FlowLayout.RIGHT, 5, 0));
+        navigation.setOpaque(false);
+        navigation.add(previousButton);
+        navigation.add(pageLabel);
+        navigation.add(nextButton);
+        return navigation;
+    }
+
+    // 在后台线程调用：写入新的临时文件并建立分页索引；临时文件由 show、clear 和 discard 显式删除，
+    // 不使用 deleteOnExit，否则每次刷新都会在 JVM 的退出列表中留下一项
+    static ScriptPages render(ScriptContent content) throws IOException {
+        Path file = Files.createTempFile("db-diff-script", ".sql");
+        try {
+            try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                content.writeTo(out);
+            }
+            return index(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    private static ScriptPages index(Path file) throws IOException {
+        long[] offsets = new long[16];
+        int pageCount = 1;
+        long position = 0;
+        int lines = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), READ_BUFFER_SIZE)) {
+            int b;
+            while ((b = in.read()) != -1) {
+                position++;
+                if (b == '\n' && ++lines == PAGE_LINES) {
+                    lines = 0;
+                    if (pageCount == offsets.length) {
+                        offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                    }
+                    offsets[pageCount++] = position;
+                }
+            }
+        }
+        // 文件恰好在页边界结束时去掉最后的空页
+        if (pageCount > 1 && offsets[pageCount - 1] == position) {
+            pageCount--;
+        }
+        return new ScriptPages(file, Arrays.copyOf(offsets, pageCount), position);
+    }
+
+    // 在 EDT 调用：切换到新的脚本并显示第一页，旧的临时文件随即删除
+    void show(ScriptPages newPages) {
+        ScriptPages oldPages = pages;
+        pages = newPages;
+        showPage(0);
+        discard(oldPages);
+    }
+
+    // 工具窗口关闭时同样调用，删除当前展示的临时文件
+    void clear() {
+        ScriptPages oldPages = pages;
+        pages = null;
+        page = 0;
+        textArea.setText("");
+        updateNavigation();
+        discard(oldPages);
+    }
+
+    // 复制时才读取完整脚本
+    String getFullText() {
+        if (pages == null) {
+            return textArea.getText();
+        }
+        try {
+            return new String(Files.readAllBytes(pages.file), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return textArea.getText();
+        }
+    }
+
+    private void showPage(int newPage) {
+        if (pages == null || newPage < 0 || newPage >= pages.getPageCount()) {
+            return;
+        }
+        page = newPage;
+        long start = pages.pageOffsets[page];
+        long end = page + 1 < pages.getPageCount() ? pages.pageOffsets[page + 1] : pages.size;
+        try (FileChannel channel = FileChannel.open(pages.file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+            while (buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) > 0) {
+                // 读满本页
+            }
+            textArea.setText(new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8));
+            textArea.setCaretPosition(0);
+        } catch (IOException e) {
+            textArea.setText("-- 读取脚本失败: " + e.getMessage());
+        }
+        updateNavigation();
+    }
+
+    private void updateNavigation() {
+        int pageCount = pages != null ? pages.getPageCount() : 0;
+        boolean paged = pageCount > 1;
+        previousButton.setVisible(paged);
+        nextButton.setVisible(paged);
+        pageLabel.setVisible(paged);
+        previousButton.setEnabled(page > 0);
+        nextButton.setEnabled(page + 1 < pageCount);
+        pageLabel.setText(String.format("%d / %d", page + 1, Math.max(pageCount, 1)));
+    }
+
+    // 删除不再展示的临时文件
+    static void discard(ScriptPages pages) {
+        if (pages != null) {
+            try {
+                Files.deleteIfExists(pages.file);
+            } catch (IOException ignored) {
+                // 删除失败时留给系统清理临时目录
+            }
+        }
+    }
+}